@@ -0,0 +1,67 @@
+package com.mobiquity.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates the input lines and files used by the benchmarks (e.g.: "81 : (1,53.38,€45) (2,88.62,€98)").
+ * The content is random, but the seed is fixed, so every run measures the same input.
+ */
+public class BenchmarkData {
+
+    private static final long SEED = 42;
+
+    /**
+     * @param totalLines the number of lines.
+     * @param items      the number of products in each line.
+     * @return the lines, with weight limit and products in hundredths.
+     */
+    public static String[] createLines(final int totalLines, final int items) {
+        final Random random = new Random(SEED);
+        final String[] lines = new String[totalLines];
+
+        for (int i = 0; i < totalLines; i++) {
+            lines[i] = createLine(random, items);
+        }
+
+        return lines;
+    }
+
+    /**
+     * Creates a temporary file with the given lines, deleted when the JVM exits.
+     * @param lines the content of file.
+     * @return the path of file.
+     */
+    public static Path createFile(final String[] lines) throws IOException {
+        final Path file = Files.createTempFile("packer-benchmark", ".txt");
+        file.toFile().deleteOnExit();
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+
+        return file;
+    }
+
+    private static String createLine(final Random random, final int items) {
+        final StringBuilder line = new StringBuilder();
+        line.append(1 + random.nextInt(100)).append(" :");
+
+        for (int index = 1; index <= items; index++) {
+            line.append(" (").append(index)
+                    .append(',').append(String.format(Locale.ROOT, "%.2f", 1 + random.nextInt(9900) / 100.0))
+                    .append(",€").append(1 + random.nextInt(100))
+                    .append(')');
+        }
+
+        return line.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package com.mobiquity.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Main class of benchmarks.jar. It accepts the same arguments of the JMH command line
+ * (e.g.: "PackStrategyBenchmark -p items=15"), and always adds the GC profiler, so the results
+ * include the allocation rate (gc.alloc.rate.norm is the number of bytes allocated per operation).
+ */
+public class BenchmarkRunner {
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        new Runner(new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
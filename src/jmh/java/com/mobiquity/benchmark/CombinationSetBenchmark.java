@@ -0,0 +1,43 @@
+package com.mobiquity.benchmark;
+
+import com.mobiquity.logging.LoggingProfile;
+import com.mobiquity.algorithm.CombinationSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the generation of all combinations by {@link CombinationSet#getCombinations(List)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CombinationSetBenchmark {
+
+    @Param({"1", "5", "10", "15"})
+    private int items;
+
+    private List<Integer> elements;
+
+    @Setup
+    public void setUp() {
+        // measure the solving, not the console output
+        LoggingProfile.useQuiet();
+
+        elements = new ArrayList<>();
+        for (int index = 1; index <= items; index++) {
+            elements.add(index);
+        }
+    }
+
+    @Benchmark
+    public Set<Set<Integer>> getCombinations() {
+        return CombinationSet.getCombinations(elements);
+    }
+}
@@ -0,0 +1,43 @@
+package com.mobiquity.benchmark;
+
+import com.mobiquity.logging.LoggingProfile;
+import com.mobiquity.packer.model.Pack;
+import com.mobiquity.packer.strategy.PackStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the resolution of a line by {@link PackStrategy#getBetterPackFromInputLine(CharSequence)},
+ * from parsing to the chosen solver. Lines with more than 15 products are rejected by the strategy.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackStrategyBenchmark {
+
+    private static final int TOTAL_LINES = 256;
+
+    @Param({"1", "5", "10", "15", "30"})
+    private int items;
+
+    private String[] lines;
+    private int position;
+
+    @Setup
+    public void setUp() {
+        // measure the solving, not the console output
+        LoggingProfile.useQuiet();
+
+        lines = BenchmarkData.createLines(TOTAL_LINES, items);
+    }
+
+    @Benchmark
+    public Pack getBetterPackFromInputLine() {
+        position = (position + 1) % TOTAL_LINES;
+        return PackStrategy.getBetterPackFromInputLine(lines[position]);
+    }
+}
@@ -0,0 +1,42 @@
+package com.mobiquity.benchmark;
+
+import com.mobiquity.logging.LoggingProfile;
+import com.mobiquity.packer.Packer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark of {@link Packer#pack(String)}, reading a generated file and writing the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackerBenchmark {
+
+    private static final int TOTAL_LINES = 1000;
+
+    @Param({"1", "5", "10", "15", "30"})
+    private int items;
+
+    private String filePath;
+
+    @Setup
+    public void setUp() throws IOException {
+        // measure the solving, not the console output
+        LoggingProfile.useQuiet();
+
+        final Path file = BenchmarkData.createFile(BenchmarkData.createLines(TOTAL_LINES, items));
+        filePath = file.toString();
+    }
+
+    @Benchmark
+    public String pack() {
+        return Packer.pack(filePath);
+    }
+}
@@ -0,0 +1,53 @@
+package com.mobiquity.benchmark;
+
+import com.mobiquity.logging.LoggingProfile;
+import com.mobiquity.packer.converter.PackConverter;
+import com.mobiquity.packer.converter.ProductConverter;
+import com.mobiquity.packer.dto.FileContentDto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the conversion of a line ({@link PackConverter}) and of each product ({@link ProductConverter}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsingBenchmark {
+
+    private static final int TOTAL_LINES = 256;
+
+    @Param({"1", "5", "10", "15", "30"})
+    private int items;
+
+    private String[] lines;
+    private String[] productStrings;
+    private int position;
+
+    @Setup
+    public void setUp() {
+        // measure the solving, not the console output
+        LoggingProfile.useQuiet();
+
+        lines = BenchmarkData.createLines(TOTAL_LINES, items);
+        productStrings = PackConverter.getContentFromLine(lines[0]).getProductsAsString();
+    }
+
+    @Benchmark
+    public FileContentDto getContentFromLine() {
+        position = (position + 1) % TOTAL_LINES;
+        return PackConverter.getContentFromLine(lines[position]);
+    }
+
+    @Benchmark
+    public void getProductFromString(final Blackhole blackhole) {
+        for (String productString : productStrings) {
+            blackhole.consume(ProductConverter.getProductFromString(productString));
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.mobiquity.algorithm;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.logging.Logger;
+
+/**
+ * This class implements the 0/1 knapsack algorithm based on branch and bound.
+ * The elements are sorted by cost/weight ratio and searched depth-first, and a branch is pruned when
+ * the fractional knapsack (LP relaxation) bound shows it cannot beat the best selection found so far.
+ * Unlike the combinations and the dynamic programming table, the work does not depend on 2^n or on the capacity,
+ * so it is suitable for lines with many elements and fine-grained weights.
+ * With a time budget, the search starts from the greedy selection by ratio, and stops when the budget is over,
+ * returning the best selection found so far.
+ */
+public class BranchAndBound {
+
+    private static final Logger LOG = Logger.getLogger("BranchAndBound");
+
+    // the clock is read once every this number of nodes
+    private static final int NODES_PER_CLOCK_CHECK = 1024;
+
+    private final long[] weights;
+    private final long[] costs;
+    private final long capacity;
+
+    // positions of elements sorted by cost/weight ratio, the best ratio first
+    private final int[] order;
+
+    private final boolean[] selected;
+    private boolean[] bestSelected;
+    private long bestWeight;
+    private long bestCost;
+
+    private boolean isTimeLimited;
+    private long searchStart;
+    private long timeBudgetNanos;
+    private boolean isTimedOut;
+
+    private long nodesExplored;
+    private long nodesPruned;
+
+    /**
+     * Default class constructor.
+     * @param weights  the weight of each element, scaled to integer.
+     * @param costs    the cost of each element, scaled to integer.
+     * @param capacity the weight limit, using the same scale of weights.
+     */
+    public BranchAndBound(final long[] weights, final long[] costs, final long capacity) {
+        this.weights = weights;
+        this.costs = costs;
+        this.capacity = capacity;
+        this.order = sortByRatio(weights, costs);
+        this.selected = new boolean[weights.length];
+    }
+
+    /**
+     * Searches the elements with the highest total cost that respect the capacity.
+     * When two selections have the same total cost, the one with the lowest total weight is returned.
+     * e.g.
+     * input: weights [500, 501], costs [801, 802], capacity 1000
+     * output: [1]
+     *
+     * @return the positions (ascending) of the selected elements, or an empty array if none fits.
+     */
+    public int[] getBestCombination() {
+        LOG.info(() -> String.format("BEGIN getBestCombination, elements={%d}, capacity={%d}",
+                weights.length, capacity));
+
+        isTimeLimited = false;
+        isTimedOut = false;
+        nodesExplored = 0;
+        nodesPruned = 0;
+        bestSelected = new boolean[weights.length];
+        bestWeight = 0;
+        bestCost = 0;
+
+        if (capacity >= 0) {
+            search(0, 0, 0);
+        }
+
+        return toPositions();
+    }
+
+    /**
+     * Same as {@link #getBestCombination()}, but starts from the greedy selection by ratio, and stops when the time
+     * budget is over, see {@link #isOptimal()}. When the cost and the weight are the same, the selection may be
+     * another one than {@link #getBestCombination()} returns.
+     *
+     * @param timeBudgetNanos the time the search can take, after that the best selection so far is returned.
+     * @return the positions (ascending) of the selected elements, or an empty array if none fits.
+     */
+    public int[] getBestCombination(final long timeBudgetNanos) {
+        LOG.info(() -> String.format("BEGIN getBestCombination, elements={%d}, capacity={%d}, timeBudgetNanos={%d}",
+                weights.length, capacity, timeBudgetNanos));
+
+        isTimeLimited = true;
+        searchStart = System.nanoTime();
+        this.timeBudgetNanos = timeBudgetNanos;
+        isTimedOut = false;
+        nodesExplored = 0;
+        nodesPruned = 0;
+
+        selectGreedily();
+
+        if (capacity >= 0) {
+            search(0, 0, 0);
+        }
+
+        return toPositions();
+    }
+
+    /**
+     * @return true if the last search was not stopped by the time budget, so its selection is the best one.
+     */
+    public boolean isOptimal() {
+        return !isTimedOut;
+    }
+
+    /**
+     * @return the number of nodes visited by the last search.
+     */
+    public long getNodesExplored() {
+        return nodesExplored;
+    }
+
+    /**
+     * @return the number of branches discarded by the bound in the last search.
+     */
+    public long getNodesPruned() {
+        return nodesPruned;
+    }
+
+    private int[] toPositions() {
+        int selectedCount = 0;
+        for (boolean isSelected : bestSelected) {
+            selectedCount += isSelected ? 1 : 0;
+        }
+
+        final int[] positions = new int[selectedCount];
+        for (int i = 0, p = 0; i < bestSelected.length; i++) {
+            if (bestSelected[i]) {
+                positions[p++] = i;
+            }
+        }
+
+        LOG.info(() -> String.format(
+                "END getBestCombination, cost={%d}, weight={%d}, optimal={%b}, nodesExplored={%d}, nodesPruned={%d}",
+                bestCost, bestWeight, !isTimedOut, nodesExplored, nodesPruned));
+        return positions;
+    }
+
+    /**
+     * The first best selection of the time limited search: by ratio, each element that still fits.
+     */
+    private void selectGreedily() {
+        bestSelected = new boolean[weights.length];
+        bestWeight = 0;
+        bestCost = 0;
+
+        for (int position : order) {
+            if (costs[position] > 0 && bestWeight + weights[position] <= capacity) {
+                bestSelected[position] = true;
+                bestWeight += weights[position];
+                bestCost += costs[position];
+            }
+        }
+    }
+
+    private void search(final int depth, final long weight, final long cost) {
+        nodesExplored++;
+
+        if (isTimeLimited && nodesExplored % NODES_PER_CLOCK_CHECK == 0
+                && System.nanoTime() - searchStart >= timeBudgetNanos) {
+            isTimedOut = true;
+        }
+
+        if (isTimedOut) {
+            return;
+        }
+
+        // every node is a valid selection, so check if it is better than the best so far
+        if (cost > bestCost || (cost == bestCost && weight < bestWeight)) {
+            bestCost = cost;
+            bestWeight = weight;
+            bestSelected = selected.clone();
+        }
+
+        if (depth == order.length) {
+            return;
+        }
+
+        // adding more elements only makes the selection heavier, so a bound equal to the best cost is not enough
+        final long bound = getUpperBound(weights, costs, capacity, order, depth, weight, cost);
+        if (bound < bestCost || (bound == bestCost && weight >= bestWeight)) {
+            nodesPruned++;
+            return;
+        }
+
+        final int position = order[depth];
+
+        // first try with the element, that is the greedy choice, then without it
+        if (weight + weights[position] <= capacity) {
+            selected[position] = true;
+            search(depth + 1, weight + weights[position], cost + costs[position]);
+            selected[position] = false;
+        }
+
+        search(depth + 1, weight, cost);
+    }
+
+    /**
+     * Fills the remaining capacity with the elements from depth onwards, by ratio, allowing a fraction of
+     * the last one. The costs are integers, so the fraction is rounded down.
+     */
+    static long getUpperBound(final long[] weights, final long[] costs, final long capacity, final int[] order,
+                              final int depth, final long weight, final long cost) {
+        long remainingCapacity = capacity - weight;
+        long bound = cost;
+
+        for (int i = depth; i < order.length; i++) {
+            final int position = order[i];
+
+            if (weights[position] <= remainingCapacity) {
+                remainingCapacity -= weights[position];
+                bound += costs[position];
+            } else {
+                return bound + remainingCapacity * costs[position] / weights[position];
+            }
+        }
+
+        return bound;
+    }
+
+    static int[] sortByRatio(final long[] weights, final long[] costs) {
+        final Integer[] positions = new Integer[weights.length];
+        Arrays.setAll(positions, i -> i);
+
+        // an element without weight has the best ratio, so it goes first and the order stays transitive
+        final Comparator<Integer> byRatio = (a, b) -> weights[a] == 0 || weights[b] == 0
+                ? Boolean.compare(weights[b] == 0, weights[a] == 0)
+                // a / b > c / d is the same as a * d > c * b, compared in 128 bits to not overflow
+                : compareProducts(costs[b], weights[a], costs[a], weights[b]);
+        Arrays.sort(positions, byRatio);
+
+        return Arrays.stream(positions).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int compareProducts(final long a, final long b, final long c, final long d) {
+        final int high = Long.compare(Math.multiplyHigh(a, b), Math.multiplyHigh(c, d));
+        return high != 0 ? high : Long.compareUnsigned(a * b, c * d);
+    }
+}
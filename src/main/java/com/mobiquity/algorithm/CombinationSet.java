@@ -1,5 +1,7 @@
 package com.mobiquity.algorithm;
 
+import com.mobiquity.exception.APIException;
+
 import java.util.*;
 import java.util.logging.Logger;
 
@@ -11,6 +13,8 @@ public class CombinationSet {
 
     private static final Logger LOG = Logger.getLogger("CombinationStrategy");
 
+    private static final int MAX_MASK_ELEMENTS = Integer.SIZE - 2;
+
     /**
      * Based on elements of a list, this method will return all possible non repeat combinations between them.
      * p.s.: The non repetition is guaranteed by {@link Set}.
@@ -23,7 +27,7 @@ public class CombinationSet {
      */
     public static Set<Set<Integer>> getCombinations(final List<Integer> elements) {
 
-        LOG.info(String.format("BEGIN getCombinations, elements={%s}", elements));
+        LOG.info(() -> String.format("BEGIN getCombinations, elements={%s}", elements));
 
         Set<Set<Integer>> allCombinations = new HashSet<>();
 
@@ -51,7 +55,74 @@ public class CombinationSet {
             });
         });
 
-        LOG.info(String.format("END getCombinations, allCombinations={%s}", allCombinations));
+        // the combinations themselves are not logged, there are 2^n of them
+        LOG.info(() -> String.format("END getCombinations, totalCombinations={%d}", allCombinations.size()));
         return allCombinations;
     }
+
+    /**
+     * Walks through all non empty combinations of elements, where each combination is an {@code int} mask
+     * (the bit i is set when the element i is in the combination), and returns the one with the highest cost
+     * that respect the capacity. When two combinations have the same cost, the lightest one wins.
+     * The combinations are visited in Gray-code order, so from one combination to the next only one element
+     * is added or removed, and the sums of weight and cost are updated with one operation, without any allocation.
+     * e.g.
+     * input: weights [500, 501], costs [801, 802], capacity 1000
+     * visit: [0], [0,1], [1]
+     * output: 0b10
+     *
+     * @param weights  the weight of each element, scaled to integer.
+     * @param costs    the cost of each element, scaled to integer.
+     * @param capacity the weight limit, using the same scale of weights.
+     * @return the mask of the best combination, or 0 if no combination respects the capacity.
+     * @throws APIException if there are more elements than an {@code int} mask supports
+     */
+    public static int getBestCombinationMask(final long[] weights, final long[] costs, final long capacity) {
+
+        LOG.info(() -> String.format("BEGIN getBestCombinationMask, elements={%d}, capacity={%d}",
+                weights.length, capacity));
+
+        final int elements = weights.length;
+
+        if (elements > MAX_MASK_ELEMENTS) {
+            throw new APIException(String.format("Limit of elements (%d) exceeded %d", elements, MAX_MASK_ELEMENTS));
+        }
+
+        final int totalCombinations = 1 << elements;
+
+        int bestMask = 0;
+        long bestWeight = 0;
+        long bestCost = 0;
+
+        int mask = 0;
+        long weight = 0;
+        long cost = 0;
+
+        for (int step = 1; step < totalCombinations; step++) {
+
+            // the element that changes between two consecutive Gray codes is the lowest bit set in the step
+            final int element = Integer.numberOfTrailingZeros(step);
+            mask ^= 1 << element;
+
+            if ((mask & (1 << element)) != 0) {
+                weight += weights[element];
+                cost += costs[element];
+            } else {
+                weight -= weights[element];
+                cost -= costs[element];
+            }
+
+            if (weight <= capacity
+                    && (bestMask == 0 || cost > bestCost || (cost == bestCost && weight < bestWeight))) {
+                bestMask = mask;
+                bestWeight = weight;
+                bestCost = cost;
+            }
+        }
+
+        final int bestCombination = bestMask;
+        LOG.info(() -> String.format("END getBestCombinationMask, bestMask={%s}",
+                Integer.toBinaryString(bestCombination)));
+        return bestCombination;
+    }
 }
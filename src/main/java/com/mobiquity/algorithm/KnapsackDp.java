@@ -0,0 +1,96 @@
+package com.mobiquity.algorithm;
+
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * This class implements the 0/1 knapsack algorithm based on dynamic programming.
+ * The weights and costs are scaled integers (e.g.: hundredths), so the table is indexed by weight.
+ * The total costs are long, as the sum of many costs may not fit an int.
+ */
+public class KnapsackDp {
+
+    private static final Logger LOG = Logger.getLogger("KnapsackDp");
+
+    private static final long UNREACHABLE = -1;
+
+    /**
+     * Based on weights and costs of elements, this method will return the positions of the elements
+     * with the highest total cost that respect the capacity.
+     * When two selections have the same total cost, the one with the lowest total weight is returned.
+     * e.g.
+     * input: weights [500, 501], costs [801, 802], capacity 1000
+     * output: [1]
+     *
+     * @param weights  the weight of each element, scaled to integer.
+     * @param costs    the cost of each element, scaled to integer.
+     * @param capacity the weight limit, using the same scale of weights.
+     * @return the positions (ascending) of the selected elements, or an empty array if none fits.
+     */
+    public static int[] getBestCombination(final int[] weights, final int[] costs, final int capacity) {
+
+        LOG.info(() -> String.format("BEGIN getBestCombination, elements={%d}, capacity={%d}",
+                weights.length, capacity));
+
+        final int elements = weights.length;
+
+        if (capacity < 0 || elements == 0) {
+            return new int[0];
+        }
+
+        // bestCost[w] is the highest cost of a selection with total weight exactly w
+        final long[] bestCost = new long[capacity + 1];
+        Arrays.fill(bestCost, UNREACHABLE);
+        bestCost[0] = 0;
+
+        // taken[i][w] is true when the element i improved the selection of total weight w
+        final boolean[][] taken = new boolean[elements][capacity + 1];
+
+        for (int i = 0; i < elements; i++) {
+            final int weight = weights[i];
+
+            // iterate backwards, so each element is used only once
+            for (int w = capacity; w >= weight; w--) {
+                final long previous = bestCost[w - weight];
+
+                if (previous != UNREACHABLE && previous + costs[i] > bestCost[w]) {
+                    bestCost[w] = previous + costs[i];
+                    taken[i][w] = true;
+                }
+            }
+        }
+
+        // the lowest weight wins when the cost is the same
+        int bestWeight = 0;
+        for (int w = 1; w <= capacity; w++) {
+            if (bestCost[w] > bestCost[bestWeight]) {
+                bestWeight = w;
+            }
+        }
+
+        // walk back through the table to find which elements built the best selection
+        final boolean[] selected = new boolean[elements];
+        int selectedCount = 0;
+        int remainingWeight = bestWeight;
+
+        for (int i = elements - 1; i >= 0; i--) {
+            if (taken[i][remainingWeight]) {
+                selected[i] = true;
+                selectedCount++;
+                remainingWeight -= weights[i];
+            }
+        }
+
+        final int[] positions = new int[selectedCount];
+        for (int i = 0, p = 0; i < elements; i++) {
+            if (selected[i]) {
+                positions[p++] = i;
+            }
+        }
+
+        final int totalWeight = bestWeight;
+        LOG.info(() -> String.format("END getBestCombination, cost={%d}, weight={%d}",
+                bestCost[totalWeight], totalWeight));
+        return positions;
+    }
+}
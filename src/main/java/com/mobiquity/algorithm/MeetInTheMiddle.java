@@ -0,0 +1,220 @@
+package com.mobiquity.algorithm;
+
+import com.mobiquity.exception.APIException;
+
+import java.util.logging.Logger;
+
+/**
+ * This class implements the 0/1 knapsack algorithm based on meet-in-the-middle (Horowitz-Sahni).
+ * The elements are split in two halves and all combinations of each half are enumerated into primitive arrays.
+ * The second half is sorted by weight and reduced to its Pareto front, then each combination of the first half
+ * looks for its best complement with a binary search. It checks 2 * 2^(n/2) combinations instead of 2^n.
+ */
+public class MeetInTheMiddle {
+
+    private static final Logger LOG = Logger.getLogger("MeetInTheMiddle");
+
+    private static final int MAX_HALF_ELEMENTS = 25;
+
+    /**
+     * Based on weights and costs of elements, this method will return the positions of the elements
+     * with the highest total cost that respect the capacity.
+     * When two selections have the same total cost, the one with the lowest total weight is returned.
+     * e.g.
+     * input: weights [500, 501], costs [801, 802], capacity 1000
+     * output: [1]
+     *
+     * @param weights  the weight of each element, scaled to integer.
+     * @param costs    the cost of each element, scaled to integer.
+     * @param capacity the weight limit, using the same scale of weights.
+     * @return the positions (ascending) of the selected elements, or an empty array if none fits.
+     * @throws APIException if there are more elements than the halves support
+     */
+    public static int[] getBestCombination(final long[] weights, final long[] costs, final long capacity) {
+
+        LOG.info(() -> String.format("BEGIN getBestCombination, elements={%d}, capacity={%d}",
+                weights.length, capacity));
+
+        final int elements = weights.length;
+
+        if (elements > 2 * MAX_HALF_ELEMENTS) {
+            throw new APIException(String.format("Limit of elements (%d) exceeded %d", elements, 2 * MAX_HALF_ELEMENTS));
+        }
+
+        if (capacity < 0) {
+            return new int[0];
+        }
+
+        final int firstHalf = elements / 2;
+        final int secondHalf = elements - firstHalf;
+
+        // enumerate every combination of each half, where the combination i is the mask i
+        final long[] firstWeights = new long[1 << firstHalf];
+        final long[] firstCosts = new long[1 << firstHalf];
+        enumerate(weights, costs, 0, firstHalf, firstWeights, firstCosts);
+
+        final long[] secondWeights = new long[1 << secondHalf];
+        final long[] secondCosts = new long[1 << secondHalf];
+        enumerate(weights, costs, firstHalf, secondHalf, secondWeights, secondCosts);
+
+        // after this, the front is sorted by weight and cost, both strictly increasing
+        final int[] front = getParetoFront(secondWeights, secondCosts);
+
+        int bestFirstMask = 0;
+        int bestSecondMask = 0;
+        long bestWeight = 0;
+        long bestCost = 0;
+
+        for (int mask = 0; mask < firstWeights.length; mask++) {
+            final long remainingCapacity = capacity - firstWeights[mask];
+
+            if (remainingCapacity < 0) {
+                continue;
+            }
+
+            // the heaviest complement that fits is the most valuable one, and the lightest with that cost
+            final int complement = front[findLastFitting(front, secondWeights, remainingCapacity)];
+
+            final long weight = firstWeights[mask] + secondWeights[complement];
+            final long cost = firstCosts[mask] + secondCosts[complement];
+
+            if (cost > bestCost || (cost == bestCost && weight < bestWeight)) {
+                bestFirstMask = mask;
+                bestSecondMask = complement;
+                bestWeight = weight;
+                bestCost = cost;
+            }
+        }
+
+        final int[] positions = new int[Integer.bitCount(bestFirstMask) + Integer.bitCount(bestSecondMask)];
+        int p = 0;
+
+        for (int i = 0; i < firstHalf; i++) {
+            if ((bestFirstMask & (1 << i)) != 0) {
+                positions[p++] = i;
+            }
+        }
+
+        for (int i = 0; i < secondHalf; i++) {
+            if ((bestSecondMask & (1 << i)) != 0) {
+                positions[p++] = firstHalf + i;
+            }
+        }
+
+        final long totalCost = bestCost;
+        final long totalWeight = bestWeight;
+        LOG.info(() -> String.format("END getBestCombination, cost={%d}, weight={%d}", totalCost, totalWeight));
+        return positions;
+    }
+
+    /**
+     * @param elements the number of elements
+     * @return the estimated bytes of the tables of both halves: the sums of each combination, and the masks
+     * sorted to build the front of the second half.
+     */
+    public static long getTableBytes(final int elements) {
+        final int firstHalf = elements / 2;
+        final int secondHalf = elements - firstHalf;
+
+        return (1L << firstHalf) * 2 * Long.BYTES + (1L << secondHalf) * (2 * Long.BYTES + 3 * Integer.BYTES);
+    }
+
+    /**
+     * Fills the sums of each combination of the elements from offset to offset + length,
+     * reusing the sums of the combination without its lowest element.
+     */
+    private static void enumerate(final long[] weights, final long[] costs, final int offset, final int length,
+                                  final long[] combinationWeights, final long[] combinationCosts) {
+
+        for (int mask = 1; mask < (1 << length); mask++) {
+            final int element = Integer.numberOfTrailingZeros(mask);
+            final int previous = mask & (mask - 1);
+
+            combinationWeights[mask] = combinationWeights[previous] + weights[offset + element];
+            combinationCosts[mask] = combinationCosts[previous] + costs[offset + element];
+        }
+    }
+
+    /**
+     * Sorts the combinations by weight and keeps only the ones that cost more than every lighter combination.
+     * @return the masks of the combinations in the front.
+     */
+    private static int[] getParetoFront(final long[] combinationWeights, final long[] combinationCosts) {
+        final int[] sorted = new int[combinationWeights.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i;
+        }
+
+        sortByWeight(sorted, new int[sorted.length], 0, sorted.length, combinationWeights, combinationCosts);
+
+        // the lightest combination is always kept, so the front is never empty
+        int frontSize = 0;
+        for (int mask : sorted) {
+            if (frontSize == 0 || combinationCosts[mask] > combinationCosts[sorted[frontSize - 1]]) {
+                sorted[frontSize++] = mask;
+            }
+        }
+
+        final int[] front = new int[frontSize];
+        System.arraycopy(sorted, 0, front, 0, frontSize);
+        return front;
+    }
+
+    /**
+     * Merge sort of the masks by weight ascending, then cost descending, without boxing.
+     */
+    private static void sortByWeight(final int[] masks, final int[] buffer, final int from, final int to,
+                                     final long[] combinationWeights, final long[] combinationCosts) {
+        if (to - from < 2) {
+            return;
+        }
+
+        final int middle = (from + to) >>> 1;
+        sortByWeight(masks, buffer, from, middle, combinationWeights, combinationCosts);
+        sortByWeight(masks, buffer, middle, to, combinationWeights, combinationCosts);
+
+        int left = from;
+        int right = middle;
+
+        for (int i = from; i < to; i++) {
+            final boolean takeLeft = right >= to
+                    || (left < middle && !isBefore(masks[right], masks[left], combinationWeights, combinationCosts));
+
+            if (takeLeft) {
+                buffer[i] = masks[left++];
+            } else {
+                buffer[i] = masks[right++];
+            }
+        }
+
+        System.arraycopy(buffer, from, masks, from, to - from);
+    }
+
+    private static boolean isBefore(final int mask, final int other, final long[] combinationWeights,
+                                    final long[] combinationCosts) {
+        if (combinationWeights[mask] != combinationWeights[other]) {
+            return combinationWeights[mask] < combinationWeights[other];
+        }
+        return combinationCosts[mask] > combinationCosts[other];
+    }
+
+    /**
+     * @return the position in the front of the heaviest combination that respects the capacity.
+     */
+    private static int findLastFitting(final int[] front, final long[] combinationWeights, final long capacity) {
+        int low = 0;
+        int high = front.length - 1;
+
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+
+            if (combinationWeights[front[middle]] <= capacity) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return low;
+    }
+}
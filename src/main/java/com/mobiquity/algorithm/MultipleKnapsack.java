@@ -0,0 +1,206 @@
+package com.mobiquity.algorithm;
+
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * This class implements the 0/1 multiple knapsack algorithm based on branch and bound: each element is put in
+ * at most one of many boxes, each one with its own capacity, to get the highest total cost.
+ * The search starts from a greedy assignment (by cost/weight ratio, each element in the fullest box where it fits),
+ * so there is always an answer, then the elements are searched depth-first in the same order, trying each box
+ * and then no box. A branch is pruned by the fractional knapsack bound of the remaining capacity of all boxes.
+ * Boxes with the same remaining capacity are tried only once, since the rest of the search is the same for them.
+ * The search stops when the time budget is over, returning the best assignment found so far.
+ */
+public class MultipleKnapsack {
+
+    public static final int NO_BOX = -1;
+
+    private static final Logger LOG = Logger.getLogger("MultipleKnapsack");
+
+    // the clock is read once every this number of nodes
+    private static final int NODES_PER_CLOCK_CHECK = 1024;
+
+    private final long[] weights;
+    private final long[] costs;
+    private final long[] capacities;
+
+    // positions of elements sorted by cost/weight ratio, the best ratio first
+    private final int[] order;
+
+    private final int[] boxes;
+    private final long[] remainingCapacities;
+    private int[] bestBoxes;
+    private long bestWeight;
+    private long bestCost;
+
+    private long searchStart;
+    private long timeBudgetNanos;
+    private boolean isTimedOut;
+
+    private long nodesExplored;
+    private long nodesPruned;
+
+    /**
+     * Default class constructor.
+     * @param weights    the weight of each element, scaled to integer.
+     * @param costs      the cost of each element, scaled to integer.
+     * @param capacities the weight limit of each box, using the same scale of weights.
+     */
+    public MultipleKnapsack(final long[] weights, final long[] costs, final long[] capacities) {
+        this.weights = weights;
+        this.costs = costs;
+        this.capacities = capacities;
+        this.order = BranchAndBound.sortByRatio(weights, costs);
+        this.boxes = new int[weights.length];
+        this.remainingCapacities = new long[capacities.length];
+    }
+
+    /**
+     * Searches the assignment of elements to boxes with the highest total cost that respects the capacity of
+     * each box. When two assignments have the same total cost, the one with the lowest total weight is returned.
+     * e.g.
+     * input: weights [30, 20, 20], costs [40, 25, 25], capacities [40, 20]
+     * output: [0, 1, -1]
+     *
+     * @param timeBudgetNanos the time the search can take, after that the best assignment so far is returned.
+     * @return the box of each element, or {@link #NO_BOX} for the elements out of all boxes.
+     */
+    public int[] getBestAssignment(final long timeBudgetNanos) {
+        LOG.info(() -> String.format(
+                "BEGIN getBestAssignment, elements={%d}, capacities={%s}, timeBudgetNanos={%d}",
+                weights.length, Arrays.toString(capacities), timeBudgetNanos));
+
+        this.searchStart = System.nanoTime();
+        this.timeBudgetNanos = timeBudgetNanos;
+        isTimedOut = false;
+        nodesExplored = 0;
+        nodesPruned = 0;
+
+        Arrays.fill(boxes, NO_BOX);
+        System.arraycopy(capacities, 0, remainingCapacities, 0, capacities.length);
+        assignGreedily();
+
+        System.arraycopy(capacities, 0, remainingCapacities, 0, capacities.length);
+        search(0, 0, 0);
+
+        LOG.info(() -> String.format(
+                "END getBestAssignment, cost={%d}, weight={%d}, optimal={%b}, nodesExplored={%d}, nodesPruned={%d}",
+                bestCost, bestWeight, !isTimedOut, nodesExplored, nodesPruned));
+        return bestBoxes.clone();
+    }
+
+    /**
+     * @return true if the last search was not stopped by the time budget, so its assignment is the best one.
+     */
+    public boolean isOptimal() {
+        return !isTimedOut;
+    }
+
+    /**
+     * @return the number of nodes visited by the last search.
+     */
+    public long getNodesExplored() {
+        return nodesExplored;
+    }
+
+    /**
+     * @return the number of branches discarded by the bound in the last search.
+     */
+    public long getNodesPruned() {
+        return nodesPruned;
+    }
+
+    /**
+     * The first best assignment: by ratio, each element in the box with the lowest remaining capacity where it fits.
+     */
+    private void assignGreedily() {
+        final int[] greedyBoxes = new int[weights.length];
+        Arrays.fill(greedyBoxes, NO_BOX);
+        long weight = 0;
+        long cost = 0;
+
+        for (int position : order) {
+            int bestBox = NO_BOX;
+
+            for (int box = 0; box < capacities.length; box++) {
+                if (costs[position] > 0 && weights[position] <= remainingCapacities[box]
+                        && (bestBox == NO_BOX || remainingCapacities[box] < remainingCapacities[bestBox])) {
+                    bestBox = box;
+                }
+            }
+
+            if (bestBox != NO_BOX) {
+                greedyBoxes[position] = bestBox;
+                remainingCapacities[bestBox] -= weights[position];
+                weight += weights[position];
+                cost += costs[position];
+            }
+        }
+
+        bestBoxes = greedyBoxes;
+        bestWeight = weight;
+        bestCost = cost;
+    }
+
+    private void search(final int depth, final long weight, final long cost) {
+        nodesExplored++;
+
+        if (nodesExplored % NODES_PER_CLOCK_CHECK == 0 && System.nanoTime() - searchStart >= timeBudgetNanos) {
+            isTimedOut = true;
+        }
+
+        if (isTimedOut) {
+            return;
+        }
+
+        // every node is a valid assignment, so check if it is better than the best so far
+        if (cost > bestCost || (cost == bestCost && weight < bestWeight)) {
+            bestCost = cost;
+            bestWeight = weight;
+            bestBoxes = boxes.clone();
+        }
+
+        if (depth == order.length) {
+            return;
+        }
+
+        long totalRemainingCapacity = 0;
+        for (long remainingCapacity : remainingCapacities) {
+            totalRemainingCapacity += Math.max(0, remainingCapacity);
+        }
+
+        // the bound of one box with the capacity left in all of them
+        final long bound = BranchAndBound.getUpperBound(weights, costs, totalRemainingCapacity, order, depth, 0, cost);
+        if (bound < bestCost || (bound == bestCost && weight >= bestWeight)) {
+            nodesPruned++;
+            return;
+        }
+
+        final int position = order[depth];
+
+        for (int box = 0; box < remainingCapacities.length; box++) {
+            if (weights[position] <= remainingCapacities[box] && !isSameAsTriedBox(box)) {
+                boxes[position] = box;
+                remainingCapacities[box] -= weights[position];
+                search(depth + 1, weight + weights[position], cost + costs[position]);
+                remainingCapacities[box] += weights[position];
+                boxes[position] = NO_BOX;
+            }
+        }
+
+        search(depth + 1, weight, cost);
+    }
+
+    /**
+     * @return true if a box before this one has the same remaining capacity, so the element was already tried there.
+     */
+    private boolean isSameAsTriedBox(final int box) {
+        for (int other = 0; other < box; other++) {
+            if (remainingCapacities[other] == remainingCapacities[box]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
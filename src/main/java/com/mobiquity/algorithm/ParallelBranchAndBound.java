@@ -0,0 +1,250 @@
+package com.mobiquity.algorithm;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Parallel version of {@link BranchAndBound}, for a line with many elements.
+ * The first elements (by cost/weight ratio) are fixed in or out by {@link RecursiveTask}s, and each task below
+ * that depth searches its branch depth-first, as {@link BranchAndBound} does, on the {@link ForkJoinPool}.
+ * The tasks share the highest cost found so far, so a branch is pruned as soon as its bound is below the cost
+ * found by any other task.
+ * The results of the branches are combined in the order of the sequential search, keeping the first one
+ * when the cost and the weight are the same, so the selection is exactly the one of {@link BranchAndBound}.
+ */
+public class ParallelBranchAndBound {
+
+    private static final Logger LOG = Logger.getLogger("ParallelBranchAndBound");
+
+    // branches fixed for each worker of the pool, so an idle worker has some branch to steal
+    private static final int BRANCHES_PER_WORKER = 8;
+
+    private final long[] weights;
+    private final long[] costs;
+    private final long capacity;
+    private final ForkJoinPool pool;
+
+    // positions of elements sorted by cost/weight ratio, the best ratio first
+    private final int[] order;
+
+    // the elements fixed by the tasks, before each branch is searched sequentially
+    private final int splitDepth;
+
+    private final AtomicLong sharedBestCost = new AtomicLong();
+    private final LongAdder nodesExplored = new LongAdder();
+    private final LongAdder nodesPruned = new LongAdder();
+
+    /**
+     * Default class constructor.
+     * @param weights  the weight of each element, scaled to integer.
+     * @param costs    the cost of each element, scaled to integer.
+     * @param capacity the weight limit, using the same scale of weights.
+     * @param pool     the pool that searches the branches.
+     */
+    public ParallelBranchAndBound(final long[] weights, final long[] costs, final long capacity,
+                                  final ForkJoinPool pool) {
+        this.weights = weights;
+        this.costs = costs;
+        this.capacity = capacity;
+        this.pool = pool;
+        this.order = BranchAndBound.sortByRatio(weights, costs);
+
+        final int branches = Math.max(1, pool.getParallelism()) * BRANCHES_PER_WORKER;
+        this.splitDepth = Math.min(weights.length, Integer.SIZE - Integer.numberOfLeadingZeros(branches - 1));
+    }
+
+    /**
+     * Same as {@link BranchAndBound#getBestCombination()}.
+     *
+     * @return the positions (ascending) of the selected elements, or an empty array if none fits.
+     */
+    public int[] getBestCombination() {
+        LOG.info(() -> String.format("BEGIN getBestCombination, elements={%d}, capacity={%d}, splitDepth={%d}",
+                weights.length, capacity, splitDepth));
+
+        sharedBestCost.set(0);
+        nodesExplored.reset();
+        nodesPruned.reset();
+
+        final Selection best = capacity >= 0
+                ? pool.invoke(new BranchTask(0, 0, 0, new boolean[weights.length]))
+                : new Selection(0, 0, new boolean[weights.length]);
+
+        int selectedCount = 0;
+        for (boolean isSelected : best.selected) {
+            selectedCount += isSelected ? 1 : 0;
+        }
+
+        final int[] positions = new int[selectedCount];
+        for (int i = 0, p = 0; i < best.selected.length; i++) {
+            if (best.selected[i]) {
+                positions[p++] = i;
+            }
+        }
+
+        LOG.info(() -> String.format(
+                "END getBestCombination, cost={%d}, weight={%d}, nodesExplored={%d}, nodesPruned={%d}",
+                best.cost, best.weight, nodesExplored.sum(), nodesPruned.sum()));
+        return positions;
+    }
+
+    /**
+     * @return the number of nodes visited by all tasks of the last search.
+     */
+    public long getNodesExplored() {
+        return nodesExplored.sum();
+    }
+
+    /**
+     * @return the number of branches discarded by the bound in all tasks of the last search.
+     */
+    public long getNodesPruned() {
+        return nodesPruned.sum();
+    }
+
+    private void publishCost(final long cost) {
+        if (cost > sharedBestCost.get()) {
+            sharedBestCost.accumulateAndGet(cost, Math::max);
+        }
+    }
+
+    /**
+     * A selection and its totals. A later selection replaces it only with a higher cost, or the same cost
+     * and a lower weight, as {@link com.mobiquity.packer.comparator.PackComparator}.
+     */
+    private static class Selection {
+
+        private final long cost;
+        private final long weight;
+        private final boolean[] selected;
+
+        private Selection(final long cost, final long weight, final boolean[] selected) {
+            this.cost = cost;
+            this.weight = weight;
+            this.selected = selected;
+        }
+
+        private Selection orBetter(final Selection other) {
+            return other.cost > cost || (other.cost == cost && other.weight < weight) ? other : this;
+        }
+    }
+
+    /**
+     * Fixes the element at depth in or out, and combines the best selections of both branches.
+     * Below the split depth, the branch is searched sequentially.
+     * It is never serialized: it holds the search it belongs to.
+     */
+    @SuppressWarnings("serial")
+    private class BranchTask extends RecursiveTask<Selection> {
+
+        private final int depth;
+        private final long weight;
+        private final long cost;
+        private final boolean[] selected;
+
+        private BranchTask(final int depth, final long weight, final long cost, final boolean[] selected) {
+            this.depth = depth;
+            this.weight = weight;
+            this.cost = cost;
+            this.selected = selected;
+        }
+
+        @Override
+        protected Selection compute() {
+            if (depth >= splitDepth) {
+                return new BranchSearch(selected).search(depth, weight, cost);
+            }
+
+            nodesExplored.increment();
+            publishCost(cost);
+
+            final Selection node = new Selection(cost, weight, selected.clone());
+
+            if (depth == order.length) {
+                return node;
+            }
+
+            // only a branch that can reach the cost found by any task is searched
+            final long bound = BranchAndBound.getUpperBound(weights, costs, capacity, order, depth, weight, cost);
+            if (bound <= cost || bound < sharedBestCost.get()) {
+                nodesPruned.increment();
+                return node;
+            }
+
+            final int position = order[depth];
+            BranchTask withElement = null;
+
+            if (weight + weights[position] <= capacity) {
+                final boolean[] withSelected = selected.clone();
+                withSelected[position] = true;
+                withElement = new BranchTask(depth + 1, weight + weights[position], cost + costs[position],
+                        withSelected);
+                withElement.fork();
+            }
+
+            final Selection withoutElement = new BranchTask(depth + 1, weight, cost, selected).compute();
+
+            // the same order of the sequential search: the node, then with the element, then without it
+            Selection best = node;
+            if (withElement != null) {
+                best = best.orBetter(withElement.join());
+            }
+            return best.orBetter(withoutElement);
+        }
+    }
+
+    /**
+     * Sequential search of a branch, as {@link BranchAndBound}, also pruned by the cost found by other tasks.
+     */
+    private class BranchSearch {
+
+        private final boolean[] selected;
+        private boolean[] bestSelected;
+        private long bestWeight;
+        private long bestCost = Long.MIN_VALUE;
+
+        private BranchSearch(final boolean[] selected) {
+            this.selected = selected;
+        }
+
+        private Selection search(final int depth, final long weight, final long cost) {
+            searchBranch(depth, weight, cost);
+            return new Selection(bestCost, bestWeight, bestSelected);
+        }
+
+        private void searchBranch(final int depth, final long weight, final long cost) {
+            nodesExplored.increment();
+
+            if (cost > bestCost || (cost == bestCost && weight < bestWeight)) {
+                bestCost = cost;
+                bestWeight = weight;
+                bestSelected = selected.clone();
+                publishCost(cost);
+            }
+
+            if (depth == order.length) {
+                return;
+            }
+
+            // the cost of other tasks prunes only a branch that cannot reach it, since a tie is decided by the order
+            final long bound = BranchAndBound.getUpperBound(weights, costs, capacity, order, depth, weight, cost);
+            if (bound < bestCost || (bound == bestCost && weight >= bestWeight) || bound < sharedBestCost.get()) {
+                nodesPruned.increment();
+                return;
+            }
+
+            final int position = order[depth];
+
+            if (weight + weights[position] <= capacity) {
+                selected[position] = true;
+                searchBranch(depth + 1, weight + weights[position], cost + costs[position]);
+                selected[position] = false;
+            }
+
+            searchBranch(depth + 1, weight, cost);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.mobiquity.algorithm;
+
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * This class keeps the Pareto frontier of the selections of elements: the (weight, cost) pairs where no other
+ * selection is lighter or as heavy and more expensive. The points are sorted by weight, and their costs increase
+ * with the weight, so the best selection for any weight limit up to the capacity is found by a binary search.
+ * The frontier is built in layers, one per element: the layer i has the frontier of the first i elements,
+ * merged from the layer before and the same layer with the element added. So an element is added by one merge,
+ * and an element that is changed or removed only needs the layers after it to be merged again.
+ * Each point keeps the point of the layer before, so the elements of a selection are found by walking back.
+ * The weights must not be negative.
+ */
+public class ParetoFrontier {
+
+    private static final Logger LOG = Logger.getLogger("ParetoFrontier");
+
+    private static final int INITIAL_LAYERS = 16;
+
+    private final long capacity;
+
+    private int elements;
+    private long pointsMerged;
+
+    // the points of each layer: weight, cost, and the point of the layer before (shifted left by 1),
+    // with the lowest bit set when the element of the layer is in the selection
+    private long[][] weights = new long[INITIAL_LAYERS + 1][];
+    private long[][] costs = new long[INITIAL_LAYERS + 1][];
+    private int[][] previousPoints = new int[INITIAL_LAYERS + 1][];
+
+    /**
+     * Creates the frontier without elements, that has only the empty selection.
+     * @param capacity the highest weight limit the frontier answers, the heavier selections are discarded.
+     */
+    public ParetoFrontier(final long capacity) {
+        this.capacity = capacity;
+        weights[0] = new long[]{0};
+        costs[0] = new long[]{0};
+        previousPoints[0] = new int[]{0};
+    }
+
+    /**
+     * Creates the frontier of the given elements.
+     * @param elementWeights the weight of each element, scaled to integer.
+     * @param elementCosts   the cost of each element, scaled to integer.
+     * @param capacity       the highest weight limit the frontier answers, using the same scale of weights.
+     * @return the {@link ParetoFrontier} object
+     */
+    public static ParetoFrontier of(final long[] elementWeights, final long[] elementCosts, final long capacity) {
+        final ParetoFrontier frontier = new ParetoFrontier(capacity);
+        for (int i = 0; i < elementWeights.length; i++) {
+            frontier.add(elementWeights[i], elementCosts[i]);
+        }
+        return frontier;
+    }
+
+    /**
+     * Adds an element after the existing ones, merging one more layer.
+     * @param weight the weight of element, scaled to integer.
+     * @param cost   the cost of element, scaled to integer.
+     */
+    public void add(final long weight, final long cost) {
+        ensureLayers(elements + 2);
+
+        final long[] lastWeights = weights[elements];
+        final long[] lastCosts = costs[elements];
+        final int lastSize = lastWeights.length;
+
+        final long[] newWeights = new long[lastSize * 2];
+        final long[] newCosts = new long[lastSize * 2];
+        final int[] newPrevious = new int[lastSize * 2];
+        int size = 0;
+
+        // both lists are sorted by weight: the points without the element, and the same points with it
+        int without = 0;
+        int with = 0;
+
+        while (without < lastSize || with < lastSize) {
+            final boolean isWithElement;
+
+            if (with == lastSize || lastWeights[with] + weight > capacity) {
+                if (without == lastSize) {
+                    break;
+                }
+                isWithElement = false;
+            } else if (without == lastSize) {
+                isWithElement = true;
+            } else {
+                // on the same weight, the highest cost first, and the selection without the element on a tie
+                final long withWeight = lastWeights[with] + weight;
+                isWithElement = withWeight < lastWeights[without]
+                        || (withWeight == lastWeights[without] && lastCosts[with] + cost > lastCosts[without]);
+            }
+
+            final int point = isWithElement ? with++ : without++;
+            final long pointWeight = isWithElement ? lastWeights[point] + weight : lastWeights[point];
+            final long pointCost = isWithElement ? lastCosts[point] + cost : lastCosts[point];
+
+            // a point is kept only if it is more expensive than all the lighter ones
+            if (size == 0 || pointCost > newCosts[size - 1]) {
+                newWeights[size] = pointWeight;
+                newCosts[size] = pointCost;
+                newPrevious[size] = (point << 1) | (isWithElement ? 1 : 0);
+                size++;
+            }
+        }
+
+        pointsMerged += without + with;
+        elements++;
+        weights[elements] = Arrays.copyOf(newWeights, size);
+        costs[elements] = Arrays.copyOf(newCosts, size);
+        previousPoints[elements] = Arrays.copyOf(newPrevious, size);
+
+        final int frontierSize = size;
+        LOG.info(() -> String.format("add, elements={%d}, points={%d}", elements, frontierSize));
+    }
+
+    /**
+     * Removes the last elements, keeping the first ones, so other elements can be added after them.
+     * @param remainingElements the number of elements to keep
+     */
+    public void truncate(final int remainingElements) {
+        for (int i = remainingElements + 1; i <= elements; i++) {
+            weights[i] = null;
+            costs[i] = null;
+            previousPoints[i] = null;
+        }
+        elements = Math.min(elements, remainingElements);
+    }
+
+    /**
+     * @return the number of elements in the frontier.
+     */
+    public int size() {
+        return elements;
+    }
+
+    /**
+     * @return the highest weight limit the frontier answers.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of points merged by all the layers built so far.
+     */
+    public long getPointsMerged() {
+        return pointsMerged;
+    }
+
+    /**
+     * @return the number of points in the frontier of all elements.
+     */
+    public int getPoints() {
+        return weights[elements].length;
+    }
+
+    /**
+     * @return the total weight of the selection of the point, the points are sorted by weight (ascending).
+     */
+    public long getWeight(final int point) {
+        return weights[elements][point];
+    }
+
+    /**
+     * @return the total cost of the selection of the point, the costs increase with the weight.
+     */
+    public long getCost(final int point) {
+        return costs[elements][point];
+    }
+
+    /**
+     * Finds the selection with the highest cost that respects the weight limit.
+     * Since there is only one point for each cost, it is also the lightest selection with that cost.
+     *
+     * @param weightLimit the weight limit, not higher than the capacity, using the same scale of weights.
+     * @return the point of the best selection, or -1 if the limit is negative.
+     */
+    public int findBest(final long weightLimit) {
+        final long[] lastWeights = weights[elements];
+        final int point = Arrays.binarySearch(lastWeights, weightLimit);
+
+        return point >= 0 ? point : -point - 2;
+    }
+
+    /**
+     * @param point the point in the frontier of all elements.
+     * @return the positions (ascending) of the elements in the selection of the point.
+     */
+    public int[] getElements(final int point) {
+        final boolean[] selected = new boolean[elements];
+        int selectedCount = 0;
+        int current = point;
+
+        for (int layer = elements; layer > 0; layer--) {
+            final int previous = previousPoints[layer][current];
+
+            if ((previous & 1) != 0) {
+                selected[layer - 1] = true;
+                selectedCount++;
+            }
+            current = previous >>> 1;
+        }
+
+        final int[] positions = new int[selectedCount];
+        for (int i = 0, p = 0; i < elements; i++) {
+            if (selected[i]) {
+                positions[p++] = i;
+            }
+        }
+        return positions;
+    }
+
+    private void ensureLayers(final int minLayers) {
+        if (minLayers > weights.length) {
+            final int newLayers = Math.max(minLayers, weights.length * 2);
+
+            weights = Arrays.copyOf(weights, newLayers);
+            costs = Arrays.copyOf(costs, newLayers);
+            previousPoints = Arrays.copyOf(previousPoints, newLayers);
+        }
+    }
+}
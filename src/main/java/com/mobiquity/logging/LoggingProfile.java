@@ -0,0 +1,47 @@
+package com.mobiquity.logging;
+
+import com.mobiquity.exception.APIException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.logging.LogManager;
+
+/**
+ * Switches the java.util.logging configuration of the application at runtime.
+ * All the INFO and WARNING messages of the application are built by a supplier, so with the quiet profile
+ * they cost only a level check.
+ */
+public class LoggingProfile {
+
+    /**
+     * Resource with the quiet production profile, where only errors are logged.
+     */
+    public static final String QUIET = "/logging-quiet.properties";
+
+    /**
+     * Loads the quiet production profile.
+     * @throws APIException if the profile cannot be read
+     */
+    public static void useQuiet() {
+        try (InputStream configuration = LoggingProfile.class.getResourceAsStream(QUIET)) {
+            if (configuration == null) {
+                throw new APIException(String.format("Logging profile [%s] not found", QUIET));
+            }
+            LogManager.getLogManager().readConfiguration(configuration);
+        } catch (IOException e) {
+            throw new APIException(String.format("Error to load the logging profile [%s]", QUIET), e);
+        }
+    }
+
+    /**
+     * Loads the default configuration of the JVM again (the file in java.util.logging.config.file, if any).
+     * @throws APIException if the configuration cannot be read
+     */
+    public static void useDefault() {
+        try {
+            LogManager.getLogManager().readConfiguration();
+        } catch (IOException e) {
+            throw new APIException("Error to load the default logging configuration", e);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.mobiquity.packer;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.config.PackOptions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Entry point to pack many files at once.
+ * Each file is read by a task of the {@link ForkJoinPool}, and its lines are solved by tasks of the same pool,
+ * so the idle workers steal the lines of the large files while the small ones are finished.
+ * The results of each file keep the order of its lines,
+ * as {@link Packer#pack(InputStream, PackOptions, java.util.function.Consumer)} with an executor.
+ */
+public class BatchPacker {
+
+    private static final Logger LOG = Logger.getLogger("BatchPacker");
+
+    private static final String RESULT_SEPARATOR = "\n";
+
+    // lines in progress of each file, by worker of the pool
+    private static final int LINES_PER_WORKER = 4;
+
+    private BatchPacker() {
+    }
+
+    /**
+     * Same as {@link #pack(List, ForkJoinPool)}, on {@link ForkJoinPool#commonPool()}.
+     *
+     * @param inputPaths the paths of input files
+     * @return the result of each file (e.g.: "4\n-\n2,7\n8,9"), by input path, in the order of the list
+     * @throws APIException if a file cannot be read, or a line is not valid
+     */
+    public static Map<Path, String> pack(final List<Path> inputPaths) {
+        return pack(inputPaths, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Packs all files on the given pool, keeping the results in memory.
+     * When a file fails, the other ones are still packed, and the error of the first failed file is thrown.
+     *
+     * @param inputPaths the paths of input files
+     * @param pool       the pool that reads the files and solves their lines
+     * @return the result of each file (e.g.: "4\n-\n2,7\n8,9"), by input path, in the order of the list
+     * @throws APIException if a file cannot be read, or a line is not valid
+     */
+    public static Map<Path, String> pack(final List<Path> inputPaths, final ForkJoinPool pool) {
+        final List<String> results = packAll(inputPaths.size(), pool, file -> {
+            final Path inputPath = inputPaths.get(file);
+            final StringJoiner result = new StringJoiner(RESULT_SEPARATOR);
+
+            try (InputStream input = Files.newInputStream(inputPath)) {
+                Packer.pack(input, getOptions(pool), result::add);
+            } catch (IOException e) {
+                throw fileError(inputPath, e);
+            }
+
+            return result.toString();
+        });
+
+        final Map<Path, String> resultsByPath = new LinkedHashMap<>();
+        for (int i = 0; i < inputPaths.size(); i++) {
+            resultsByPath.put(inputPaths.get(i), results.get(i));
+        }
+        return resultsByPath;
+    }
+
+    /**
+     * Packs all files on the given pool, writing the results of each one to a file with the same name
+     * in the output directory, one result per line. The output directory is created if it does not exist.
+     * When a file fails, the other ones are still packed, and the error of the first failed file is thrown.
+     *
+     * @param inputPaths      the paths of input files, with different file names
+     * @param outputDirectory the directory of output files, that must not be the directory of an input file
+     * @param pool            the pool that reads the files and solves their lines
+     * @return the paths of output files, in the order of the input files
+     * @throws APIException if two input files have the same name, a file cannot be read or written,
+     *                      or a line is not valid
+     */
+    public static List<Path> pack(final List<Path> inputPaths, final Path outputDirectory, final ForkJoinPool pool) {
+        LOG.info(() -> String.format("BEGIN pack, totalFiles={%d}, outputDirectory={%s}",
+                inputPaths.size(), outputDirectory));
+
+        final List<Path> outputPaths = getOutputPaths(inputPaths, outputDirectory);
+
+        try {
+            Files.createDirectories(outputDirectory);
+        } catch (IOException e) {
+            throw fileError(outputDirectory, e);
+        }
+
+        final List<Path> writtenPaths = packAll(inputPaths.size(), pool, file -> {
+            final Path inputPath = inputPaths.get(file);
+            final Path outputPath = outputPaths.get(file);
+
+            try (InputStream input = Files.newInputStream(inputPath);
+                 Writer output = Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8)) {
+
+                Packer.pack(input, getOptions(pool), output);
+
+            } catch (IOException e) {
+                throw fileError(inputPath, e);
+            }
+
+            return outputPath;
+        });
+
+        LOG.info(() -> String.format("END pack, totalFiles={%d}", writtenPaths.size()));
+        return writtenPaths;
+    }
+
+    /**
+     * Same as {@link #pack(List, Path, ForkJoinPool)}, with all regular files of the input directory,
+     * sorted by name. The subdirectories are not read.
+     *
+     * @param inputDirectory  the directory of input files
+     * @param outputDirectory the directory of output files, that must not be the input directory
+     * @param pool            the pool that reads the files and solves their lines
+     * @return the paths of output files, in the order of the input files
+     * @throws APIException if a directory or file cannot be read or written, or a line is not valid
+     */
+    public static List<Path> packDirectory(final Path inputDirectory, final Path outputDirectory,
+                                           final ForkJoinPool pool) {
+        final List<Path> inputPaths;
+
+        try (Stream<Path> files = Files.list(inputDirectory)) {
+            inputPaths = files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw fileError(inputDirectory, e);
+        }
+
+        return pack(inputPaths, outputDirectory, pool);
+    }
+
+    /**
+     * Starts one task per file, then waits for all of them, so a failed file does not stop the other ones.
+     */
+    private static <T> List<T> packAll(final int totalFiles, final ForkJoinPool pool,
+                                       final IntFunction<T> filePacker) {
+        final List<CompletableFuture<T>> inProgress = new ArrayList<>(totalFiles);
+        for (int i = 0; i < totalFiles; i++) {
+            final int file = i;
+            inProgress.add(CompletableFuture.supplyAsync(() -> filePacker.apply(file), pool));
+        }
+
+        final List<T> results = new ArrayList<>(totalFiles);
+        RuntimeException firstError = null;
+
+        for (CompletableFuture<T> future : inProgress) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException ex) {
+                final RuntimeException error = ex.getCause() instanceof RuntimeException
+                        ? (RuntimeException) ex.getCause() : ex;
+                if (firstError == null) {
+                    firstError = error;
+                }
+                results.add(null);
+            }
+        }
+
+        if (firstError != null) {
+            throw firstError;
+        }
+        return results;
+    }
+
+    private static List<Path> getOutputPaths(final List<Path> inputPaths, final Path outputDirectory) {
+        final List<Path> outputPaths = new ArrayList<>(inputPaths.size());
+        final Set<Path> uniquePaths = new HashSet<>();
+
+        for (Path inputPath : inputPaths) {
+            final Path outputPath = outputDirectory.resolve(inputPath.getFileName());
+
+            if (outputPath.toAbsolutePath().normalize().equals(inputPath.toAbsolutePath().normalize())) {
+                throw new APIException(String.format("Output file [%s] is the input file", outputPath));
+            }
+            if (!uniquePaths.add(outputPath)) {
+                throw new APIException(String.format("Output file [%s] is written by more than one input file",
+                        outputPath));
+            }
+
+            outputPaths.add(outputPath);
+        }
+
+        return outputPaths;
+    }
+
+    private static PackOptions getOptions(final ForkJoinPool pool) {
+        return PackOptions.DEFAULT.withExecutor(pool, Math.max(1, pool.getParallelism()) * LINES_PER_WORKER);
+    }
+
+    private static APIException fileError(final Path path, final IOException e) {
+        final String errorMsg = String.format("Error to handle the file [%s]", path);
+        LOG.log(Level.SEVERE, errorMsg);
+
+        return new APIException(errorMsg, e);
+    }
+}
@@ -0,0 +1,461 @@
+package com.mobiquity.packer;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.config.PackServerConfig;
+import com.mobiquity.packer.strategy.PackStrategy;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Entry point to pack lines over HTTP, on the server of the JDK ({@link HttpServer}), without a file:
+ * a POST to {@value #PACK_PATH} with one line per line of the body (UTF-8) is answered with the result of each
+ * line (e.g.: "2,7" or "-"), one per line, in the order of the body, as {@link Packer#pack(String)} does.
+ * <ul>
+ *     <li>The body is read line by line, and each line takes one of the pending lines of the server: a request
+ *     with more lines than the maximum is rejected with 413, and a request whose lines do not fit in the free ones
+ *     with 503 (Retry-After), as soon as the line is read, without reading the rest of the body.
+ *     A line longer than the maximum bytes is rejected with 413 without buffering the rest of it, and a line that
+ *     cannot be read or exceeds the limits of the {@link com.mobiquity.packer.config.PackConfig} is answered with
+ *     400 before any line is solved.</li>
+ *     <li>The lines of all requests are queued and solved in micro-batches on a {@link ForkJoinPool}: a batch
+ *     takes the lines received within a short delay, and the same line in many requests is solved once.</li>
+ *     <li>The results are streamed: each one is sent as soon as it and the ones before it are solved.
+ *     The status is sent with the first result, so a request whose first line fails is answered with 503
+ *     (the server is closed) or 500. If a later line fails, the 200 response ends with a line
+ *     {@value #ERROR_MARKER} followed by the error, instead of the remaining results.</li>
+ * </ul>
+ * See {@link PackServerConfig} for the settings.
+ */
+public class PackServer implements AutoCloseable {
+
+    public static final String PACK_PATH = "/pack";
+
+    public static final String ERROR_MARKER = "error: ";
+
+    private static final Logger LOG = Logger.getLogger("PackServer");
+
+    private static final String RESULT_SEPARATOR = "\n";
+
+    private final PackServerConfig config;
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ForkJoinPool pool;
+    private final Thread batcher;
+
+    private final BlockingQueue<PendingLine> queue = new LinkedBlockingQueue<>();
+    private final Semaphore pendingLines;
+    private final Object submitLock = new Object();
+    private boolean isClosed;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder linesSolved = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    private PackServer(final PackServerConfig config) throws IOException {
+        this.config = config;
+        this.pendingLines = new Semaphore(config.getMaxPendingLines());
+
+        this.server = HttpServer.create(new InetSocketAddress(config.getPort()), 0);
+
+        // when all handlers are busy and the queue is full, the request is handled by the thread that accepts
+        // the connections, so no more connections are accepted meanwhile
+        this.handlers = new ThreadPoolExecutor(config.getHandlers(), config.getHandlers(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getHandlers()),
+                runnable -> newDaemonThread(runnable, "pack-server-handler"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.pool = new ForkJoinPool(config.getWorkers());
+        this.batcher = newDaemonThread(this::batchLines, "pack-server-batcher");
+
+        server.createContext(PACK_PATH, this::handle);
+        server.setExecutor(handlers);
+    }
+
+    /**
+     * Starts a server with the given settings.
+     *
+     * @param config the settings of the server, e.g.: {@link PackServerConfig#DEFAULT}
+     * @return the {@link PackServer} object, that must be closed at the end
+     * @throws APIException if the server cannot listen on the port
+     */
+    public static PackServer start(final PackServerConfig config) {
+        LOG.info(() -> String.format("BEGIN start, config={%s}", config));
+
+        final PackServer packServer;
+        try {
+            packServer = new PackServer(config);
+        } catch (IOException e) {
+            final String errorMsg = String.format("Error to start the server on port [%d]", config.getPort());
+            LOG.log(Level.SEVERE, errorMsg);
+            throw new APIException(errorMsg, e);
+        }
+
+        packServer.batcher.start();
+        packServer.server.start();
+
+        LOG.info(() -> String.format("END start, address={%s}", packServer.getAddress()));
+        return packServer;
+    }
+
+    /**
+     * @return the address the server listens on, with the port chosen when the configured one is 0.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * @return the number of micro-batches solved.
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return the number of lines solved, counting once the same line of many requests in a batch.
+     */
+    public long getLinesSolved() {
+        return linesSolved.sum();
+    }
+
+    /**
+     * @return the number of requests rejected because too many lines were pending.
+     */
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    /**
+     * Stops the server. The lines already in a batch are solved, and the ones still queued are failed.
+     */
+    @Override
+    public void close() {
+        LOG.info("BEGIN close");
+
+        server.stop(0);
+
+        synchronized (submitLock) {
+            isClosed = true;
+        }
+        batcher.interrupt();
+
+        final List<PendingLine> queuedLines = new ArrayList<>();
+        queue.drainTo(queuedLines);
+        failLines(queuedLines);
+
+        pool.shutdown();
+        handlers.shutdown();
+
+        LOG.info("END close");
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        int acquiredLines = 0;
+
+        try {
+            if (!config.isKeepAlive()) {
+                exchange.getResponseHeaders().set("Connection", "close");
+            }
+
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                sendError(exchange, 405, String.format("Method [%s] is not allowed", exchange.getRequestMethod()));
+                return;
+            }
+
+            final List<String> lines = new ArrayList<>();
+            final BodyReader reader = new BodyReader(exchange.getRequestBody(), config.getMaxLineBytes());
+
+            // each line takes a pending line as soon as it is read, so the lines kept by all requests are bounded
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (lines.size() == config.getMaxPendingLines()) {
+                    sendError(exchange, 413, String.format("Lines of request exceeded %d",
+                            config.getMaxPendingLines()));
+                    return;
+                }
+
+                try {
+                    PackStrategy.checkInputLine(line, config.getPackConfig());
+                } catch (APIException ex) {
+                    sendError(exchange, 400, ex.getMessage());
+                    return;
+                }
+
+                if (!pendingLines.tryAcquire()) {
+                    rejectedRequests.increment();
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    sendError(exchange, 503, "Too many lines pending, try again later");
+                    return;
+                }
+                acquiredLines++;
+                lines.add(line);
+            }
+
+            if (reader.isLineTooLong()) {
+                sendError(exchange, 413, String.format("Line of request exceeded %d bytes",
+                        config.getMaxLineBytes()));
+                return;
+            }
+
+            sendResults(exchange, submit(lines));
+
+        } catch (RuntimeException e) {
+            LOG.log(Level.SEVERE, "Error to answer the request", e);
+            throw e;
+        } finally {
+            pendingLines.release(acquiredLines);
+            exchange.close();
+        }
+    }
+
+    /**
+     * Sends the results in the order of the lines, flushing only when the next result is not ready yet,
+     * so the results solved together are sent together. The status is sent after the first result, so a
+     * request whose first line fails gets an error status; a later failure ends the body with {@value #ERROR_MARKER}.
+     */
+    private void sendResults(final HttpExchange exchange, final List<CompletableFuture<String>> results)
+            throws IOException {
+        String result = null;
+
+        if (!results.isEmpty()) {
+            try {
+                result = Packer.awaitResult(results.get(0));
+            } catch (RuntimeException e) {
+                LOG.log(Level.SEVERE, "Error to solve the first line", e);
+                sendError(exchange, isClosed() ? 503 : 500, getMessage(e));
+                return;
+            }
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+
+        final Writer output = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8);
+
+        for (int i = 0; i < results.size(); i++) {
+            if (i > 0) {
+                output.write(RESULT_SEPARATOR);
+
+                try {
+                    result = Packer.awaitResult(results.get(i));
+                } catch (RuntimeException e) {
+                    LOG.log(Level.SEVERE, "Error to solve a line after the first one", e);
+                    output.write(ERROR_MARKER + getMessage(e));
+                    break;
+                }
+            }
+            output.write(result);
+
+            if (i + 1 < results.size() && !results.get(i + 1).isDone()) {
+                output.flush();
+            }
+        }
+
+        output.flush();
+    }
+
+    private boolean isClosed() {
+        synchronized (submitLock) {
+            return isClosed;
+        }
+    }
+
+    private static String getMessage(final RuntimeException e) {
+        final Throwable error = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return String.valueOf(error.getMessage());
+    }
+
+    private List<CompletableFuture<String>> submit(final List<String> lines) {
+        final List<CompletableFuture<String>> results = new ArrayList<>(lines.size());
+
+        synchronized (submitLock) {
+            for (String line : lines) {
+                final CompletableFuture<String> result = new CompletableFuture<>();
+
+                if (isClosed) {
+                    result.completeExceptionally(new APIException("Server is closed"));
+                } else {
+                    queue.add(new PendingLine(line, result));
+                }
+                results.add(result);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Takes the queued lines in batches: a batch starts with the first line, and takes the lines that arrive
+     * within the batch delay, up to the maximum of lines.
+     */
+    private void batchLines() {
+        final long batchDelayNanos = config.getBatchDelay().toNanos();
+        List<PendingLine> batch = new ArrayList<>();
+
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch = new ArrayList<>(config.getMaxBatchLines());
+                batch.add(queue.take());
+
+                final long batchEnd = System.nanoTime() + batchDelayNanos;
+                while (batch.size() < config.getMaxBatchLines()) {
+                    final PendingLine pendingLine = queue.poll(batchEnd - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+                    if (pendingLine == null) {
+                        break;
+                    }
+                    batch.add(pendingLine);
+                }
+
+                solveBatch(batch);
+                batch = new ArrayList<>();
+            }
+        } catch (InterruptedException e) {
+            // closed while the batch was being taken, so its lines are not solved
+            failLines(batch);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Solves each distinct line of the batch in a task of the pool, and gives its result to all requests.
+     */
+    private void solveBatch(final List<PendingLine> batch) {
+        final Map<String, List<CompletableFuture<String>>> resultsByLine = new HashMap<>();
+        for (PendingLine pendingLine : batch) {
+            resultsByLine.computeIfAbsent(pendingLine.line, line -> new ArrayList<>()).add(pendingLine.result);
+        }
+
+        batches.increment();
+        LOG.info(() -> String.format("solveBatch, lines={%d}, distinctLines={%d}",
+                batch.size(), resultsByLine.size()));
+
+        resultsByLine.forEach((line, results) -> {
+            try {
+                pool.execute(() -> solveLine(line, results));
+            } catch (RejectedExecutionException e) {
+                results.forEach(future -> future.completeExceptionally(new APIException("Server is closed")));
+            }
+        });
+    }
+
+    private void solveLine(final String line, final List<CompletableFuture<String>> results) {
+        try {
+            final String result = Packer.getResultFromPack(
+                    PackStrategy.getBetterPackFromInputLine(line, config.getPackConfig()));
+            linesSolved.increment();
+            results.forEach(future -> future.complete(result));
+        } catch (RuntimeException e) {
+            results.forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private static void failLines(final List<PendingLine> lines) {
+        lines.forEach(pendingLine -> pendingLine.result.completeExceptionally(new APIException("Server is closed")));
+    }
+
+    private static void sendError(final HttpExchange exchange, final int status, final String message)
+            throws IOException {
+        final byte[] body = message.getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static Thread newDaemonThread(final Runnable runnable, final String name) {
+        final Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Reads the lines of a body (UTF-8), ended by "\n", "\r" or "\r\n" as {@link java.io.BufferedReader} does,
+     * keeping at most the maximum bytes of a line: a longer line ends the reading, see {@link #isLineTooLong()}.
+     */
+    private static class BodyReader {
+
+        private final InputStream input;
+        private final int maxLineBytes;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private boolean isAfterCarriageReturn;
+        private boolean isLineTooLong;
+
+        private BodyReader(final InputStream input, final int maxLineBytes) {
+            this.input = new BufferedInputStream(input);
+            this.maxLineBytes = maxLineBytes;
+        }
+
+        /**
+         * @return the next line, or null at the end of the body or when the line is longer than the maximum
+         */
+        private String readLine() throws IOException {
+            buffer.reset();
+
+            int value;
+            while ((value = input.read()) != -1) {
+                if (value == '\n' && isAfterCarriageReturn) {
+                    isAfterCarriageReturn = false;
+                    continue;
+                }
+                isAfterCarriageReturn = value == '\r';
+
+                if (value == '\n' || value == '\r') {
+                    return buffer.toString(StandardCharsets.UTF_8);
+                }
+                if (buffer.size() == maxLineBytes) {
+                    isLineTooLong = true;
+                    return null;
+                }
+                buffer.write(value);
+            }
+
+            return buffer.size() == 0 ? null : buffer.toString(StandardCharsets.UTF_8);
+        }
+
+        private boolean isLineTooLong() {
+            return isLineTooLong;
+        }
+    }
+
+    /**
+     * A line received and not solved yet, and the result given to its request.
+     */
+    private static class PendingLine {
+
+        private final String line;
+        private final CompletableFuture<String> result;
+
+        private PendingLine(final String line, final CompletableFuture<String> result) {
+            this.line = line;
+            this.result = result;
+        }
+    }
+}
@@ -1,19 +1,36 @@
 package com.mobiquity.packer;
 
 import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.cache.PackCache;
+import com.mobiquity.packer.cache.PersistentResultCache;
+import com.mobiquity.packer.config.PackConfig;
+import com.mobiquity.packer.config.PackOptions;
 import com.mobiquity.packer.model.Pack;
 import com.mobiquity.packer.model.Product;
+import com.mobiquity.packer.reader.MappedLineReader;
 import com.mobiquity.packer.strategy.PackStrategy;
 
 import java.io.BufferedReader;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * The entry point for Packer API.
@@ -24,6 +41,8 @@ public class Packer {
 
     private static final Logger LOG = Logger.getLogger("Packer");
 
+    private static final String RESULT_SEPARATOR = "\n";
+
     private Packer() {
     }
 
@@ -33,41 +52,386 @@ public class Packer {
      * @param filePath the path and filename, e.g.: "src/main/test/resources/example_input"
      * @return the string containing the better option of indexes for each line of input file
      */
-     public static String pack(String filePath) {
-         LOG.info(String.format("BEGIN pack, filePath={%s}", filePath));
+    public static String pack(final String filePath) {
+        return pack(filePath, PackOptions.DEFAULT);
+    }
+
+    /**
+     * Same as {@link #pack(String)}, with the given options: the limits of each line
+     * (e.g.: {@link PackConfig#EXTENDED}), a cache of solved lines or results, and an executor to solve the lines
+     * in parallel.
+     * See {@link #pack(InputStream, PackOptions, Consumer)}.
+     *
+     * @param filePath the path and filename, e.g.: "src/main/test/resources/example_input"
+     * @param options  the options of the pack, e.g.: {@link PackOptions#DEFAULT}
+     * @return the string containing the better option of indexes for each line of input file
+     * @throws APIException if the file cannot be read, the options are not valid, or a line is not valid
+     */
+    public static String pack(final String filePath, final PackOptions options) {
+        final StringJoiner result = new StringJoiner(RESULT_SEPARATOR);
+        pack(getPath(filePath), options, result::add);
+        return result.toString();
+    }
+
+    /**
+     * Same as {@link #pack(InputStream, PackOptions, Consumer)}, reading the input file.
+     *
+     * @param inputPath      the path of input file
+     * @param options        the options of the pack, e.g.: {@link PackOptions#DEFAULT}
+     * @param resultListener called with the result of each line (e.g.: "2,7" or "-"), in the order of the file
+     * @throws APIException if the file cannot be read, the options are not valid, or a line is not valid
+     */
+    public static void pack(final Path inputPath, final PackOptions options, final Consumer<String> resultListener) {
+        try (InputStream input = Files.newInputStream(inputPath)) {
+            pack(input, options, resultListener);
+        } catch (IOException e) {
+            throw fileError(inputPath.toString(), e);
+        }
+    }
+
+    /**
+     * Same as {@link #pack(InputStream, PackOptions, Consumer)}, reading the input file and writing the results
+     * to the output, one per line. The output is flushed at the end, but not closed.
+     *
+     * @param inputPath the path of input file
+     * @param options   the options of the pack, e.g.: {@link PackOptions#DEFAULT}
+     * @param output    where the results are written
+     * @throws APIException if the file cannot be read, the output cannot be written, the options are not valid,
+     *                      or a line is not valid
+     */
+    public static void pack(final Path inputPath, final PackOptions options, final Writer output) {
+        final ResultWriter resultWriter = new ResultWriter(output);
+        pack(inputPath, options, resultWriter);
+        resultWriter.flush();
+    }
+
+    /**
+     * Same as {@link #pack(InputStream, PackOptions, Consumer)}, writing the results to the output, one per line.
+     * Neither the input nor the output is closed, but the output is flushed at the end.
+     *
+     * @param input   the content of input file, in UTF-8
+     * @param options the options of the pack, e.g.: {@link PackOptions#DEFAULT}
+     * @param output  where the results are written
+     * @throws APIException if the input cannot be read, the output cannot be written, the options are not valid,
+     *                      or a line is not valid
+     */
+    public static void pack(final InputStream input, final PackOptions options, final Writer output) {
+        final ResultWriter resultWriter = new ResultWriter(output);
+        pack(input, options, resultWriter);
+        resultWriter.flush();
+    }
+
+    /**
+     * Streaming version of {@link #pack(String)}: the result of each line is given to the listener, in the order
+     * of the input, as soon as it and all the lines before it are computed, so the memory does not depend on the
+     * input size. The input is not closed.
+     * <ul>
+     *     <li>each line follows the limits of {@link PackOptions#getPackConfig()};</li>
+     *     <li>with a {@link PackOptions#getCache()}, a line already solved (or the same products in another order)
+     *     is not validated nor solved again. With a {@link PackOptions#getResultCache()}, the results are looked up
+     *     in it before solving the lines, the new ones are written to it, and it is flushed at the end.
+     *     The limits of the cache must be the same of the options;</li>
+     *     <li>with a {@link PackOptions#getExecutor()}, the lines are solved in parallel: at most
+     *     {@link PackOptions#getReorderWindow()} lines are in progress at the same time, and the oldest one is
+     *     awaited before reading more lines, so the pending work does not grow with the input size.</li>
+     * </ul>
+     *
+     * @param input          the content of input file, in UTF-8
+     * @param options        the options of the pack, e.g.: {@link PackOptions#DEFAULT}
+     * @param resultListener called with the result of each line (e.g.: "2,7" or "-"), in the order of the input
+     * @throws APIException if the input cannot be read, the limits of the cache are not the ones of the options,
+     *                      the cache cannot be written, or a line is not valid
+     */
+    public static void pack(final InputStream input, final PackOptions options,
+                            final Consumer<String> resultListener) {
+        final Function<CharSequence, String> lineResolver = getLineResolver(options);
+
+        if (options.getExecutor() == null) {
+            pack(input, lineResolver, resultListener);
+        } else {
+            pack(input, options.getExecutor(), options.getReorderWindow(), lineResolver, resultListener);
+        }
+
+        if (options.getResultCache() != null) {
+            options.getResultCache().flush();
+        }
+    }
+
+    private static void pack(final InputStream input, final Function<CharSequence, String> lineResolver,
+                             final Consumer<String> resultListener) {
+        LOG.info("BEGIN pack");
+
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long totalLines = 0;
+
+        try {
+            String fileLine;
+            while ((fileLine = reader.readLine()) != null) {
+                resultListener.accept(lineResolver.apply(fileLine));
+                totalLines++;
+            }
+        } catch (IOException e) {
+            throw inputError(e);
+        }
+
+        final long readLines = totalLines;
+        LOG.info(() -> String.format("END pack, totalLines={%d}", readLines));
+    }
+
+    private static void pack(final InputStream input, final Executor executor, final int reorderWindow,
+                             final Function<CharSequence, String> lineResolver,
+                             final Consumer<String> resultListener) {
+        LOG.info(() -> String.format("BEGIN pack, reorderWindow={%d}", reorderWindow));
+
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long totalLines = 0;
+
+        try (ReorderWindow window = new ReorderWindow(executor, reorderWindow, lineResolver, resultListener)) {
+            String fileLine;
+            while ((fileLine = reader.readLine()) != null) {
+                window.submit(fileLine);
+                totalLines++;
+            }
+
+            window.finish();
+        } catch (IOException e) {
+            throw inputError(e);
+        }
+
+        final long readLines = totalLines;
+        LOG.info(() -> String.format("END pack, totalLines={%d}", readLines));
+    }
+
+    /**
+     * Same as {@link #pack(Path, PackOptions, Consumer)}, for very large files: the file is memory-mapped and
+     * each line is parsed straight from a reused buffer by {@link MappedLineReader}, without creating a
+     * {@link String} per line. With a {@link PackOptions#getExecutor()}, each line is copied to a {@link String}
+     * before being solved by another thread. The lines are split by "\n" or "\r\n" only.
+     *
+     * @param inputPath      the path of input file, in UTF-8
+     * @param options        the options of the pack, e.g.: {@link PackOptions#DEFAULT}
+     * @param resultListener called with the result of each line (e.g.: "2,7" or "-"), in the order of the file
+     * @throws APIException if the file cannot be read, the limits of the cache are not the ones of the options,
+     *                      the cache cannot be written, or a line is not valid
+     */
+    public static void packMapped(final Path inputPath, final PackOptions options,
+                                  final Consumer<String> resultListener) {
+        LOG.info(() -> String.format("BEGIN packMapped, inputPath={%s}", inputPath));
+
+        final Function<CharSequence, String> lineResolver = getLineResolver(options);
+
+        try {
+            final long totalLines;
+
+            if (options.getExecutor() == null) {
+                totalLines = MappedLineReader.readLines(inputPath,
+                        fileLine -> resultListener.accept(lineResolver.apply(fileLine)));
+            } else {
+                try (ReorderWindow window = new ReorderWindow(options.getExecutor(), options.getReorderWindow(),
+                        lineResolver, resultListener)) {
+                    totalLines = MappedLineReader.readLines(inputPath,
+                            fileLine -> window.submit(fileLine.toString()));
+                    window.finish();
+                }
+            }
+
+            LOG.info(() -> String.format("END packMapped, totalLines={%d}", totalLines));
+        } catch (IOException e) {
+            throw fileError(inputPath.toString(), e);
+        }
+
+        if (options.getResultCache() != null) {
+            options.getResultCache().flush();
+        }
+    }
+
+    /**
+     * Same as {@link #packMapped(Path, PackOptions, Consumer)}, but writes the results to the output, one per line.
+     * The output is flushed at the end, but not closed.
+     *
+     * @param inputPath the path of input file, in UTF-8
+     * @param options   the options of the pack, e.g.: {@link PackOptions#DEFAULT}
+     * @param output    where the results are written
+     * @throws APIException if the file cannot be read, the output cannot be written, the options are not valid,
+     *                      or a line is not valid
+     */
+    public static void packMapped(final Path inputPath, final PackOptions options, final Writer output) {
+        final ResultWriter resultWriter = new ResultWriter(output);
+        packMapped(inputPath, options, resultWriter);
+        resultWriter.flush();
+    }
+
+    private static Function<CharSequence, String> getLineResolver(final PackOptions options) {
+        final PackConfig config = options.getPackConfig();
+        final PackCache cache = options.getCache();
+        final PersistentResultCache resultCache = options.getResultCache();
+
+        if (cache != null) {
+            checkCacheConfig(cache.getConfig(), config);
+            return line -> getResultFromPack(cache.getBetterPackFromInputLine(line));
+        }
+
+        final Function<CharSequence, String> lineResolver =
+                line -> getResultFromPack(PackStrategy.getBetterPackFromInputLine(line, config));
+
+        if (resultCache != null) {
+            checkCacheConfig(resultCache.getConfig(), config);
+            return line -> resultCache.getResult(line, lineResolver);
+        }
+
+        return lineResolver;
+    }
+
+    private static void checkCacheConfig(final PackConfig cacheConfig, final PackConfig config) {
+        if (!cacheConfig.equals(config)) {
+            throw new APIException(String.format("Limits of the cache (%s) are not the limits of the pack (%s)",
+                    cacheConfig, config));
+        }
+    }
+
+    static String getResultFromPack(final Pack pack) {
+        if (pack == null) {
+            return "-";
+        }
+
+        final String line = pack.getProducts().stream()
+                .map(Product::getIndex)
+                .sorted()
+                .map(Object::toString)
+                .collect(Collectors.joining(","));
+
+        return (line.isBlank()) ? "-" : line;
+    }
+
+    /**
+     * Waits for the result of a line, rethrowing the {@link APIException} of the line, if any.
+     */
+    static String awaitResult(final CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof APIException) {
+                throw (APIException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    private static Path getPath(final String filePath) {
+        try {
+            return Paths.get(filePath);
+        } catch (InvalidPathException e) {
+            throw fileError(filePath, e);
+        }
+    }
+
+    private static APIException fileError(final String filePath, final Exception e) {
+        final String errorMsg = String.format("Error to handle the file [%s]", filePath);
+        LOG.log(Level.SEVERE, errorMsg);
+
+        return new APIException(errorMsg, e);
+    }
+
+    private static APIException inputError(final IOException e) {
+        final String errorMsg = "Error to read the input";
+        LOG.log(Level.SEVERE, errorMsg);
+
+        return new APIException(errorMsg, e);
+    }
+
+    /**
+     * Solves the lines on an executor, with at most the reorder window of lines in progress, and gives their
+     * results to the listener in the order the lines were submitted.
+     * When it is closed before {@link #finish()}, e.g. because a line failed, the lines not started yet are skipped
+     * and the ones in progress are awaited, so no line is still solved after the pack ends.
+     */
+    static class ReorderWindow implements AutoCloseable {
 
-          try {
-              final BufferedReader reader = new BufferedReader
-                      (new InputStreamReader(new FileInputStream(filePath), StandardCharsets.UTF_8));
+        private final Executor executor;
+        private final int size;
+        private final Function<CharSequence, String> lineResolver;
+        private final Consumer<String> resultListener;
 
-              final Stream<String> lines = reader.lines();
+        private final Deque<CompletableFuture<String>> inProgress;
+
+        private volatile boolean isClosed;
+
+        ReorderWindow(final Executor executor, final int size, final Function<CharSequence, String> lineResolver,
+                      final Consumer<String> resultListener) {
+            this.executor = executor;
+            this.size = size;
+            this.lineResolver = lineResolver;
+            this.resultListener = resultListener;
+            this.inProgress = new ArrayDeque<>(size);
+        }
+
+        void submit(final String line) {
+            // wait for the oldest line before starting a new one, so the window is never exceeded
+            if (inProgress.size() == size) {
+                resultListener.accept(awaitResult(inProgress.removeFirst()));
+            }
+
+            inProgress.addLast(CompletableFuture.supplyAsync(() -> isClosed ? null : lineResolver.apply(line),
+                    executor));
+        }
+
+        void finish() {
+            while (!inProgress.isEmpty()) {
+                resultListener.accept(awaitResult(inProgress.removeFirst()));
+            }
+        }
+
+        @Override
+        public void close() {
+            isClosed = true;
+
+            // the results are dropped, only the end of each line is awaited
+            while (!inProgress.isEmpty()) {
+                inProgress.removeFirst().handle((result, ex) -> result).join();
+            }
+        }
+    }
+
+    /**
+     * Writes each result in a new line of the output.
+     */
+    static class ResultWriter implements Consumer<String> {
 
-              final String result = lines.map(fileLine -> {
-                  final Pack pack = PackStrategy.getBetterPackFromInputLine(fileLine);
+        private final Writer output;
 
-                  if (pack == null) {
-                      return "-";
-                  }
+        private boolean isFirstResult = true;
 
-                  return pack.getProducts().stream()
-                          .map(Product::getIndex)
-                          .sorted()
-                          .map(Object::toString)
-                          .collect(Collectors.joining(","));
+        ResultWriter(final Writer output) {
+            this.output = output;
+        }
 
-              }).map(line -> (line.isBlank()) ? "-" : line)
-              .collect(Collectors.joining("\n"));
+        @Override
+        public void accept(final String result) {
+            try {
+                if (!isFirstResult) {
+                    output.write(RESULT_SEPARATOR);
+                }
+                output.write(result);
+                isFirstResult = false;
 
-              reader.close();
+            } catch (IOException e) {
+                throw outputError(e);
+            }
+        }
 
-              LOG.info(String.format("END pack, result={%s}", result));
-              return result;
-          } catch (IOException e) {
+        void flush() {
+            try {
+                output.flush();
+            } catch (IOException e) {
+                throw outputError(e);
+            }
+        }
 
-              final String errorMsg = String.format("Error to handle the file [%s]", filePath);
-              LOG.log(Level.SEVERE, errorMsg);
+        private static APIException outputError(final IOException e) {
+            final String errorMsg = "Error to write the result";
+            LOG.log(Level.SEVERE, errorMsg);
 
-              throw new APIException(errorMsg, e);
-          }
+            return new APIException(errorMsg, e);
+        }
     }
 }
@@ -0,0 +1,217 @@
+package com.mobiquity.packer.cache;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.config.PackConfig;
+import com.mobiquity.packer.converter.LineScanner;
+import com.mobiquity.packer.model.Pack;
+import com.mobiquity.packer.strategy.PackStrategy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Bounded cache in front of {@link PackStrategy#getBetterPackFromInputLine(CharSequence)}.
+ * The key is the canonical form of the line: the weight limit, then the products sorted by index,
+ * so lines with the same products in another order share the same {@link Pack}.
+ * When the cache is full, the least recently used line is evicted.
+ * It is thread-safe: the lines are solved outside the lock, so two threads that miss the same line
+ * at the same time may both solve it, and the last one is kept.
+ * The cached packs are shared, and must not be changed.
+ */
+public class PackCache {
+
+    private static final Logger LOG = Logger.getLogger("PackCache");
+
+    private final int maxSize;
+    private final PackConfig config;
+    private final Map<String, Optional<Pack>> packs;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Default class constructor, for lines with the {@link PackConfig#STRICT} limits.
+     * @param maxSize the maximum number of lines in the cache, must be positive
+     * @throws APIException if the size is not positive
+     */
+    public PackCache(final int maxSize) {
+        this(maxSize, PackConfig.STRICT);
+    }
+
+    /**
+     * Creates a cache for lines with the limits of the given configuration.
+     * @param maxSize the maximum number of lines in the cache, must be positive
+     * @param config  the limits of each line
+     * @throws APIException if the size is not positive
+     */
+    public PackCache(final int maxSize, final PackConfig config) {
+        if (maxSize <= 0) {
+            throw new APIException(String.format("Cache size (%d) must be positive", maxSize));
+        }
+
+        this.maxSize = maxSize;
+        this.config = config;
+
+        // access order, so the eldest entry is the least recently used
+        this.packs = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Optional<Pack>> eldest) {
+                if (size() > PackCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Same as {@link PackStrategy#getBetterPackFromInputLine(CharSequence)}, but a line already solved
+     * (or one with the same weight limit and products in another order) is not solved again.
+     *
+     * @param line the string containing weight limit of box, and product data like index, cost and weight.
+     * @return a {@link Pack} with better option of cost and weight, or null if the line is empty or not valid.
+     */
+    public Pack getBetterPackFromInputLine(final CharSequence line) {
+        final String key = getKey(line);
+
+        // lines that cannot be read are not cached, the strategy reports them
+        if (key == null) {
+            return PackStrategy.getBetterPackFromInputLine(line, config);
+        }
+
+        final Optional<Pack> cachedPack;
+        synchronized (packs) {
+            cachedPack = packs.get(key);
+        }
+
+        if (cachedPack != null) {
+            hits.incrementAndGet();
+            return cachedPack.orElse(null);
+        }
+
+        misses.incrementAndGet();
+        final Pack pack = PackStrategy.getBetterPackFromInputLine(line, config);
+
+        synchronized (packs) {
+            packs.put(key, Optional.ofNullable(pack));
+        }
+
+        return pack;
+    }
+
+    /**
+     * @return the number of lines found in the cache.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lines that were solved, because they were not in the cache.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of lines removed from the cache to respect its size.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public PackConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return the number of lines in the cache.
+     */
+    public int size() {
+        synchronized (packs) {
+            return packs.size();
+        }
+    }
+
+    /**
+     * Removes all lines from the cache. The statistics are kept.
+     */
+    public void clear() {
+        synchronized (packs) {
+            packs.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PackCache{" +
+                "maxSize=" + maxSize +
+                ", size=" + size() +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                '}';
+    }
+
+    /**
+     * Creates the canonical form of the line
+     * (e.g.: "81 : (2,88.62,€98) (1,53.38,€45)" is "81/0|1,5338/2,45/0|2,8862/2,98/0").
+     * The values keep the scale as read, so "81" and "81.0" are different keys.
+     * Products with the same index keep their order, because the last one replaces the others.
+     *
+     * @return the key, or null if the line is blank or cannot be read.
+     */
+    static String getKey(final CharSequence line) {
+        try {
+            final LineScanner scanner = LineScanner.scan(line);
+
+            if (scanner == null) {
+                return null;
+            }
+
+            final int totalProducts = scanner.getTotalProducts();
+            final int[] indexes = new int[totalProducts];
+            final String[] products = new String[totalProducts];
+
+            int size = 0;
+            while (scanner.nextProduct()) {
+                final String product = scanner.getIndex() + "," + scanner.getWeight() + "/" + scanner.getWeightScale()
+                        + "," + scanner.getCost() + "/" + scanner.getCostScale();
+
+                // insertion sort by index, stable for products with the same index
+                int position = size;
+                while (position > 0 && indexes[position - 1] > scanner.getIndex()) {
+                    indexes[position] = indexes[position - 1];
+                    products[position] = products[position - 1];
+                    position--;
+                }
+
+                indexes[position] = scanner.getIndex();
+                products[position] = product;
+                size++;
+            }
+
+            final StringBuilder key = new StringBuilder()
+                    .append(scanner.getWeightLimit()).append('/').append(scanner.getWeightLimitScale());
+
+            for (int i = 0; i < size; i++) {
+                key.append('|').append(products[i]);
+            }
+
+            return key.toString();
+
+        } catch (APIException ex) {
+            LOG.fine(() -> String.format("getKey, line not cached, line={%s}", line));
+            return null;
+        }
+    }
+}
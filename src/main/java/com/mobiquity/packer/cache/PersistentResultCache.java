@@ -0,0 +1,455 @@
+package com.mobiquity.packer.cache;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.config.PackConfig;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Result cache kept in a file, so the results of a run are reused by the next runs and by other processes
+ * on the same host. The key is a hash of the canonical form of the line (see {@link PackCache}),
+ * and the value is the result string (e.g.: "2,7" or "-").
+ * <p>
+ * The file is an append-only log, with a header and one record per line: "hash result".
+ * The header has the version of the results and the limits of the {@link PackConfig} that produced them:
+ * a file with another header (e.g.: written with other limits, or by an older version of the solvers)
+ * is rebuilt empty, so its results are never reused. A file must be shared only by caches with the same limits.
+ * The new results are appended in batches, and the whole log is read when the cache is opened,
+ * the last record of a hash wins. When the log has twice as many records as the cache can keep,
+ * it is compacted: rewritten with only the most recently used results, up to the maximum size.
+ * The appends and the compaction hold a lock on a sidecar file (the log name plus ".lock"),
+ * so processes sharing the log do not lose each other's records. Each process keeps its own
+ * copy of the results in memory, and sees the results of the others after reopening the cache.
+ * <p>
+ * It is thread-safe, but a file must be opened only once in the same JVM.
+ */
+public class PersistentResultCache implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger("PersistentResultCache");
+
+    private static final String HEADER_PREFIX = "packer-result-cache ";
+    private static final int FORMAT_VERSION = 2;
+    // increase it when a change in the solvers may give another result for the same line
+    private static final int RESULT_VERSION = 1;
+    private static final char RECORD_SEPARATOR = ' ';
+    private static final int HASH_BYTES = 16;
+    private static final int APPEND_BATCH_SIZE = 256;
+
+    private final Path logPath;
+    private final Path lockPath;
+    private final int maxEntries;
+    private final PackConfig config;
+    private final String header;
+
+    // access order, so the eldest entry is the least recently used
+    private final LinkedHashMap<String, String> results = new LinkedHashMap<>(16, 0.75f, true);
+    private final List<String> pendingRecords = new ArrayList<>();
+    private long logRecords;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Opens the cache for results of lines with the {@link PackConfig#STRICT} limits.
+     *
+     * @param logPath    the path of the cache file
+     * @param maxEntries the maximum number of results to keep, must be positive
+     * @throws APIException if the size is not positive, or the file cannot be read or is not a result cache
+     */
+    public PersistentResultCache(final Path logPath, final int maxEntries) {
+        this(logPath, maxEntries, PackConfig.STRICT);
+    }
+
+    /**
+     * Opens the cache, reading all results already in the file, or creating the file if it does not exist.
+     * If the file has the results of another configuration or version, it is rebuilt empty.
+     *
+     * @param logPath    the path of the cache file
+     * @param maxEntries the maximum number of results to keep, must be positive
+     * @param config     the limits of the lines whose results are kept
+     * @throws APIException if the size is not positive, or the file cannot be read or is not a result cache
+     */
+    public PersistentResultCache(final Path logPath, final int maxEntries, final PackConfig config) {
+        if (maxEntries <= 0) {
+            throw new APIException(String.format("Cache size (%d) must be positive", maxEntries));
+        }
+
+        this.logPath = logPath;
+        this.lockPath = logPath.resolveSibling(logPath.getFileName() + ".lock");
+        this.maxEntries = maxEntries;
+        this.config = config;
+        this.header = String.format("%s%d results=%d extended=%b products=%d weight=%d cost=%d", HEADER_PREFIX,
+                FORMAT_VERSION, RESULT_VERSION, config.isExtended(), config.getMaxProducts(),
+                config.getMaxWeightLimit(), config.getMaxCost());
+
+        LOG.info(() -> String.format("BEGIN PersistentResultCache, logPath={%s}, maxEntries={%d}, config={%s}",
+                logPath, maxEntries, config));
+
+        runLocked(() -> {
+            logRecords = readLog(results);
+            trimToMaxEntries();
+        });
+
+        LOG.info(() -> String.format("END PersistentResultCache, results={%d}, logRecords={%d}",
+                results.size(), logRecords));
+    }
+
+    /**
+     * Returns the result of the line from the cache, or computes it with the resolver and keeps it.
+     * Lines that cannot be read (see {@link PackCache}) are not cached, they go straight to the resolver.
+     *
+     * @param line     the content from input file (e.g.: "81 : (1,53.38,€45) (2,88.62,€98)")
+     * @param resolver computes the result of a line that is not in the cache (e.g.: "2,7" or "-")
+     * @return the result of the line
+     * @throws APIException if the resolver fails, or the file cannot be written
+     */
+    public String getResult(final CharSequence line, final Function<CharSequence, String> resolver) {
+        final String key = PackCache.getKey(line);
+
+        if (key == null) {
+            return resolver.apply(line);
+        }
+
+        final String hash = hash(key);
+
+        synchronized (this) {
+            final String result = results.get(hash);
+            if (result != null) {
+                hits.incrementAndGet();
+                return result;
+            }
+        }
+
+        misses.incrementAndGet();
+        final String result = resolver.apply(line);
+
+        synchronized (this) {
+            results.put(hash, result);
+            pendingRecords.add(hash + RECORD_SEPARATOR + result);
+            trimToMaxEntries();
+
+            if (pendingRecords.size() >= APPEND_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Appends the new results to the file, and compacts it when it has too many old records.
+     * @throws APIException if the file cannot be written
+     */
+    public synchronized void flush() {
+        if (pendingRecords.isEmpty()) {
+            return;
+        }
+
+        runLocked(() -> {
+            // another process may have rebuilt the log with its own header since it was read
+            if (!checkHeader()) {
+                logRecords = 0;
+            }
+
+            try (BufferedWriter writer = Files.newBufferedWriter(logPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                for (String record : pendingRecords) {
+                    writer.write(record);
+                    writer.write('\n');
+                }
+            }
+
+            logRecords += pendingRecords.size();
+            pendingRecords.clear();
+
+            if (logRecords > 2L * maxEntries) {
+                compactLog();
+            }
+        });
+    }
+
+    /**
+     * Rewrites the file with only the most recently used results, up to the maximum size.
+     * The results appended by other processes are kept, as the least recently used ones.
+     * @throws APIException if the file cannot be written
+     */
+    public synchronized void compact() {
+        runLocked(this::compactLog);
+    }
+
+    /**
+     * @return the number of lines found in the cache.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lines that were resolved, because they were not in the cache.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of results removed from memory to respect the maximum size.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return the limits of the lines whose results are kept.
+     */
+    public PackConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return the number of results in memory.
+     */
+    public synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     * Appends the new results to the file. The cache must not be used after it.
+     * @throws APIException if the file cannot be written
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    @Override
+    public String toString() {
+        return "PersistentResultCache{" +
+                "logPath=" + logPath +
+                ", maxEntries=" + maxEntries +
+                ", config=" + config +
+                ", size=" + size() +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                '}';
+    }
+
+    /**
+     * Must be called holding the lock.
+     */
+    private void compactLog() throws IOException {
+        LOG.info(() -> String.format("BEGIN compactLog, logRecords={%d}", logRecords));
+
+        // the records of other processes first, so they are the first to be dropped
+        final LinkedHashMap<String, String> compacted = new LinkedHashMap<>();
+        readLog(compacted);
+        compacted.keySet().removeAll(results.keySet());
+        compacted.putAll(results);
+
+        final Iterator<String> eldest = compacted.keySet().iterator();
+        while (compacted.size() > maxEntries) {
+            eldest.next();
+            eldest.remove();
+        }
+
+        final Path compactedPath = logPath.resolveSibling(logPath.getFileName() + ".compact");
+        try (BufferedWriter writer = Files.newBufferedWriter(compactedPath, StandardCharsets.UTF_8)) {
+            writer.write(header);
+            writer.write('\n');
+
+            for (Map.Entry<String, String> entry : compacted.entrySet()) {
+                writer.write(entry.getKey() + RECORD_SEPARATOR + entry.getValue());
+                writer.write('\n');
+            }
+        }
+
+        Files.move(compactedPath, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logRecords = compacted.size();
+        pendingRecords.clear();
+
+        LOG.info(() -> String.format("END compactLog, logRecords={%d}", logRecords));
+    }
+
+    /**
+     * Reads all records of the log into the map, creating the log if it does not exist,
+     * or rebuilding it if it has another header.
+     * A record that was not completely written (e.g.: the process stopped) is removed from the log.
+     * Must be called holding the lock.
+     *
+     * @return the number of records in the log.
+     */
+    private long readLog(final Map<String, String> records) throws IOException {
+        if (!Files.exists(logPath)) {
+            writeHeader();
+            return 0;
+        }
+
+        if (!checkHeader()) {
+            return 0;
+        }
+
+        truncateIncompleteRecord();
+
+        long totalRecords = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(logPath, StandardCharsets.UTF_8)) {
+            // the header was already checked
+            reader.readLine();
+
+            String record;
+            while ((record = reader.readLine()) != null) {
+                final int separator = record.indexOf(RECORD_SEPARATOR);
+
+                if (separator <= 0) {
+                    final String ignoredRecord = record;
+                    LOG.log(Level.WARNING, () -> String.format("readLog, record ignored, record={%s}", ignoredRecord));
+                    continue;
+                }
+
+                records.put(record.substring(0, separator), record.substring(separator + 1));
+                totalRecords++;
+            }
+        }
+
+        return totalRecords;
+    }
+
+    /**
+     * Must be called holding the lock.
+     *
+     * @return true if the log has the header of this cache, false if it was rebuilt because it has the
+     * results of another configuration or version.
+     * @throws APIException if the file is not a result cache
+     */
+    private boolean checkHeader() throws IOException {
+        final String logHeader;
+        try (BufferedReader reader = Files.newBufferedReader(logPath, StandardCharsets.UTF_8)) {
+            logHeader = reader.readLine();
+        }
+
+        if (header.equals(logHeader)) {
+            return true;
+        }
+
+        if (logHeader == null || !logHeader.startsWith(HEADER_PREFIX)) {
+            throw new APIException(String.format("File [%s] is not a result cache", logPath));
+        }
+
+        LOG.log(Level.WARNING, () -> String.format("checkHeader, log rebuilt, logPath={%s}, logHeader={%s}",
+                logPath, logHeader));
+        writeHeader();
+        return false;
+    }
+
+    private void writeHeader() throws IOException {
+        Files.write(logPath, (header + '\n').getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void truncateIncompleteRecord() throws IOException {
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = channel.size();
+            final ByteBuffer lastByte = ByteBuffer.allocate(1);
+
+            while (end > 0) {
+                lastByte.clear();
+                channel.read(lastByte, end - 1);
+
+                if (lastByte.get(0) == '\n') {
+                    break;
+                }
+                end--;
+            }
+
+            if (end < channel.size()) {
+                final long validSize = end;
+                LOG.log(Level.WARNING, () -> String.format("truncateIncompleteRecord, logPath={%s}, size={%d}",
+                        logPath, validSize));
+                channel.truncate(end);
+            }
+        }
+    }
+
+    private void trimToMaxEntries() {
+        final Iterator<String> eldest = results.keySet().iterator();
+
+        while (results.size() > maxEntries) {
+            eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Runs the action holding the lock of the sidecar file, so other processes do not change the log meanwhile.
+     */
+    private void runLocked(final LockedAction action) {
+        try (FileChannel lockChannel = FileChannel.open(lockPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            final FileLock lock = lockChannel.lock();
+            try {
+                action.run();
+            } finally {
+                lock.release();
+            }
+
+        } catch (IOException e) {
+            throw fileError(e);
+        }
+    }
+
+    private APIException fileError(final IOException e) {
+        final String errorMsg = String.format("Error to handle the file [%s]", logPath);
+        LOG.log(Level.SEVERE, errorMsg);
+
+        return new APIException(errorMsg, e);
+    }
+
+    private static String hash(final String key) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new APIException("SHA-256 is not available", e);
+        }
+
+        final byte[] bytes = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+        final StringBuilder hash = new StringBuilder(2 * HASH_BYTES);
+
+        for (int i = 0; i < HASH_BYTES; i++) {
+            hash.append(Character.forDigit((bytes[i] >> 4) & 0xF, 16)).append(Character.forDigit(bytes[i] & 0xF, 16));
+        }
+
+        return hash.toString();
+    }
+
+    private interface LockedAction {
+        void run() throws IOException;
+    }
+}
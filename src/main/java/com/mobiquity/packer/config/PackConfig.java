@@ -0,0 +1,99 @@
+package com.mobiquity.packer.config;
+
+import com.mobiquity.exception.APIException;
+
+import java.util.Objects;
+
+/**
+ * The limits applied to each line by {@link com.mobiquity.packer.strategy.PackStrategy}.
+ * <ul>
+ *     <li>{@link #STRICT}: the rules of the challenge, at most 15 products, and weight limit, weights and costs
+ *     up to 100. It is the default.</li>
+ *     <li>extended: larger limits (e.g.: {@link #EXTENDED}, for catalogs with hundreds of products).
+ *     The lines above the strict limits are solved only by the solvers that do not enumerate all combinations,
+ *     see {@link com.mobiquity.packer.solver.SolverSelector#select(com.mobiquity.packer.model.ProductTable, boolean)}.
+ *     </li>
+ * </ul>
+ */
+public class PackConfig {
+
+    public static final PackConfig STRICT = new PackConfig(false, 15, 100, 100);
+
+    public static final PackConfig EXTENDED = new PackConfig(true, 1000, 100_000, 100_000);
+
+    private final boolean isExtended;
+    private final int maxProducts;
+    private final long maxWeightLimit;
+    private final long maxCost;
+
+    private PackConfig(final boolean isExtended, final int maxProducts, final long maxWeightLimit,
+                       final long maxCost) {
+        this.isExtended = isExtended;
+        this.maxProducts = maxProducts;
+        this.maxWeightLimit = maxWeightLimit;
+        this.maxCost = maxCost;
+    }
+
+    /**
+     * Creates an extended configuration with the given limits.
+     *
+     * @param maxProducts    the maximum number of products in a line
+     * @param maxWeightLimit the maximum weight limit of a pack, and weight of a product
+     * @param maxCost        the maximum cost of a product
+     * @return the {@link PackConfig} object
+     * @throws APIException if a limit is lower than the strict one
+     */
+    public static PackConfig extended(final int maxProducts, final long maxWeightLimit, final long maxCost) {
+        if (maxProducts < STRICT.maxProducts || maxWeightLimit < STRICT.maxWeightLimit || maxCost < STRICT.maxCost) {
+            throw new APIException(String.format(
+                    "Extended limits (%d products, weight %d, cost %d) must not be lower than the strict ones",
+                    maxProducts, maxWeightLimit, maxCost));
+        }
+
+        return new PackConfig(true, maxProducts, maxWeightLimit, maxCost);
+    }
+
+    public boolean isExtended() {
+        return isExtended;
+    }
+
+    public int getMaxProducts() {
+        return maxProducts;
+    }
+
+    public long getMaxWeightLimit() {
+        return maxWeightLimit;
+    }
+
+    public long getMaxCost() {
+        return maxCost;
+    }
+
+    @Override
+    public String toString() {
+        return "PackConfig{" +
+                "isExtended=" + isExtended +
+                ", maxProducts=" + maxProducts +
+                ", maxWeightLimit=" + maxWeightLimit +
+                ", maxCost=" + maxCost +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PackConfig that = (PackConfig) o;
+
+        return isExtended == that.isExtended
+                && maxProducts == that.maxProducts
+                && maxWeightLimit == that.maxWeightLimit
+                && maxCost == that.maxCost;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(isExtended, maxProducts, maxWeightLimit, maxCost);
+    }
+}
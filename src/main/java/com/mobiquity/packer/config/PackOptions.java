@@ -0,0 +1,122 @@
+package com.mobiquity.packer.config;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.cache.PackCache;
+import com.mobiquity.packer.cache.PersistentResultCache;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * The options of {@link com.mobiquity.packer.Packer#pack(java.io.InputStream, PackOptions,
+ * java.util.function.Consumer)}. Each option is changed by a {@code with} method, that returns new options,
+ * starting from {@link #DEFAULT}:
+ * <ul>
+ *     <li>pack config: the limits of each line, see {@link PackConfig};</li>
+ *     <li>cache: a {@link PackCache} of solved lines, or a {@link PersistentResultCache} of results, at most one
+ *     of them. The limits of the cache must be the same of the pack config;</li>
+ *     <li>executor and reorder window: the lines are solved in parallel on the executor, with at most
+ *     reorder window lines in progress at the same time, and the results keep the order of the input.
+ *     Without executor, the lines are solved one by one, by the caller thread.</li>
+ * </ul>
+ */
+public class PackOptions {
+
+    public static final PackOptions DEFAULT = new PackOptions(PackConfig.STRICT, null, null, null, 0);
+
+    private final PackConfig packConfig;
+    private final PackCache cache;
+    private final PersistentResultCache resultCache;
+    private final Executor executor;
+    private final int reorderWindow;
+
+    private PackOptions(final PackConfig packConfig, final PackCache cache, final PersistentResultCache resultCache,
+                        final Executor executor, final int reorderWindow) {
+        this.packConfig = packConfig;
+        this.cache = cache;
+        this.resultCache = resultCache;
+        this.executor = executor;
+        this.reorderWindow = reorderWindow;
+    }
+
+    /**
+     * @param newPackConfig the limits of each line, e.g.: {@link PackConfig#EXTENDED}
+     * @return the {@link PackOptions} object
+     */
+    public PackOptions withPackConfig(final PackConfig newPackConfig) {
+        return new PackOptions(Objects.requireNonNull(newPackConfig), cache, resultCache, executor, reorderWindow);
+    }
+
+    /**
+     * @param newCache the cache of solved lines, that can be shared between files and threads.
+     *                 It replaces the {@link PersistentResultCache}, if any
+     * @return the {@link PackOptions} object
+     */
+    public PackOptions withCache(final PackCache newCache) {
+        return new PackOptions(packConfig, Objects.requireNonNull(newCache), null, executor, reorderWindow);
+    }
+
+    /**
+     * @param newResultCache the cache of results, that can be shared between runs and processes.
+     *                       It is flushed at the end of each pack, but not closed. It replaces the {@link PackCache},
+     *                       if any
+     * @return the {@link PackOptions} object
+     */
+    public PackOptions withResultCache(final PersistentResultCache newResultCache) {
+        return new PackOptions(packConfig, null, Objects.requireNonNull(newResultCache), executor, reorderWindow);
+    }
+
+    /**
+     * @param newExecutor      the executor that solves the lines (e.g.: a fixed thread pool, or virtual threads
+     *                         when running on a JDK that supports them)
+     * @param newReorderWindow the maximum number of lines in progress, must be positive
+     * @return the {@link PackOptions} object
+     * @throws APIException if the window is not positive
+     */
+    public PackOptions withExecutor(final Executor newExecutor, final int newReorderWindow) {
+        if (newReorderWindow <= 0) {
+            throw new APIException(String.format("Reorder window (%d) must be positive", newReorderWindow));
+        }
+        return new PackOptions(packConfig, cache, resultCache, Objects.requireNonNull(newExecutor), newReorderWindow);
+    }
+
+    public PackConfig getPackConfig() {
+        return packConfig;
+    }
+
+    /**
+     * @return the cache of solved lines, or null if there is none.
+     */
+    public PackCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return the cache of results, or null if there is none.
+     */
+    public PersistentResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * @return the executor that solves the lines, or null if they are solved by the caller thread.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public int getReorderWindow() {
+        return reorderWindow;
+    }
+
+    @Override
+    public String toString() {
+        return "PackOptions{" +
+                "packConfig=" + packConfig +
+                ", cache=" + cache +
+                ", resultCache=" + resultCache +
+                ", executor=" + executor +
+                ", reorderWindow=" + reorderWindow +
+                '}';
+    }
+}
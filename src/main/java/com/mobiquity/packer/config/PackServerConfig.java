@@ -0,0 +1,232 @@
+package com.mobiquity.packer.config;
+
+import com.mobiquity.exception.APIException;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * The settings of {@link com.mobiquity.packer.PackServer}. Each setting is changed by a {@code with} method,
+ * that returns a new configuration, starting from {@link #DEFAULT}:
+ * <ul>
+ *     <li>port: the port of the server, 0 for any free port;</li>
+ *     <li>handlers: the threads that read the requests and send their results. When all of them are busy and
+ *     as many requests are waiting, the next request is handled by the thread that accepts the connections,
+ *     so no connection is accepted meanwhile;</li>
+ *     <li>workers: the parallelism of the pool that solves the lines;</li>
+ *     <li>max batch lines and batch delay: the lines of concurrent requests are solved in micro-batches of up to
+ *     max batch lines, and a batch waits up to the delay for more lines after its first one;</li>
+ *     <li>max pending lines: the lines received and not answered yet, so the server does not keep more lines
+ *     than it can answer. Each line takes one of them as soon as it is read: a request with more lines is rejected
+ *     with 413, and a request whose lines do not fit in the free ones is rejected with 503;</li>
+ *     <li>max line bytes: the size of each line of a request, so a line is never buffered beyond it. A request with
+ *     a longer line is rejected with 413;</li>
+ *     <li>keep-alive: whether a connection is kept open after a response. How long an idle connection stays open
+ *     is not a setting: the server of the JDK reads it only from the system property
+ *     {@code sun.net.httpserver.idleInterval} (in seconds, 30 by default), once per JVM, so the caller must set
+ *     it before the first server is created;</li>
+ *     <li>pack config: the limits of each line, see {@link PackConfig}.</li>
+ * </ul>
+ */
+public class PackServerConfig {
+
+    public static final PackServerConfig DEFAULT = new PackServerConfig(8080, 64,
+            Runtime.getRuntime().availableProcessors(), 64, Duration.ofMillis(2), 10_000, 64 * 1024,
+            true, PackConfig.STRICT);
+
+    private final int port;
+    private final int handlers;
+    private final int workers;
+    private final int maxBatchLines;
+    private final Duration batchDelay;
+    private final int maxPendingLines;
+    private final int maxLineBytes;
+    private final boolean isKeepAlive;
+    private final PackConfig packConfig;
+
+    private PackServerConfig(final int port, final int handlers, final int workers, final int maxBatchLines,
+                             final Duration batchDelay, final int maxPendingLines, final int maxLineBytes,
+                             final boolean isKeepAlive, final PackConfig packConfig) {
+        this.port = port;
+        this.handlers = handlers;
+        this.workers = workers;
+        this.maxBatchLines = maxBatchLines;
+        this.batchDelay = batchDelay;
+        this.maxPendingLines = maxPendingLines;
+        this.maxLineBytes = maxLineBytes;
+        this.isKeepAlive = isKeepAlive;
+        this.packConfig = packConfig;
+    }
+
+    /**
+     * @param newPort the port of the server, from 0 (any free port) to 65535
+     * @return the {@link PackServerConfig} object
+     * @throws APIException if the port is out of range
+     */
+    public PackServerConfig withPort(final int newPort) {
+        if (newPort < 0 || newPort > 65535) {
+            throw new APIException(String.format("Port (%d) must be between 0 and 65535", newPort));
+        }
+        return new PackServerConfig(newPort, handlers, workers, maxBatchLines, batchDelay, maxPendingLines,
+                maxLineBytes, isKeepAlive, packConfig);
+    }
+
+    /**
+     * @param newHandlers the threads that read the requests and send their results, must be positive
+     * @return the {@link PackServerConfig} object
+     * @throws APIException if the number of handlers is not positive
+     */
+    public PackServerConfig withHandlers(final int newHandlers) {
+        requirePositive("Handlers", newHandlers);
+        return new PackServerConfig(port, newHandlers, workers, maxBatchLines, batchDelay, maxPendingLines,
+                maxLineBytes, isKeepAlive, packConfig);
+    }
+
+    /**
+     * @param newWorkers the parallelism of the pool that solves the lines, must be positive
+     * @return the {@link PackServerConfig} object
+     * @throws APIException if the number of workers is not positive
+     */
+    public PackServerConfig withWorkers(final int newWorkers) {
+        requirePositive("Workers", newWorkers);
+        return new PackServerConfig(port, handlers, newWorkers, maxBatchLines, batchDelay, maxPendingLines,
+                maxLineBytes, isKeepAlive, packConfig);
+    }
+
+    /**
+     * @param newMaxBatchLines the maximum number of lines in a batch, must be positive
+     * @param newBatchDelay    how long a batch waits for more lines after its first one, must not be negative
+     * @return the {@link PackServerConfig} object
+     * @throws APIException if the number of lines is not positive, or the delay is negative
+     */
+    public PackServerConfig withBatch(final int newMaxBatchLines, final Duration newBatchDelay) {
+        requirePositive("Max batch lines", newMaxBatchLines);
+        if (newBatchDelay.isNegative()) {
+            throw new APIException(String.format("Batch delay (%s) must not be negative", newBatchDelay));
+        }
+        return new PackServerConfig(port, handlers, workers, newMaxBatchLines, newBatchDelay, maxPendingLines,
+                maxLineBytes, isKeepAlive, packConfig);
+    }
+
+    /**
+     * @param newMaxPendingLines the maximum number of lines received and not answered yet, must be positive
+     * @return the {@link PackServerConfig} object
+     * @throws APIException if the number of lines is not positive
+     */
+    public PackServerConfig withMaxPendingLines(final int newMaxPendingLines) {
+        requirePositive("Max pending lines", newMaxPendingLines);
+        return new PackServerConfig(port, handlers, workers, maxBatchLines, batchDelay, newMaxPendingLines,
+                maxLineBytes, isKeepAlive, packConfig);
+    }
+
+    /**
+     * @param newMaxLineBytes the maximum size of a line of a request, in bytes of UTF-8 without the line break,
+     *                        must be positive
+     * @return the {@link PackServerConfig} object
+     * @throws APIException if the size is not positive
+     */
+    public PackServerConfig withMaxLineBytes(final int newMaxLineBytes) {
+        requirePositive("Max line bytes", newMaxLineBytes);
+        return new PackServerConfig(port, handlers, workers, maxBatchLines, batchDelay, maxPendingLines,
+                newMaxLineBytes, isKeepAlive, packConfig);
+    }
+
+    /**
+     * @param newKeepAlive false to close the connection after each response
+     * @return the {@link PackServerConfig} object
+     */
+    public PackServerConfig withKeepAlive(final boolean newKeepAlive) {
+        return new PackServerConfig(port, handlers, workers, maxBatchLines, batchDelay, maxPendingLines,
+                maxLineBytes, newKeepAlive, packConfig);
+    }
+
+    /**
+     * @param newPackConfig the limits of each line, e.g.: {@link PackConfig#EXTENDED}
+     * @return the {@link PackServerConfig} object
+     */
+    public PackServerConfig withPackConfig(final PackConfig newPackConfig) {
+        return new PackServerConfig(port, handlers, workers, maxBatchLines, batchDelay, maxPendingLines,
+                maxLineBytes, isKeepAlive, Objects.requireNonNull(newPackConfig));
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getHandlers() {
+        return handlers;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public int getMaxBatchLines() {
+        return maxBatchLines;
+    }
+
+    public Duration getBatchDelay() {
+        return batchDelay;
+    }
+
+    public int getMaxPendingLines() {
+        return maxPendingLines;
+    }
+
+    public int getMaxLineBytes() {
+        return maxLineBytes;
+    }
+
+    public boolean isKeepAlive() {
+        return isKeepAlive;
+    }
+
+    public PackConfig getPackConfig() {
+        return packConfig;
+    }
+
+    private static void requirePositive(final String name, final int value) {
+        if (value <= 0) {
+            throw new APIException(String.format("%s (%d) must be positive", name, value));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PackServerConfig{" +
+                "port=" + port +
+                ", handlers=" + handlers +
+                ", workers=" + workers +
+                ", maxBatchLines=" + maxBatchLines +
+                ", batchDelay=" + batchDelay +
+                ", maxPendingLines=" + maxPendingLines +
+                ", maxLineBytes=" + maxLineBytes +
+                ", isKeepAlive=" + isKeepAlive +
+                ", packConfig=" + packConfig +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PackServerConfig that = (PackServerConfig) o;
+
+        return port == that.port
+                && handlers == that.handlers
+                && workers == that.workers
+                && maxBatchLines == that.maxBatchLines
+                && maxPendingLines == that.maxPendingLines
+                && maxLineBytes == that.maxLineBytes
+                && isKeepAlive == that.isKeepAlive
+                && batchDelay.equals(that.batchDelay)
+                && packConfig.equals(that.packConfig);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(port, handlers, workers, maxBatchLines, batchDelay, maxPendingLines, maxLineBytes,
+                isKeepAlive, packConfig);
+    }
+}
@@ -0,0 +1,401 @@
+package com.mobiquity.packer.converter;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.model.Product;
+
+import java.math.BigDecimal;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hand-written scanner for a line from an input pack file (e.g.: "81 : (1,53.38,€45) (2,88.62,€98)").
+ * It reads the weight limit and each product straight from the characters into primitive fixed-point values
+ * (an unscaled long and its scale, e.g.: 53.38 is 5338 with scale 2), without split, regex, or {@link BigDecimal}.
+ * The products are read one by one with {@link #nextProduct()}, so the line can be validated before them.
+ * The content rules and error messages are the same of {@link PackConverter} and {@link ProductConverter}.
+ * As in {@link BigDecimal}, a weight or cost can have an exponent (e.g.: "1E3" or "5.5e-1"), from -18 to 18,
+ * and is read with a scale that is not negative (e.g.: "1E3" is 1000 with scale 0).
+ */
+public class LineScanner {
+
+    private static final Logger LOG = Logger.getLogger("LineScanner");
+
+    private static final char CONTENT_SEPARATOR = ' ';
+    private static final char PRODUCT_SEPARATOR = ',';
+    private static final char PRODUCT_START = '(';
+    private static final char PRODUCT_END = ')';
+    private static final char CURRENCY = '\u20AC';
+
+    // the highest power of ten that fits in a long
+    private static final int MAX_EXPONENT = 18;
+
+    private final CharSequence line;
+
+    // the end of line, without the trailing separators
+    private final int end;
+
+    private int position;
+
+    private long weightLimit;
+    private int weightLimitScale;
+    private int totalProducts;
+
+    private int index;
+    private long weight;
+    private int weightScale;
+    private long cost;
+    private int costScale;
+
+    // result of the last parseDecimal call
+    private long parsedValue;
+    private int parsedScale;
+    private boolean isParsedInteger;
+
+    private LineScanner(final CharSequence line, final int end) {
+        this.line = line;
+        this.end = end;
+    }
+
+    /**
+     * Reads the weight limit of the line, and counts its products.
+     *
+     * @param line the content from input file (e.g.: "81 : (1,53.38,€45) (2,88.62,€98)")
+     * @return the scanner positioned before the first product, or null if the line is null or blank
+     * @throws APIException if the weight limit is not a number
+     */
+    public static LineScanner scan(final CharSequence line) {
+        if (line == null || isBlank(line)) {
+            return null;
+        }
+
+        int end = line.length();
+        while (end > 0 && line.charAt(end - 1) == CONTENT_SEPARATOR) {
+            end--;
+        }
+
+        final LineScanner scanner = new LineScanner(line, end);
+        scanner.scanHeader();
+        return scanner;
+    }
+
+    /**
+     * Reads one product from a string.
+     *
+     * @param productString the string with product content (e.g.: "(1,53.38,€45)")
+     * @return the {@link Product} object
+     * @throws APIException if the product does not have 3 numbers
+     */
+    public static Product scanProduct(final CharSequence productString) {
+        final LineScanner scanner = new LineScanner(productString, productString.length());
+        scanner.parseProduct(0, productString.length());
+        return scanner.getProduct();
+    }
+
+    /**
+     * Reads the next product of the line, that will be available in the getters (e.g.: {@link #getIndex()}).
+     *
+     * @return true if a product was read, false if there are no more products
+     * @throws APIException if the product does not have 3 numbers
+     */
+    public boolean nextProduct() {
+        if (position >= end) {
+            return false;
+        }
+
+        final int productEnd = findSeparator(position);
+        parseProduct(position, productEnd);
+        position = productEnd + 1;
+
+        return true;
+    }
+
+    /**
+     * Skips the next product of the line, returning its content as is (e.g.: "(1,53.38,€45)").
+     *
+     * @return the product content, or null if there are no more products
+     */
+    public String nextProductAsString() {
+        if (position >= end) {
+            return null;
+        }
+
+        final int productEnd = findSeparator(position);
+        final String productString = line.subSequence(position, productEnd).toString();
+        position = productEnd + 1;
+
+        return productString;
+    }
+
+    public long getWeightLimit() {
+        return weightLimit;
+    }
+
+    public int getWeightLimitScale() {
+        return weightLimitScale;
+    }
+
+    public int getTotalProducts() {
+        return totalProducts;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public int getWeightScale() {
+        return weightScale;
+    }
+
+    public long getCost() {
+        return cost;
+    }
+
+    public int getCostScale() {
+        return costScale;
+    }
+
+    /**
+     * @return the last product read as {@link Product} object.
+     */
+    public Product getProduct() {
+        return new Product(index, BigDecimal.valueOf(weight, weightScale), BigDecimal.valueOf(cost, costScale));
+    }
+
+    /**
+     * The first content is the weight limit, the second is the colon, and the others are the products.
+     */
+    private void scanHeader() {
+        final int weightLimitEnd = findSeparator(0);
+
+        if (!parseDecimal(0, weightLimitEnd, false)) {
+            throw conversionError(0, line.length(), 0, weightLimitEnd);
+        }
+
+        weightLimit = parsedValue;
+        weightLimitScale = parsedScale;
+
+        // skip the colon
+        position = weightLimitEnd >= end ? end : findSeparator(weightLimitEnd + 1) + 1;
+
+        totalProducts = 0;
+        for (int i = position; i < end; i = findSeparator(i) + 1) {
+            totalProducts++;
+        }
+    }
+
+    /**
+     * Reads a product between start and end, ignoring the parenthesis and currency anywhere in it.
+     * As {@link String#split(String)} does, the empty fields at the end are not counted.
+     */
+    private void parseProduct(final int start, final int end) {
+        int totalFields = 1;
+        int lastNonEmptyField = isEmptyField(start, end) ? 0 : 1;
+
+        for (int i = start; i < end; i++) {
+            if (line.charAt(i) == PRODUCT_SEPARATOR) {
+                totalFields++;
+                if (!isEmptyField(i + 1, end)) {
+                    lastNonEmptyField = totalFields;
+                }
+            }
+        }
+
+        final int fieldsQuantity = totalFields == 1 ? 1 : lastNonEmptyField;
+
+        if (fieldsQuantity != 3) {
+            final String errorMsg = String.format("Expected 3 args but got %d, content=\"%s\"",
+                    fieldsQuantity, line.subSequence(start, end));
+            throw new APIException(errorMsg);
+        }
+
+        final int indexEnd = findField(start, end);
+        final int weightEnd = findField(indexEnd + 1, end);
+
+        if (!parseDecimal(start, indexEnd, true) || !isParsedInteger
+                || parsedValue > Integer.MAX_VALUE || parsedValue < Integer.MIN_VALUE) {
+            throw conversionError(start, end, start, indexEnd);
+        }
+        index = (int) parsedValue;
+
+        if (!parseDecimal(indexEnd + 1, weightEnd, true)) {
+            throw conversionError(start, end, indexEnd + 1, weightEnd);
+        }
+        weight = parsedValue;
+        weightScale = parsedScale;
+
+        // the empty fields at the end are ignored
+        final int costEnd = findField(weightEnd + 1, end);
+        if (!parseDecimal(weightEnd + 1, costEnd, true)) {
+            throw conversionError(start, end, weightEnd + 1, costEnd);
+        }
+        cost = parsedValue;
+        costScale = parsedScale;
+    }
+
+    /**
+     * Reads a decimal number (e.g.: "-53.38" or "1E3") into parsedValue and parsedScale.
+     *
+     * @param isProductField if true, the parenthesis and currency are ignored
+     * @return false if it is not a number, or it does not fit in a long
+     */
+    private boolean parseDecimal(final int start, final int end, final boolean isProductField) {
+        long value = 0;
+        int scale = 0;
+        int digits = 0;
+        boolean isNegative = false;
+        boolean hasSign = false;
+        boolean hasPoint = false;
+
+        for (int i = start; i < end; i++) {
+            final char c = line.charAt(i);
+
+            if (isProductField && (c == PRODUCT_START || c == PRODUCT_END || c == CURRENCY)) {
+                continue;
+            }
+
+            if ((c == 'E' || c == 'e') && digits > 0) {
+                return applyExponent(i + 1, end, isProductField, isNegative ? -value : value, scale);
+
+            } else if (c >= '0' && c <= '9') {
+                if (value > (Long.MAX_VALUE - (c - '0')) / 10) {
+                    return false;
+                }
+                value = value * 10 + (c - '0');
+                digits++;
+                scale += hasPoint ? 1 : 0;
+
+            } else if (c == '.' && !hasPoint) {
+                hasPoint = true;
+
+            } else if ((c == '-' || c == '+') && !hasSign && digits == 0 && !hasPoint) {
+                hasSign = true;
+                isNegative = c == '-';
+
+            } else {
+                return false;
+            }
+        }
+
+        if (digits == 0) {
+            return false;
+        }
+
+        parsedValue = isNegative ? -value : value;
+        parsedScale = scale;
+        isParsedInteger = !hasPoint;
+        return true;
+    }
+
+    /**
+     * Reads the exponent after the "E" of a number, and moves it to the scale of the value.
+     * A negative scale is multiplied into the value, so the scale is never negative.
+     *
+     * @return false if the exponent is not an integer from -18 to 18, or the value does not fit in a long
+     */
+    private boolean applyExponent(final int start, final int end, final boolean isProductField, final long value,
+                                  final int scale) {
+        int exponent = 0;
+        int digits = 0;
+        boolean isNegative = false;
+        boolean hasSign = false;
+
+        for (int i = start; i < end; i++) {
+            final char c = line.charAt(i);
+
+            if (isProductField && (c == PRODUCT_START || c == PRODUCT_END || c == CURRENCY)) {
+                continue;
+            }
+
+            if (c >= '0' && c <= '9') {
+                exponent = exponent * 10 + (c - '0');
+                digits++;
+                if (exponent > MAX_EXPONENT) {
+                    return false;
+                }
+
+            } else if ((c == '-' || c == '+') && !hasSign && digits == 0) {
+                hasSign = true;
+                isNegative = c == '-';
+
+            } else {
+                return false;
+            }
+        }
+
+        if (digits == 0) {
+            return false;
+        }
+
+        long fixedPoint = value;
+        int fixedPointScale = scale + (isNegative ? exponent : -exponent);
+
+        for (; fixedPointScale < 0; fixedPointScale++) {
+            if (Math.abs(fixedPoint) > Long.MAX_VALUE / 10) {
+                return false;
+            }
+            fixedPoint *= 10;
+        }
+
+        parsedValue = fixedPoint;
+        parsedScale = fixedPointScale;
+        isParsedInteger = false;
+        return true;
+    }
+
+    /**
+     * The message keeps the content between start and end, as the converters did,
+     * and the cause tells the field that is not a number and its offset in the line.
+     */
+    private APIException conversionError(final int start, final int end, final int fieldStart, final int fieldEnd) {
+        final String errorMsg = String.format("Error to convert string to number, content=\"%s\"",
+                line.subSequence(start, end));
+        LOG.log(Level.SEVERE, errorMsg);
+
+        final NumberFormatException cause = new NumberFormatException(String.format(
+                "For input string: \"%s\" at offset %d", line.subSequence(fieldStart, fieldEnd), fieldStart));
+        return new APIException(errorMsg, cause);
+    }
+
+    private boolean isEmptyField(final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            final char c = line.charAt(i);
+
+            if (c == PRODUCT_SEPARATOR) {
+                return true;
+            }
+            if (c != PRODUCT_START && c != PRODUCT_END && c != CURRENCY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int findField(final int start, final int end) {
+        int i = start;
+        while (i < end && line.charAt(i) != PRODUCT_SEPARATOR) {
+            i++;
+        }
+        return i;
+    }
+
+    private int findSeparator(final int start) {
+        int i = start;
+        while (i < end && line.charAt(i) != CONTENT_SEPARATOR) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isBlank(final CharSequence line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (!Character.isWhitespace(line.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
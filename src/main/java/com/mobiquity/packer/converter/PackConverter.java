@@ -4,8 +4,6 @@ import com.mobiquity.exception.APIException;
 import com.mobiquity.packer.dto.FileContentDto;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -15,8 +13,6 @@ public class PackConverter {
 
     private static final Logger LOG = Logger.getLogger("PackConverter");
 
-    private static final String CONTENT_SEPARATOR = " ";
-
     /**
      * Based on a string that contains a line from an input pack file, converts it into a {@link FileContentDto} object.
      *
@@ -25,28 +21,25 @@ public class PackConverter {
      * @throws APIException if there is an error in converting the string to number
      */
     public static FileContentDto getContentFromLine(final String line) {
-        LOG.info(String.format("BEGIN getContentFromLine, line={%s}", line));
+        LOG.info(() -> String.format("BEGIN getContentFromLine, line={%s}", line));
+
+        final LineScanner scanner = LineScanner.scan(line);
 
-        if (line == null || line.isBlank()) {
+        if (scanner == null) {
             return null;
         }
 
-        try {
-            final String[] lineContent = line.split(CONTENT_SEPARATOR);
-            final BigDecimal weightLimit = new BigDecimal(lineContent[0]);
-
-            // Skip the weightLimit and colon to get only the products
-            final String[] productsAsString = Arrays.copyOfRange(lineContent, 2, lineContent.length);
+        final BigDecimal weightLimit = BigDecimal.valueOf(scanner.getWeightLimit(), scanner.getWeightLimitScale());
 
-            final FileContentDto fileContentDto = new FileContentDto(weightLimit, productsAsString);
-            LOG.info(String.format("END getContentFromLine, fileContent={%s}", fileContentDto));
+        // the weightLimit and colon were already skipped by the scanner, so there are only the products
+        final String[] productsAsString = new String[scanner.getTotalProducts()];
+        for (int i = 0; i < productsAsString.length; i++) {
+            productsAsString[i] = scanner.nextProductAsString();
+        }
 
-            return fileContentDto;
+        final FileContentDto fileContentDto = new FileContentDto(weightLimit, productsAsString);
+        LOG.info(() -> String.format("END getContentFromLine, fileContent={%s}", fileContentDto));
 
-        } catch (NumberFormatException ex) {
-            final String errorMsg = String.format("Error to convert string to number, content=\"%s\"", line);
-            LOG.log(Level.SEVERE, errorMsg);
-            throw new APIException(errorMsg, ex);
-        }
+        return fileContentDto;
     }
 }
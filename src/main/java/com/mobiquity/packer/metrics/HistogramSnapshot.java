@@ -0,0 +1,70 @@
+package com.mobiquity.packer.metrics;
+
+/**
+ * The values of a {@link LatencyHistogram} at some moment, in nanoseconds.
+ * The percentiles are the upper bound of the power of two bucket that contains them.
+ */
+public class HistogramSnapshot {
+
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long max;
+
+    /**
+     * Default class constructor.
+     * @param count the number of values
+     * @param mean  the mean of values
+     * @param p50   the median
+     * @param p90   the 90th percentile
+     * @param p99   the 99th percentile
+     * @param max   the maximum value
+     */
+    public HistogramSnapshot(final long count, final double mean, final long p50, final long p90, final long p99,
+                             final long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot{" +
+                "count=" + count +
+                ", mean=" + mean +
+                ", p50=" + p50 +
+                ", p90=" + p90 +
+                ", p99=" + p99 +
+                ", max=" + max +
+                '}';
+    }
+}
@@ -0,0 +1,79 @@
+package com.mobiquity.packer.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of durations in nanoseconds, with one bucket per power of two,
+ * so a percentile is accurate within a factor of two, and recording a value never allocates.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = Long.SIZE;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param nanos the duration, negative values are recorded as 0.
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(nanos, 0);
+
+        // the bucket b has the values from 2^(b-1) to 2^b - 1, and the bucket 0 has only 0
+        buckets[BUCKETS - Long.numberOfLeadingZeros(value)].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * @return the current values. It is not atomic, a value recorded at the same time may be partially included.
+     */
+    public HistogramSnapshot getSnapshot() {
+        final long[] counts = new long[BUCKETS];
+        long total = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+
+        final double mean = total == 0 ? 0 : (double) sum.sum() / total;
+
+        return new HistogramSnapshot(total, mean, getPercentile(counts, total, 0.5),
+                getPercentile(counts, total, 0.9), getPercentile(counts, total, 0.99), max.get());
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        sum.reset();
+        max.reset();
+    }
+
+    /**
+     * @return the upper bound of the bucket that contains the percentile.
+     */
+    private static long getPercentile(final long[] counts, final long total, final double percentile) {
+        final long rank = (long) Math.ceil(percentile * total);
+        long cumulative = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += counts[i];
+
+            if (cumulative >= rank && counts[i] > 0) {
+                return i == 0 ? 0 : (i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1);
+            }
+        }
+
+        return 0;
+    }
+}
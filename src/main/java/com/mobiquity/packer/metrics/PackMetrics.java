@@ -0,0 +1,87 @@
+package com.mobiquity.packer.metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of the {@link PackMetricsListener}s, used by the strategy and the solvers to report their measures.
+ * While no listener is registered, {@link #nanoTime()} returns 0 and the measures are not reported,
+ * so the cost of the instrumentation is a check of an empty list.
+ */
+public class PackMetrics {
+
+    private static final List<PackMetricsListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private PackMetrics() {
+    }
+
+    public static void addListener(final PackMetricsListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(final PackMetricsListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * @return true if there is any listener.
+     */
+    public static boolean isEnabled() {
+        return !LISTENERS.isEmpty();
+    }
+
+    /**
+     * @return {@link System#nanoTime()} if there is any listener, otherwise 0.
+     */
+    public static long nanoTime() {
+        return isEnabled() ? System.nanoTime() : 0;
+    }
+
+    public static void lineParsed(final long nanos) {
+        for (PackMetricsListener listener : LISTENERS) {
+            listener.onLineParsed(nanos);
+        }
+    }
+
+    public static void lineValidated(final long nanos) {
+        for (PackMetricsListener listener : LISTENERS) {
+            listener.onLineValidated(nanos);
+        }
+    }
+
+    public static void lineRejected() {
+        for (PackMetricsListener listener : LISTENERS) {
+            listener.onLineRejected();
+        }
+    }
+
+    public static void productFiltered() {
+        for (PackMetricsListener listener : LISTENERS) {
+            listener.onProductFiltered();
+        }
+    }
+
+    public static void lineReduced(final int removedProducts, final int fixedProducts) {
+        for (PackMetricsListener listener : LISTENERS) {
+            listener.onLineReduced(removedProducts, fixedProducts);
+        }
+    }
+
+    public static void lineSolved(final String solverName, final long nanos) {
+        for (PackMetricsListener listener : LISTENERS) {
+            listener.onLineSolved(solverName, nanos);
+        }
+    }
+
+    public static void combinationsEvaluated(final String solverName, final long combinations) {
+        for (PackMetricsListener listener : LISTENERS) {
+            listener.onCombinationsEvaluated(solverName, combinations);
+        }
+    }
+
+    public static void lineCompleted(final long nanos) {
+        for (PackMetricsListener listener : LISTENERS) {
+            listener.onLineCompleted(nanos);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.mobiquity.packer.metrics;
+
+import com.mobiquity.exception.APIException;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Built-in {@link PackMetricsListener}, that keeps counters and {@link LatencyHistogram}s of all lines,
+ * and exposes them through JMX (see {@link #register()}), so a local collector can read them without
+ * any dependency.
+ */
+public class PackMetricsCollector implements PackMetricsListener, PackMetricsCollectorMXBean {
+
+    /**
+     * The name used by {@link #register()}.
+     */
+    public static final String OBJECT_NAME = "com.mobiquity.packer:type=PackMetrics";
+
+    private final LongAdder linesParsed = new LongAdder();
+    private final LongAdder linesRejected = new LongAdder();
+    private final LongAdder productsFiltered = new LongAdder();
+    private final LongAdder productsRemoved = new LongAdder();
+    private final LongAdder productsFixed = new LongAdder();
+
+    private final LatencyHistogram parseTime = new LatencyHistogram();
+    private final LatencyHistogram validationTime = new LatencyHistogram();
+    private final LatencyHistogram lineTime = new LatencyHistogram();
+
+    private final Map<String, LatencyHistogram> solverTime = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> combinationsEvaluated = new ConcurrentHashMap<>();
+
+    /**
+     * Adds this collector to {@link PackMetrics} and registers it in the platform MBean server as {@link #OBJECT_NAME}.
+     * @throws APIException if there is already an MBean with the same name
+     */
+    public void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            throw new APIException(String.format("Error to register the MBean [%s]", OBJECT_NAME), e);
+        }
+        PackMetrics.addListener(this);
+    }
+
+    /**
+     * Removes this collector from {@link PackMetrics} and from the platform MBean server.
+     */
+    public void unregister() {
+        PackMetrics.removeListener(this);
+
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new APIException(String.format("Error to unregister the MBean [%s]", OBJECT_NAME), e);
+        }
+    }
+
+    @Override
+    public void onLineParsed(final long nanos) {
+        linesParsed.increment();
+        parseTime.record(nanos);
+    }
+
+    @Override
+    public void onLineValidated(final long nanos) {
+        validationTime.record(nanos);
+    }
+
+    @Override
+    public void onLineRejected() {
+        linesRejected.increment();
+    }
+
+    @Override
+    public void onProductFiltered() {
+        productsFiltered.increment();
+    }
+
+    @Override
+    public void onLineReduced(final int removedProducts, final int fixedProducts) {
+        productsRemoved.add(removedProducts);
+        productsFixed.add(fixedProducts);
+    }
+
+    @Override
+    public void onLineSolved(final String solverName, final long nanos) {
+        solverTime.computeIfAbsent(solverName, name -> new LatencyHistogram()).record(nanos);
+    }
+
+    @Override
+    public void onCombinationsEvaluated(final String solverName, final long combinations) {
+        combinationsEvaluated.computeIfAbsent(solverName, name -> new LongAdder()).add(combinations);
+    }
+
+    @Override
+    public void onLineCompleted(final long nanos) {
+        lineTime.record(nanos);
+    }
+
+    @Override
+    public long getLinesParsed() {
+        return linesParsed.sum();
+    }
+
+    @Override
+    public long getLinesRejected() {
+        return linesRejected.sum();
+    }
+
+    @Override
+    public long getProductsFiltered() {
+        return productsFiltered.sum();
+    }
+
+    @Override
+    public long getProductsRemoved() {
+        return productsRemoved.sum();
+    }
+
+    @Override
+    public long getProductsFixed() {
+        return productsFixed.sum();
+    }
+
+    @Override
+    public HistogramSnapshot getParseTime() {
+        return parseTime.getSnapshot();
+    }
+
+    @Override
+    public HistogramSnapshot getValidationTime() {
+        return validationTime.getSnapshot();
+    }
+
+    @Override
+    public HistogramSnapshot getLineTime() {
+        return lineTime.getSnapshot();
+    }
+
+    @Override
+    public Map<String, HistogramSnapshot> getSolverTime() {
+        final Map<String, HistogramSnapshot> snapshots = new TreeMap<>();
+        solverTime.forEach((name, histogram) -> snapshots.put(name, histogram.getSnapshot()));
+        return snapshots;
+    }
+
+    @Override
+    public Map<String, Long> getCombinationsEvaluated() {
+        final Map<String, Long> totals = new TreeMap<>();
+        combinationsEvaluated.forEach((name, total) -> totals.put(name, total.sum()));
+        return totals;
+    }
+
+    @Override
+    public void reset() {
+        linesParsed.reset();
+        linesRejected.reset();
+        productsFiltered.reset();
+        productsRemoved.reset();
+        productsFixed.reset();
+        parseTime.reset();
+        validationTime.reset();
+        lineTime.reset();
+        solverTime.clear();
+        combinationsEvaluated.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "PackMetricsCollector{" +
+                "linesParsed=" + getLinesParsed() +
+                ", linesRejected=" + getLinesRejected() +
+                ", productsFiltered=" + getProductsFiltered() +
+                ", productsRemoved=" + getProductsRemoved() +
+                ", productsFixed=" + getProductsFixed() +
+                ", parseTime=" + getParseTime() +
+                ", validationTime=" + getValidationTime() +
+                ", lineTime=" + getLineTime() +
+                ", solverTime=" + getSolverTime() +
+                ", combinationsEvaluated=" + getCombinationsEvaluated() +
+                '}';
+    }
+}
@@ -0,0 +1,37 @@
+package com.mobiquity.packer.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link PackMetricsCollector}. The times are in nanoseconds.
+ */
+public interface PackMetricsCollectorMXBean {
+
+    long getLinesParsed();
+
+    long getLinesRejected();
+
+    long getProductsFiltered();
+
+    long getProductsRemoved();
+
+    long getProductsFixed();
+
+    HistogramSnapshot getParseTime();
+
+    HistogramSnapshot getValidationTime();
+
+    HistogramSnapshot getLineTime();
+
+    /**
+     * @return the time to solve a line, by solver name.
+     */
+    Map<String, HistogramSnapshot> getSolverTime();
+
+    /**
+     * @return the total of combinations, cells or nodes checked, by solver name.
+     */
+    Map<String, Long> getCombinationsEvaluated();
+
+    void reset();
+}
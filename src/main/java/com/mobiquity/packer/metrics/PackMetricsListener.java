@@ -0,0 +1,61 @@
+package com.mobiquity.packer.metrics;
+
+/**
+ * Receives the measures of each line solved by {@link com.mobiquity.packer.strategy.PackStrategy}.
+ * The listeners are registered in {@link PackMetrics}, and are called by the thread that solves the line,
+ * so they must be thread-safe, fast, and must not throw.
+ * All methods do nothing by default, so a listener implements only the measures it needs.
+ */
+public interface PackMetricsListener {
+
+    /**
+     * @param nanos the time to read the weight limit and the products of a line, without the validation.
+     */
+    default void onLineParsed(final long nanos) {
+    }
+
+    /**
+     * @param nanos the time to validate the weight limit, the number of products and each product of a line.
+     */
+    default void onLineValidated(final long nanos) {
+    }
+
+    /**
+     * Called when the weight limit or the number of products of a line is not valid, so it has no result.
+     */
+    default void onLineRejected() {
+    }
+
+    /**
+     * Called for each product ignored because its weight or cost is not valid.
+     */
+    default void onProductFiltered() {
+    }
+
+    /**
+     * @param removedProducts the number of products removed by the reduction of a line, before the solver.
+     * @param fixedProducts   the number of products fixed in the pack by the reduction of a line.
+     */
+    default void onLineReduced(final int removedProducts, final int fixedProducts) {
+    }
+
+    /**
+     * @param solverName the name of the solver (see {@link com.mobiquity.packer.solver.PackSolver#getName()}).
+     * @param nanos      the time to solve the line.
+     */
+    default void onLineSolved(final String solverName, final long nanos) {
+    }
+
+    /**
+     * @param solverName   the name of the solver.
+     * @param combinations the number of combinations, cells or nodes the solver checked for a line.
+     */
+    default void onCombinationsEvaluated(final String solverName, final long combinations) {
+    }
+
+    /**
+     * @param nanos the total time of a line, from parsing to the pack.
+     */
+    default void onLineCompleted(final long nanos) {
+    }
+}
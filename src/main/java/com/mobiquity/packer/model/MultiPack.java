@@ -0,0 +1,85 @@
+package com.mobiquity.packer.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The MultiPack entity: many boxes filled from the same products, each product in at most one {@link Pack}.
+ */
+public class MultiPack {
+
+    private final List<Pack> packs;
+
+    private final BigDecimal totalWeight;
+
+    private final BigDecimal totalCost;
+
+    private final boolean isOptimal;
+
+    /**
+     * Default class constructor
+     * @param packs     the {@link Pack} of each box, in the order of the weight limits
+     * @param isOptimal true if the search finished, false if it was stopped by the time budget
+     */
+    public MultiPack(final List<Pack> packs, final boolean isOptimal) {
+        this.packs = packs;
+        this.totalWeight = packs.stream().map(Pack::getTotalWeight).reduce(BigDecimal.ZERO, BigDecimal::add);
+        this.totalCost = packs.stream().map(Pack::getTotalCost).reduce(BigDecimal.ZERO, BigDecimal::add);
+        this.isOptimal = isOptimal;
+    }
+
+    public List<Pack> getPacks() {
+        return packs;
+    }
+
+    /**
+     * @return the sum of {@link Pack#getTotalWeight()} of all boxes.
+     */
+    public BigDecimal getTotalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * @return the sum of {@link Pack#getTotalCost()} of all boxes.
+     */
+    public BigDecimal getTotalCost() {
+        return totalCost;
+    }
+
+    /**
+     * @return true if no other assignment of the products has a higher total cost, or the same cost and a lower
+     * total weight.
+     */
+    public boolean isOptimal() {
+        return isOptimal;
+    }
+
+    @Override
+    public String toString() {
+        return "MultiPack{" +
+                "packs=" + packs +
+                ", totalWeight=" + totalWeight +
+                ", totalCost=" + totalCost +
+                ", isOptimal=" + isOptimal +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        MultiPack multiPack = (MultiPack) o;
+
+        if (isOptimal != multiPack.isOptimal) return false;
+        return Objects.equals(packs, multiPack.packs);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = packs != null ? packs.hashCode() : 0;
+        result = 31 * result + (isOptimal ? 1 : 0);
+        return result;
+    }
+}
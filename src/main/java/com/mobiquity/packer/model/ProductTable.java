@@ -0,0 +1,363 @@
+package com.mobiquity.packer.model;
+
+import com.mobiquity.exception.APIException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compact representation of the products of a line, used by the solvers instead of {@link Product} and {@link Pack}.
+ * The weights and costs are kept in parallel arrays of fixed-point values, all of them in the same scale
+ * (hundredths, or more if some value needs it), so a sum is exact and does not allocate.
+ * A selection of products is a {@link BitSet}, where the bit i is set when the product in position i is selected.
+ * The {@link Pack} and its {@link Product}s are created only for the final selection, see {@link #createPack(BitSet)}.
+ */
+public class ProductTable {
+
+    /**
+     * The minimum scale of the table, so the values in hundredths are compared as integers.
+     */
+    public static final int HUNDREDTHS = 2;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final long weightLimit;
+    private final int weightLimitScale;
+
+    private int scale = HUNDREDTHS;
+    private int size;
+
+    private int[] indexes = new int[INITIAL_CAPACITY];
+    private long[] weights = new long[INITIAL_CAPACITY];
+    private long[] costs = new long[INITIAL_CAPACITY];
+
+    // the scale of each value as read from the line, to create the same BigDecimal of the input
+    private int[] weightScales = new int[INITIAL_CAPACITY];
+    private int[] costScales = new int[INITIAL_CAPACITY];
+
+    /**
+     * Default class constructor.
+     * @param weightLimit      the unscaled weight limit (e.g.: 8165 for 81.65)
+     * @param weightLimitScale the scale of weight limit (e.g.: 2 for 81.65)
+     */
+    public ProductTable(final long weightLimit, final int weightLimitScale) {
+        this.weightLimit = weightLimit;
+        this.weightLimitScale = weightLimitScale;
+    }
+
+    /**
+     * Creates a table with the given products.
+     * @param weightLimit the weight limit of the pack
+     * @param products    the products of the table
+     * @return the {@link ProductTable} object
+     */
+    public static ProductTable of(final BigDecimal weightLimit, final List<Product> products) {
+        final ProductTable table = new ProductTable(weightLimit.unscaledValue().longValueExact(), weightLimit.scale());
+
+        for (Product product : products) {
+            table.add(product.getIndex(),
+                    product.getWeight().unscaledValue().longValueExact(), product.getWeight().scale(),
+                    product.getCost().unscaledValue().longValueExact(), product.getCost().scale());
+        }
+
+        return table;
+    }
+
+    /**
+     * Creates a table with some products of this one, and a lower weight limit.
+     * The products keep their values and scales, so {@link #getProduct(int)} returns the same product.
+     *
+     * @param positions the positions of products in this table, in the order of the new table
+     * @param capacity  the weight limit of the new table, in the scale of this table
+     * @return the {@link ProductTable} object
+     */
+    public ProductTable subTable(final int[] positions, final long capacity) {
+        final ProductTable table = new ProductTable(capacity, scale);
+        table.scale = scale;
+        table.ensureCapacity(positions.length);
+
+        for (int position : positions) {
+            table.indexes[table.size] = indexes[position];
+            table.weights[table.size] = weights[position];
+            table.costs[table.size] = costs[position];
+            table.weightScales[table.size] = weightScales[position];
+            table.costScales[table.size] = costScales[position];
+            table.size++;
+        }
+
+        return table;
+    }
+
+    /**
+     * Adds a product to the table. If there is already a product with the same index, it is replaced.
+     *
+     * @param index       the index of product
+     * @param weight      the unscaled weight (e.g.: 5338 for 53.38)
+     * @param weightScale the scale of weight (e.g.: 2 for 53.38)
+     * @param cost        the unscaled cost
+     * @param costScale   the scale of cost
+     * @throws APIException if the precision of values does not fit in the table
+     */
+    public void add(final int index, final long weight, final int weightScale, final long cost, final int costScale) {
+        increaseScale(Math.max(weightScale, costScale));
+
+        int position = 0;
+        while (position < size && indexes[position] != index) {
+            position++;
+        }
+
+        if (position == size) {
+            ensureCapacity(size + 1);
+            size++;
+        }
+
+        indexes[position] = index;
+        weights[position] = rescale(weight, weightScale, scale);
+        costs[position] = rescale(cost, costScale, scale);
+        weightScales[position] = weightScale;
+        costScales[position] = costScale;
+    }
+
+    /**
+     * Removes the product in the position, the products after it move one position back.
+     * The scale of the table is kept.
+     *
+     * @param position the position of product
+     */
+    public void remove(final int position) {
+        final int moved = size - position - 1;
+
+        System.arraycopy(indexes, position + 1, indexes, position, moved);
+        System.arraycopy(weights, position + 1, weights, position, moved);
+        System.arraycopy(costs, position + 1, costs, position, moved);
+        System.arraycopy(weightScales, position + 1, weightScales, position, moved);
+        System.arraycopy(costScales, position + 1, costScales, position, moved);
+        size--;
+    }
+
+    /**
+     * @param index the index of product
+     * @return the position of the product with the index, or -1 if there is none.
+     */
+    public int getPosition(final int index) {
+        for (int position = 0; position < size; position++) {
+            if (indexes[position] == index) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Creates a table with the same products, and another weight limit.
+     *
+     * @param newWeightLimit      the unscaled weight limit (e.g.: 8165 for 81.65)
+     * @param newWeightLimitScale the scale of weight limit (e.g.: 2 for 81.65)
+     * @return the {@link ProductTable} object
+     */
+    public ProductTable withWeightLimit(final long newWeightLimit, final int newWeightLimitScale) {
+        final ProductTable table = new ProductTable(newWeightLimit, newWeightLimitScale);
+        table.scale = scale;
+        table.size = size;
+        table.indexes = Arrays.copyOf(indexes, size);
+        table.weights = Arrays.copyOf(weights, size);
+        table.costs = Arrays.copyOf(costs, size);
+        table.weightScales = Arrays.copyOf(weightScales, size);
+        table.costScales = Arrays.copyOf(costScales, size);
+        return table;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the scale of all weights and costs in this table.
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * @return true if all weights and costs are in hundredths.
+     */
+    public boolean isInHundredths() {
+        return scale == HUNDREDTHS;
+    }
+
+    /**
+     * A sum of weights in the table scale fits the limit only when it fits the limit rounded down to this scale.
+     * @return the weight limit in the table scale, rounded down.
+     * @throws APIException if the weight limit does not fit in the table scale
+     */
+    public long getCapacity() {
+        final BigDecimal capacity = getWeightLimit().setScale(scale, RoundingMode.FLOOR);
+
+        if (capacity.unscaledValue().bitLength() >= Long.SIZE) {
+            throw new APIException(String.format("Precision of value (%s) exceeded the limit",
+                    getWeightLimit().toPlainString()));
+        }
+
+        return capacity.unscaledValue().longValue();
+    }
+
+    /**
+     * @return the weights of products in the table scale. The array must not be changed.
+     */
+    public long[] getWeights() {
+        trimToSize();
+        return weights;
+    }
+
+    /**
+     * @return the costs of products in the table scale. The array must not be changed.
+     */
+    public long[] getCosts() {
+        trimToSize();
+        return costs;
+    }
+
+    public int getIndex(final int position) {
+        return indexes[position];
+    }
+
+    public BigDecimal getWeightLimit() {
+        return BigDecimal.valueOf(weightLimit, weightLimitScale);
+    }
+
+    /**
+     * @return the weight of product, with the same scale as read from the line.
+     */
+    public BigDecimal getWeight(final int position) {
+        return BigDecimal.valueOf(weights[position], scale).setScale(weightScales[position]);
+    }
+
+    /**
+     * @return the cost of product, with the same scale as read from the line.
+     */
+    public BigDecimal getCost(final int position) {
+        return BigDecimal.valueOf(costs[position], scale).setScale(costScales[position]);
+    }
+
+    public Product getProduct(final int position) {
+        return new Product(indexes[position], getWeight(position), getCost(position));
+    }
+
+    /**
+     * @return the sum of weights of the selected products, in the table scale.
+     */
+    public long getTotalWeight(final BitSet selection) {
+        long totalWeight = 0;
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            totalWeight += weights[i];
+        }
+        return totalWeight;
+    }
+
+    /**
+     * @return the sum of costs of the selected products, in the table scale.
+     */
+    public long getTotalCost(final BitSet selection) {
+        long totalCost = 0;
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            totalCost += costs[i];
+        }
+        return totalCost;
+    }
+
+    /**
+     * @return a selection with all products of the table.
+     */
+    public BitSet selectAll() {
+        final BitSet selection = new BitSet(size);
+        selection.set(0, size);
+        return selection;
+    }
+
+    /**
+     * Creates the {@link Pack} with the selected products, summing their weights and costs as {@link BigDecimal}.
+     * @param selection the positions of selected products
+     * @return the {@link Pack} object
+     */
+    public Pack createPack(final BitSet selection) {
+        final Set<Product> products = new HashSet<>();
+        BigDecimal totalWeight = BigDecimal.ZERO;
+        BigDecimal totalCost = BigDecimal.ZERO;
+
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            final Product product = getProduct(i);
+
+            totalWeight = totalWeight.add(product.getWeight());
+            totalCost = totalCost.add(product.getCost());
+
+            products.add(product);
+        }
+
+        return new Pack(getWeightLimit(), products, totalWeight, totalCost);
+    }
+
+    @Override
+    public String toString() {
+        return "ProductTable{" +
+                "weightLimit=" + getWeightLimit() +
+                ", scale=" + scale +
+                ", indexes=" + Arrays.toString(Arrays.copyOf(indexes, size)) +
+                ", weights=" + Arrays.toString(Arrays.copyOf(weights, size)) +
+                ", costs=" + Arrays.toString(Arrays.copyOf(costs, size)) +
+                '}';
+    }
+
+    private void increaseScale(final int newScale) {
+        if (newScale <= scale) {
+            return;
+        }
+
+        for (int i = 0; i < size; i++) {
+            weights[i] = rescale(weights[i], scale, newScale);
+            costs[i] = rescale(costs[i], scale, newScale);
+        }
+
+        scale = newScale;
+    }
+
+    private static long rescale(final long value, final int fromScale, final int toScale) {
+        long result = value;
+
+        try {
+            for (int i = fromScale; i < toScale; i++) {
+                result = Math.multiplyExact(result, 10);
+            }
+        } catch (ArithmeticException ex) {
+            throw new APIException(String.format("Precision of value (%d) exceeded the limit", value), ex);
+        }
+
+        return result;
+    }
+
+    private void ensureCapacity(final int minCapacity) {
+        if (minCapacity > indexes.length) {
+            final int newCapacity = Math.max(minCapacity, indexes.length * 2);
+
+            indexes = Arrays.copyOf(indexes, newCapacity);
+            weights = Arrays.copyOf(weights, newCapacity);
+            costs = Arrays.copyOf(costs, newCapacity);
+            weightScales = Arrays.copyOf(weightScales, newCapacity);
+            costScales = Arrays.copyOf(costScales, newCapacity);
+        }
+    }
+
+    private void trimToSize() {
+        if (weights.length != size) {
+            indexes = Arrays.copyOf(indexes, size);
+            weights = Arrays.copyOf(weights, size);
+            costs = Arrays.copyOf(costs, size);
+            weightScales = Arrays.copyOf(weightScales, size);
+            costScales = Arrays.copyOf(costScales, size);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.mobiquity.packer.model;
+
+import java.util.Objects;
+
+/**
+ * The TimedPack entity: the better {@link Pack} found within a time budget, and whether it is proven the best one.
+ */
+public class TimedPack {
+
+    private final Pack pack;
+
+    private final boolean isOptimal;
+
+    /**
+     * Default class constructor
+     * @param pack      the better {@link Pack} found
+     * @param isOptimal true if the search finished, false if it was stopped by the time budget
+     */
+    public TimedPack(final Pack pack, final boolean isOptimal) {
+        this.pack = pack;
+        this.isOptimal = isOptimal;
+    }
+
+    public Pack getPack() {
+        return pack;
+    }
+
+    /**
+     * @return true if no other pack has a higher total cost, or the same cost and a lower total weight.
+     */
+    public boolean isOptimal() {
+        return isOptimal;
+    }
+
+    @Override
+    public String toString() {
+        return "TimedPack{" +
+                "pack=" + pack +
+                ", isOptimal=" + isOptimal +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        TimedPack timedPack = (TimedPack) o;
+
+        if (isOptimal != timedPack.isOptimal) return false;
+        return Objects.equals(pack, timedPack.pack);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = pack != null ? pack.hashCode() : 0;
+        result = 31 * result + (isOptimal ? 1 : 0);
+        return result;
+    }
+}
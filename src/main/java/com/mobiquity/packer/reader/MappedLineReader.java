@@ -0,0 +1,195 @@
+package com.mobiquity.packer.reader;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Reads the lines of a file by memory-mapping it, region by region.
+ * The line boundaries are found in the raw UTF-8 bytes, and each line is decoded into a reused char buffer,
+ * so no {@link String} is created per line. The lines are split by "\n" or "\r\n", and the last line does not need
+ * a line break. Unlike {@link java.io.BufferedReader#readLine()}, a lone "\r" is not a line break: it is kept
+ * in the line.
+ */
+public class MappedLineReader {
+
+    private static final Logger LOG = Logger.getLogger("MappedLineReader");
+
+    private static final long DEFAULT_REGION_SIZE = 64L * 1024 * 1024;
+
+    private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+    private MappedLineReader() {
+    }
+
+    /**
+     * Reads all lines of the file, giving each one to the listener.
+     * The {@link CharSequence} is reused for the next line, so it must not be kept after the listener returns.
+     *
+     * @param path         the path of the file, in UTF-8
+     * @param lineListener called with each line, without the line break
+     * @return the number of lines read
+     * @throws IOException if the file cannot be read
+     */
+    public static long readLines(final Path path, final Consumer<CharSequence> lineListener) throws IOException {
+        return readLines(path, DEFAULT_REGION_SIZE, lineListener);
+    }
+
+    static long readLines(final Path path, final long regionSize, final Consumer<CharSequence> lineListener)
+            throws IOException {
+        LOG.info(() -> String.format("BEGIN readLines, path={%s}", path));
+
+        final LineBuffer line = new LineBuffer();
+        long totalLines = 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+
+            for (long offset = 0; offset < size; offset += regionSize) {
+                final int length = (int) Math.min(regionSize, size - offset);
+                final MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+
+                // a line, or even a character, can continue in the next region, so the buffer is kept between them
+                for (int i = 0; i < length; i++) {
+                    final byte b = region.get(i);
+
+                    if (b == '\n') {
+                        line.finishLine();
+                        lineListener.accept(line);
+                        line.clear();
+                        totalLines++;
+                    } else {
+                        line.decode(b);
+                    }
+                }
+            }
+        }
+
+        // the last line does not need a line break
+        if (line.hasBytes()) {
+            line.finishLine();
+            lineListener.accept(line);
+            totalLines++;
+        }
+
+        final long readLines = totalLines;
+        LOG.info(() -> String.format("END readLines, totalLines={%d}", readLines));
+        return readLines;
+    }
+
+    /**
+     * A reusable {@link CharSequence}, that decodes UTF-8 one byte at a time.
+     * Malformed bytes are replaced by U+FFFD, as {@link java.io.InputStreamReader} does.
+     */
+    private static class LineBuffer implements CharSequence {
+
+        private char[] chars = new char[256];
+        private int length;
+
+        // the code point being decoded, and how many continuation bytes are still missing
+        private int codePoint;
+        private int missingBytes;
+
+        // true when the line has some byte, even if it is not a complete character yet
+        private boolean hasBytes;
+
+        private void decode(final byte b) {
+            hasBytes = true;
+
+            if (missingBytes > 0) {
+                if ((b & 0xC0) == 0x80) {
+                    codePoint = (codePoint << 6) | (b & 0x3F);
+                    if (--missingBytes == 0) {
+                        appendCodePoint(codePoint);
+                    }
+                    return;
+                }
+
+                // the character was interrupted, so it is replaced and this byte starts a new one
+                missingBytes = 0;
+                append(REPLACEMENT_CHARACTER);
+            }
+
+            if (b >= 0) {
+                append((char) b);
+            } else if ((b & 0xE0) == 0xC0) {
+                codePoint = b & 0x1F;
+                missingBytes = 1;
+            } else if ((b & 0xF0) == 0xE0) {
+                codePoint = b & 0x0F;
+                missingBytes = 2;
+            } else if ((b & 0xF8) == 0xF0) {
+                codePoint = b & 0x07;
+                missingBytes = 3;
+            } else {
+                append(REPLACEMENT_CHARACTER);
+            }
+        }
+
+        /**
+         * Replaces an incomplete character at the end, and removes the "\r" of a "\r\n" line break.
+         */
+        private void finishLine() {
+            if (missingBytes > 0) {
+                missingBytes = 0;
+                append(REPLACEMENT_CHARACTER);
+            }
+
+            if (length > 0 && chars[length - 1] == '\r') {
+                length--;
+            }
+        }
+
+        private void clear() {
+            length = 0;
+            hasBytes = false;
+        }
+
+        private boolean hasBytes() {
+            return hasBytes;
+        }
+
+        private void appendCodePoint(final int value) {
+            if (Character.isBmpCodePoint(value)) {
+                append((char) value);
+            } else if (Character.isValidCodePoint(value)) {
+                append(Character.highSurrogate(value));
+                append(Character.lowSurrogate(value));
+            } else {
+                append(REPLACEMENT_CHARACTER);
+            }
+        }
+
+        private void append(final char c) {
+            if (length == chars.length) {
+                chars = Arrays.copyOf(chars, chars.length * 2);
+            }
+            chars[length++] = c;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return new String(chars, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+}
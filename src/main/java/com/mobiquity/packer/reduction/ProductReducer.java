@@ -0,0 +1,217 @@
+package com.mobiquity.packer.reduction;
+
+import com.mobiquity.packer.model.ProductTable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.logging.Logger;
+
+/**
+ * Reduces a {@link ProductTable} before it is given to a solver, without changing the cost and the weight
+ * of the better pack: the highest cost, then the lowest weight, as
+ * {@link com.mobiquity.packer.comparator.PackComparator}.
+ * <ul>
+ *     <li>A product without cost is removed, it only adds weight.</li>
+ *     <li>A product is removed when it cannot be in the pack together with all products that dominate it.
+ *     A product dominates another when it is not heavier and not cheaper, and it is lighter, more expensive,
+ *     or the same with a lower index. A better pack with the dominated product would have all of them,
+ *     otherwise one of them could take its place. So only as many copies of the same product as fit are kept.</li>
+ *     <li>A product is fixed in the pack when the packs without it cannot reach the cost of a pack found greedily,
+ *     and removed when the packs with it cannot. The cost of those packs is bounded by filling the remaining weight
+ *     with fractions of products, in the order of cost by weight.</li>
+ * </ul>
+ * A table with a negative weight or cost is not reduced.
+ */
+public class ProductReducer {
+
+    private static final Logger LOG = Logger.getLogger("ProductReducer");
+
+    private ProductReducer() {
+    }
+
+    /**
+     * @param table the products of the line, after the validation
+     * @return the {@link Reduction} with the fixed products, and the table of the products that need a solver
+     */
+    public static Reduction reduce(final ProductTable table) {
+        LOG.info(() -> String.format("BEGIN reduce, totalProducts={%d}", table.size()));
+
+        final int totalProducts = table.size();
+        final long[] weights = table.getWeights();
+        final long[] costs = table.getCosts();
+        final long capacity = table.getCapacity();
+
+        final BitSet removed = new BitSet(totalProducts);
+        final BitSet fixed = new BitSet(totalProducts);
+
+        if (!hasNegativeValue(weights, costs)) {
+            removeWithoutCost(costs, removed);
+            removeDominated(table, weights, costs, capacity, removed);
+            fixByBound(weights, costs, capacity, removed, fixed);
+        }
+
+        final int[] positions = new int[totalProducts - removed.cardinality() - fixed.cardinality()];
+        long remainingCapacity = capacity;
+
+        for (int i = 0, p = 0; i < totalProducts; i++) {
+            if (fixed.get(i)) {
+                remainingCapacity -= weights[i];
+            } else if (!removed.get(i)) {
+                positions[p++] = i;
+            }
+        }
+
+        final Reduction reduction = new Reduction(table.subTable(positions, remainingCapacity), positions, fixed);
+        LOG.info(() -> String.format("END reduce, removedProducts={%d}, fixedProducts={%s}",
+                removed.cardinality(), fixed));
+        return reduction;
+    }
+
+    private static boolean hasNegativeValue(final long[] weights, final long[] costs) {
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0 || costs[i] < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void removeWithoutCost(final long[] costs, final BitSet removed) {
+        for (int i = 0; i < costs.length; i++) {
+            if (costs[i] == 0) {
+                removed.set(i);
+            }
+        }
+    }
+
+    private static void removeDominated(final ProductTable table, final long[] weights, final long[] costs,
+                                        final long capacity, final BitSet removed) {
+        // the dominance is checked against all products, so each decision does not depend on the previous ones
+        for (int j = 0; j < weights.length; j++) {
+            if (removed.get(j)) {
+                continue;
+            }
+
+            long totalWeight = weights[j];
+
+            for (int i = 0; i < weights.length && totalWeight <= capacity; i++) {
+                if (i != j && dominates(table, weights, costs, i, j)) {
+                    totalWeight += weights[i];
+                }
+            }
+
+            if (totalWeight > capacity) {
+                removed.set(j);
+            }
+        }
+    }
+
+    private static boolean dominates(final ProductTable table, final long[] weights, final long[] costs,
+                                     final int i, final int j) {
+        if (weights[i] > weights[j] || costs[i] < costs[j]) {
+            return false;
+        }
+        return weights[i] < weights[j] || costs[i] > costs[j] || table.getIndex(i) < table.getIndex(j);
+    }
+
+    private static void fixByBound(final long[] weights, final long[] costs, final long capacity,
+                                   final BitSet removed, final BitSet fixed) {
+        final int[] order = sortByCostPerWeight(weights, costs, removed);
+
+        try {
+            final long lowerBound = getGreedyCost(weights, costs, capacity, order);
+
+            for (int position : order) {
+                if (getUpperBound(weights, costs, capacity, order, position) < lowerBound) {
+                    fixed.set(position);
+                } else if (weights[position] > capacity || costs[position]
+                        + getUpperBound(weights, costs, capacity - weights[position], order, position) < lowerBound) {
+                    removed.set(position);
+                }
+            }
+        } catch (ArithmeticException ex) {
+            // the bound does not fit in a long, so nothing is fixed
+            LOG.info(() -> String.format("fixByBound, overflow={%s}", ex.getMessage()));
+            fixed.clear();
+            return;
+        }
+
+        long fixedWeight = 0;
+        for (int i = fixed.nextSetBit(0); i >= 0; i = fixed.nextSetBit(i + 1)) {
+            fixedWeight += weights[i];
+        }
+
+        // it does not happen with exact bounds, but a wrong fix would create a pack over the limit
+        if (fixedWeight > capacity) {
+            fixed.clear();
+        }
+    }
+
+    /**
+     * @return the positions not removed, sorted by cost per weight (descending).
+     * The products without weight are the first ones.
+     */
+    private static int[] sortByCostPerWeight(final long[] weights, final long[] costs, final BitSet removed) {
+        final Integer[] order = new Integer[weights.length - removed.cardinality()];
+
+        for (int i = 0, p = 0; i < weights.length; i++) {
+            if (!removed.get(i)) {
+                order[p++] = i;
+            }
+        }
+
+        // a / b > c / d is the same as a * d > c * b, compared in 128 bits to not overflow
+        Arrays.sort(order, (a, b) -> compareProducts(costs[b], weights[a], costs[a], weights[b]));
+
+        return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int compareProducts(final long a, final long b, final long c, final long d) {
+        final int high = Long.compare(Math.multiplyHigh(a, b), Math.multiplyHigh(c, d));
+        return high != 0 ? high : Long.compareUnsigned(a * b, c * d);
+    }
+
+    /**
+     * @return the cost of the pack created by taking the products in order, when they fit.
+     */
+    private static long getGreedyCost(final long[] weights, final long[] costs, final long capacity,
+                                      final int[] order) {
+        long remainingCapacity = capacity;
+        long totalCost = 0;
+
+        for (int position : order) {
+            if (weights[position] <= remainingCapacity) {
+                remainingCapacity -= weights[position];
+                totalCost = Math.addExact(totalCost, costs[position]);
+            }
+        }
+
+        return totalCost;
+    }
+
+    /**
+     * @return the highest cost of a pack without the excluded product, taking a fraction of the first one that
+     * does not fit. It is rounded down, since the cost of a pack is an integer in the table scale.
+     */
+    private static long getUpperBound(final long[] weights, final long[] costs, final long capacity,
+                                      final int[] order, final int excluded) {
+        long remainingCapacity = capacity;
+        long totalCost = 0;
+
+        for (int position : order) {
+            if (position == excluded) {
+                continue;
+            }
+
+            if (weights[position] > remainingCapacity) {
+                return Math.addExact(totalCost,
+                        Math.multiplyExact(remainingCapacity, costs[position]) / weights[position]);
+            }
+
+            remainingCapacity -= weights[position];
+            totalCost = Math.addExact(totalCost, costs[position]);
+        }
+
+        return totalCost;
+    }
+}
@@ -0,0 +1,75 @@
+package com.mobiquity.packer.reduction;
+
+import com.mobiquity.packer.model.ProductTable;
+
+import java.util.BitSet;
+
+/**
+ * The result of {@link ProductReducer#reduce(ProductTable)}: the products that are in every better pack,
+ * and a smaller table with the products that still need a solver.
+ */
+public class Reduction {
+
+    private final ProductTable table;
+    private final int[] positions;
+    private final BitSet fixedProducts;
+
+    /**
+     * Default class constructor.
+     * @param table         the products that still need a solver, with the weight limit left by the fixed products
+     * @param positions     the position in the original table of each product of the reduced table
+     * @param fixedProducts the positions in the original table of the products that are in the pack
+     */
+    public Reduction(final ProductTable table, final int[] positions, final BitSet fixedProducts) {
+        this.table = table;
+        this.positions = positions;
+        this.fixedProducts = fixedProducts;
+    }
+
+    /**
+     * @return the products that still need a solver.
+     */
+    public ProductTable getTable() {
+        return table;
+    }
+
+    /**
+     * @return the positions in the original table of the products that are in the pack.
+     */
+    public BitSet getFixedProducts() {
+        return fixedProducts;
+    }
+
+    /**
+     * @param originalSize the number of products in the original table
+     * @return the number of products removed, that are neither in the reduced table nor fixed.
+     */
+    public int getRemovedProducts(final int originalSize) {
+        return originalSize - table.size() - fixedProducts.cardinality();
+    }
+
+    /**
+     * Converts the selection of the solver, in the reduced table, to a selection in the original table,
+     * with the fixed products.
+     *
+     * @param selection the positions of the selected products in the reduced table
+     * @return the positions of the selected products in the original table
+     */
+    public BitSet toOriginalSelection(final BitSet selection) {
+        final BitSet originalSelection = (BitSet) fixedProducts.clone();
+
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            originalSelection.set(positions[i]);
+        }
+
+        return originalSelection;
+    }
+
+    @Override
+    public String toString() {
+        return "Reduction{" +
+                "table=" + table +
+                ", fixedProducts=" + fixedProducts +
+                '}';
+    }
+}
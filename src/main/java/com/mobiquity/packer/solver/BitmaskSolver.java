@@ -0,0 +1,28 @@
+package com.mobiquity.packer.solver;
+
+import com.mobiquity.algorithm.CombinationSet;
+import com.mobiquity.packer.metrics.PackMetrics;
+import com.mobiquity.packer.model.ProductTable;
+
+import java.util.BitSet;
+
+/**
+ * Solver that checks every combination with {@link CombinationSet#getBestCombinationMask(long[], long[], long)}.
+ */
+public class BitmaskSolver implements PackSolver {
+
+    @Override
+    public String getName() {
+        return "bitmask";
+    }
+
+    @Override
+    public BitSet solve(final ProductTable table) {
+        final int bestMask = CombinationSet.getBestCombinationMask(
+                table.getWeights(), table.getCosts(), table.getCapacity());
+
+        PackMetrics.combinationsEvaluated(getName(), (1L << table.size()) - 1);
+
+        return BitSet.valueOf(new long[]{bestMask & 0xFFFFFFFFL});
+    }
+}
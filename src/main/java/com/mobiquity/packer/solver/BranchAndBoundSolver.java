@@ -0,0 +1,57 @@
+package com.mobiquity.packer.solver;
+
+import com.mobiquity.algorithm.BranchAndBound;
+import com.mobiquity.packer.metrics.PackMetrics;
+import com.mobiquity.packer.model.ProductTable;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Solver based on {@link BranchAndBound}.
+ * It keeps the total of nodes explored and pruned by all the searches.
+ */
+public class BranchAndBoundSolver implements PackSolver {
+
+    private static final Logger LOG = Logger.getLogger("BranchAndBoundSolver");
+
+    private final AtomicLong nodesExplored = new AtomicLong();
+    private final AtomicLong nodesPruned = new AtomicLong();
+
+    @Override
+    public String getName() {
+        return "branch and bound";
+    }
+
+    @Override
+    public BitSet solve(final ProductTable table) {
+        final BranchAndBound branchAndBound = new BranchAndBound(
+                table.getWeights(), table.getCosts(), table.getCapacity());
+
+        final int[] positions = branchAndBound.getBestCombination();
+
+        nodesExplored.addAndGet(branchAndBound.getNodesExplored());
+        nodesPruned.addAndGet(branchAndBound.getNodesPruned());
+        PackMetrics.combinationsEvaluated(getName(), branchAndBound.getNodesExplored());
+
+        LOG.info(() -> String.format("solve, nodesExplored={%d}, nodesPruned={%d}",
+                branchAndBound.getNodesExplored(), branchAndBound.getNodesPruned()));
+
+        return DynamicProgrammingSolver.toSelection(positions);
+    }
+
+    /**
+     * @return the total of nodes visited by all searches of this solver.
+     */
+    public long getNodesExplored() {
+        return nodesExplored.get();
+    }
+
+    /**
+     * @return the total of branches discarded by the bound in all searches of this solver.
+     */
+    public long getNodesPruned() {
+        return nodesPruned.get();
+    }
+}
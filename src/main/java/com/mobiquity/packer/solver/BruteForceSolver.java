@@ -0,0 +1,71 @@
+package com.mobiquity.packer.solver;
+
+import com.mobiquity.algorithm.CombinationSet;
+import com.mobiquity.packer.comparator.PackComparator;
+import com.mobiquity.packer.model.Pack;
+import com.mobiquity.packer.model.Product;
+import com.mobiquity.packer.metrics.PackMetrics;
+import com.mobiquity.packer.model.ProductTable;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Reference solver, that creates a {@link Pack} for every combination from {@link CombinationSet#getCombinations(List)}
+ * and keeps the better one according to {@link PackComparator}.
+ * It is the slowest solver, and it is used to check the others.
+ */
+public class BruteForceSolver implements PackSolver {
+
+    @Override
+    public String getName() {
+        return "brute force";
+    }
+
+    @Override
+    public BitSet solve(final ProductTable table) {
+
+        final List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < table.size(); i++) {
+            positions.add(i);
+        }
+
+        // get all possible combinations between positions
+        final Set<Set<Integer>> allCombinations = CombinationSet.getCombinations(positions);
+
+        Pack betterPack = null;
+        Set<Integer> betterCombination = Collections.emptySet();
+
+        for (Set<Integer> combination : allCombinations) {
+            final Set<Product> products = new HashSet<>();
+            BigDecimal totalWeight = BigDecimal.ZERO;
+            BigDecimal totalCost = BigDecimal.ZERO;
+
+            // for each possible combination, check all products based on position
+            for (Integer position : combination) {
+                final Product product = table.getProduct(position);
+
+                // sum the cost and weight for comparison
+                totalWeight = totalWeight.add(product.getWeight());
+                totalCost = totalCost.add(product.getCost());
+
+                products.add(product);
+            }
+
+            // create new pack, to compare with better one
+            Pack newPack = new Pack(table.getWeightLimit(), products, totalWeight, totalCost);
+
+            // compare the packs and update if the new one is better
+            if (PackComparator.isNewPackBetter(betterPack, newPack)) {
+                betterPack = newPack;
+                betterCombination = combination;
+            }
+        }
+
+        PackMetrics.combinationsEvaluated(getName(), allCombinations.size());
+
+        final BitSet selection = new BitSet(table.size());
+        betterCombination.forEach(selection::set);
+        return selection;
+    }
+}
@@ -0,0 +1,45 @@
+package com.mobiquity.packer.solver;
+
+import com.mobiquity.algorithm.KnapsackDp;
+import com.mobiquity.packer.metrics.PackMetrics;
+import com.mobiquity.packer.model.ProductTable;
+
+import java.util.BitSet;
+
+/**
+ * Solver based on {@link KnapsackDp}, with a table indexed by weight in hundredths.
+ * It is exact only when all weights and costs are in hundredths, see {@link ProductTable#isInHundredths()}.
+ */
+public class DynamicProgrammingSolver implements PackSolver {
+
+    @Override
+    public String getName() {
+        return "dynamic programming";
+    }
+
+    @Override
+    public BitSet solve(final ProductTable table) {
+        final int[] positions = KnapsackDp.getBestCombination(
+                toInt(table.getWeights()), toInt(table.getCosts()), Math.toIntExact(table.getCapacity()));
+
+        PackMetrics.combinationsEvaluated(getName(), table.size() * (table.getCapacity() + 1));
+
+        return toSelection(positions);
+    }
+
+    private static int[] toInt(final long[] values) {
+        final int[] result = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = Math.toIntExact(values[i]);
+        }
+        return result;
+    }
+
+    static BitSet toSelection(final int[] positions) {
+        final BitSet selection = new BitSet();
+        for (int position : positions) {
+            selection.set(position);
+        }
+        return selection;
+    }
+}
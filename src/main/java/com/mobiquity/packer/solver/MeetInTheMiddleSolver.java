@@ -0,0 +1,30 @@
+package com.mobiquity.packer.solver;
+
+import com.mobiquity.algorithm.MeetInTheMiddle;
+import com.mobiquity.packer.metrics.PackMetrics;
+import com.mobiquity.packer.model.ProductTable;
+
+import java.util.BitSet;
+
+/**
+ * Solver based on {@link MeetInTheMiddle}.
+ */
+public class MeetInTheMiddleSolver implements PackSolver {
+
+    @Override
+    public String getName() {
+        return "meet in the middle";
+    }
+
+    @Override
+    public BitSet solve(final ProductTable table) {
+        final int[] positions = MeetInTheMiddle.getBestCombination(
+                table.getWeights(), table.getCosts(), table.getCapacity());
+
+        // all combinations of each half
+        final int firstHalf = table.size() / 2;
+        PackMetrics.combinationsEvaluated(getName(), (1L << firstHalf) + (1L << (table.size() - firstHalf)));
+
+        return DynamicProgrammingSolver.toSelection(positions);
+    }
+}
@@ -0,0 +1,50 @@
+package com.mobiquity.packer.solver;
+
+import com.mobiquity.packer.model.Product;
+import com.mobiquity.packer.model.ProductTable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * An algorithm that decides the better selection of products for a pack.
+ * Every implementation returns a selection with the same total cost and weight,
+ * following the rules of {@link com.mobiquity.packer.comparator.PackComparator}:
+ * the highest cost first, then the lowest weight.
+ */
+public interface PackSolver {
+
+    /**
+     * @return the name of the algorithm, used in logs and in {@link SolverSelection#getReason()}.
+     */
+    String getName();
+
+    /**
+     * Selects the products with the highest total cost that respect the weight limit.
+     *
+     * @param table the products that can be packed, each one respecting the weight limit.
+     * @return the positions of the selected products in the table, empty if none fits.
+     */
+    BitSet solve(ProductTable table);
+
+    /**
+     * Same as {@link #solve(ProductTable)}, for products that are not in a {@link ProductTable} yet.
+     *
+     * @param weightLimit the weight limit of the pack.
+     * @param products    the products that can be packed, each one respecting the weight limit.
+     * @return the selected products, or an empty list if none fits.
+     */
+    default List<Product> solve(final BigDecimal weightLimit, final List<Product> products) {
+        final ProductTable table = ProductTable.of(weightLimit, products);
+        final BitSet selection = solve(table);
+
+        final List<Product> selected = new ArrayList<>();
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            selected.add(table.getProduct(i));
+        }
+
+        return selected;
+    }
+}
@@ -0,0 +1,58 @@
+package com.mobiquity.packer.solver;
+
+import com.mobiquity.algorithm.ParallelBranchAndBound;
+import com.mobiquity.packer.metrics.PackMetrics;
+import com.mobiquity.packer.model.ProductTable;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Logger;
+
+/**
+ * Solver based on {@link ParallelBranchAndBound}, that searches the branches of a single line on a
+ * {@link ForkJoinPool}. The selection is the same of {@link BranchAndBoundSolver}.
+ */
+public class ParallelBranchAndBoundSolver implements PackSolver {
+
+    private static final Logger LOG = Logger.getLogger("ParallelBranchAndBoundSolver");
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates the solver on {@link ForkJoinPool#commonPool()}.
+     */
+    public ParallelBranchAndBoundSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool the pool that searches the branches of each line
+     */
+    public ParallelBranchAndBoundSolver(final ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public String getName() {
+        return "parallel branch and bound";
+    }
+
+    @Override
+    public BitSet solve(final ProductTable table) {
+        final ParallelBranchAndBound branchAndBound = new ParallelBranchAndBound(
+                table.getWeights(), table.getCosts(), table.getCapacity(), pool);
+
+        final int[] positions = branchAndBound.getBestCombination();
+
+        PackMetrics.combinationsEvaluated(getName(), branchAndBound.getNodesExplored());
+
+        LOG.info(() -> String.format("solve, nodesExplored={%d}, nodesPruned={%d}",
+                branchAndBound.getNodesExplored(), branchAndBound.getNodesPruned()));
+
+        return DynamicProgrammingSolver.toSelection(positions);
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+}
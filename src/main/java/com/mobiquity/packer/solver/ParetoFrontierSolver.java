@@ -0,0 +1,28 @@
+package com.mobiquity.packer.solver;
+
+import com.mobiquity.algorithm.ParetoFrontier;
+import com.mobiquity.packer.metrics.PackMetrics;
+import com.mobiquity.packer.model.ProductTable;
+
+import java.util.BitSet;
+
+/**
+ * Solver based on {@link ParetoFrontier}: it builds the frontier of all products up to the weight limit,
+ * and takes its best point. The work depends on the number of points, not on 2^n or on the precision.
+ */
+public class ParetoFrontierSolver implements PackSolver {
+
+    @Override
+    public String getName() {
+        return "pareto frontier";
+    }
+
+    @Override
+    public BitSet solve(final ProductTable table) {
+        final ParetoFrontier frontier = ParetoFrontier.of(table.getWeights(), table.getCosts(), table.getCapacity());
+
+        PackMetrics.combinationsEvaluated(getName(), frontier.getPointsMerged());
+
+        return DynamicProgrammingSolver.toSelection(frontier.getElements(frontier.findBest(table.getCapacity())));
+    }
+}
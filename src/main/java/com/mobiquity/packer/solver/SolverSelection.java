@@ -0,0 +1,52 @@
+package com.mobiquity.packer.solver;
+
+import java.util.Objects;
+
+/**
+ * The solver chosen by {@link SolverSelector} for one line, and the reason for the choice.
+ */
+public class SolverSelection {
+
+    private final PackSolver solver;
+
+    private final String reason;
+
+    /**
+     * Default class constructor.
+     * @param solver the solver chosen for the line
+     * @param reason a description of why the solver was chosen (e.g.: "9 products in hundredths, ...")
+     */
+    public SolverSelection(final PackSolver solver, final String reason) {
+        this.solver = solver;
+        this.reason = reason;
+    }
+
+    public PackSolver getSolver() {
+        return solver;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        return "SolverSelection{" +
+                "solver=" + solver.getName() +
+                ", reason=" + reason +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SolverSelection that = (SolverSelection) o;
+        return Objects.equals(solver, that.solver) && Objects.equals(reason, that.reason);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(solver, reason);
+    }
+}
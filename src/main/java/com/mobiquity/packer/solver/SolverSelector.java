@@ -0,0 +1,138 @@
+package com.mobiquity.packer.solver;
+
+import com.mobiquity.algorithm.MeetInTheMiddle;
+import com.mobiquity.packer.dto.FileContentDto;
+import com.mobiquity.packer.model.Product;
+import com.mobiquity.packer.model.ProductTable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Chooses the cheapest {@link PackSolver} for a line, based on the number of products,
+ * the precision of weights and costs, and the weight limit.
+ * The cost of each candidate is estimated in steps of its inner loop:
+ * <ul>
+ *     <li>bitmask: 2^n combinations;</li>
+ *     <li>dynamic programming: n * (weight limit in hundredths + 1) cells, only for values in hundredths;</li>
+ *     <li>meet in the middle: 2^(n/2) combinations of each half, plus n/2 steps each to sort and search them,
+ *     only when the tables of both halves fit in {@value #MAX_MEET_IN_THE_MIDDLE_BYTES} bytes.</li>
+ * </ul>
+ * When none of them is affordable, branch and bound is chosen, because its work depends on how much it can prune.
+ * For a line with many products, its branches are searched in parallel on {@link java.util.concurrent.ForkJoinPool},
+ * when the pool has more than one worker.
+ * The brute force is never the cheapest, it is kept as reference for the other solvers.
+ */
+public class SolverSelector {
+
+    public static final PackSolver BRUTE_FORCE = new BruteForceSolver();
+    public static final PackSolver BITMASK = new BitmaskSolver();
+    public static final PackSolver DYNAMIC_PROGRAMMING = new DynamicProgrammingSolver();
+    public static final PackSolver MEET_IN_THE_MIDDLE = new MeetInTheMiddleSolver();
+    public static final BranchAndBoundSolver BRANCH_AND_BOUND = new BranchAndBoundSolver();
+    public static final ParallelBranchAndBoundSolver PARALLEL_BRANCH_AND_BOUND = new ParallelBranchAndBoundSolver();
+
+    private static final int MAX_BITMASK_PRODUCTS = 30;
+    private static final int MAX_MEET_IN_THE_MIDDLE_PRODUCTS = 45;
+    private static final long MAX_DYNAMIC_PROGRAMMING_CELLS = 50_000_000L;
+    private static final long MAX_MEET_IN_THE_MIDDLE_BYTES = 32L << 20;
+    private static final long MAX_ESTIMATED_STEPS = 1L << 26;
+    private static final int MIN_PARALLEL_PRODUCTS = 128;
+
+    /**
+     * Based on the parsed line and its valid products, chooses the solver with the lowest estimated cost.
+     *
+     * @param fileContentDto the parsed line, with the weight limit.
+     * @param products       the products that respect the weight limit.
+     * @return the {@link SolverSelection} with the chosen solver and the reason.
+     */
+    public static SolverSelection select(final FileContentDto fileContentDto, final List<Product> products) {
+        return select(fileContentDto.getWeightLimit(), products);
+    }
+
+    /**
+     * Based on the weight limit of a line and its valid products, chooses the solver with the lowest estimated cost.
+     *
+     * @param weightLimit the weight limit of the line.
+     * @param products    the products that respect the weight limit.
+     * @return the {@link SolverSelection} with the chosen solver and the reason.
+     */
+    public static SolverSelection select(final BigDecimal weightLimit, final List<Product> products) {
+        return select(ProductTable.of(weightLimit, products));
+    }
+
+    /**
+     * Based on the table of valid products of a line, chooses the solver with the lowest estimated cost.
+     *
+     * @param table the products that respect the weight limit.
+     * @return the {@link SolverSelection} with the chosen solver and the reason.
+     */
+    public static SolverSelection select(final ProductTable table) {
+        return select(table, false);
+    }
+
+    /**
+     * Same as {@link #select(ProductTable)}, but when only scalable solvers are allowed, the bitmask is skipped,
+     * so the line is solved by dynamic programming, whose work depends on the weight limit, by meet in the middle,
+     * whose products and tables are capped, or by branch and bound.
+     *
+     * @param table          the products that respect the weight limit.
+     * @param isScalableOnly true for lines above the strict limits, see {@link com.mobiquity.packer.config.PackConfig}.
+     * @return the {@link SolverSelection} with the chosen solver and the reason.
+     */
+    public static SolverSelection select(final ProductTable table, final boolean isScalableOnly) {
+        final int totalProducts = table.size();
+        final boolean isInHundredths = table.isInHundredths();
+
+        PackSolver bestSolver = null;
+        long bestSteps = Long.MAX_VALUE;
+
+        if (!isScalableOnly && totalProducts <= MAX_BITMASK_PRODUCTS) {
+            bestSolver = BITMASK;
+            bestSteps = 1L << totalProducts;
+        }
+
+        if (isInHundredths) {
+            final long cells = totalProducts * (table.getCapacity() + 1);
+
+            if (cells <= MAX_DYNAMIC_PROGRAMMING_CELLS && cells < bestSteps) {
+                bestSolver = DYNAMIC_PROGRAMMING;
+                bestSteps = cells;
+            }
+        }
+
+        if (totalProducts <= MAX_MEET_IN_THE_MIDDLE_PRODUCTS
+                && MeetInTheMiddle.getTableBytes(totalProducts) <= MAX_MEET_IN_THE_MIDDLE_BYTES) {
+            final int half = (totalProducts + 1) / 2;
+            final long steps = (1L << (half + 1)) * (half + 1);
+
+            if (steps < bestSteps) {
+                bestSolver = MEET_IN_THE_MIDDLE;
+                bestSteps = steps;
+            }
+        }
+
+        final String precision = (isInHundredths ? "in hundredths" : "finer than hundredths")
+                + (isScalableOnly ? " (scalable only)" : "");
+
+        if (bestSolver == null || bestSteps > MAX_ESTIMATED_STEPS) {
+            final int workers = PARALLEL_BRANCH_AND_BOUND.getPool().getParallelism();
+
+            if (totalProducts >= MIN_PARALLEL_PRODUCTS && workers > 1) {
+                return new SolverSelection(PARALLEL_BRANCH_AND_BOUND, String.format(
+                        "%d products %s, weight limit %s: no exact enumeration within %d steps, "
+                                + "branches searched by %d workers",
+                        totalProducts, precision, table.getWeightLimit().toPlainString(), MAX_ESTIMATED_STEPS,
+                        workers));
+            }
+
+            return new SolverSelection(BRANCH_AND_BOUND, String.format(
+                    "%d products %s, weight limit %s: no exact enumeration within %d steps",
+                    totalProducts, precision, table.getWeightLimit().toPlainString(), MAX_ESTIMATED_STEPS));
+        }
+
+        return new SolverSelection(bestSolver, String.format(
+                "%d products %s, weight limit %s: %s is the cheapest with %d estimated steps",
+                totalProducts, precision, table.getWeightLimit().toPlainString(), bestSolver.getName(), bestSteps));
+    }
+}
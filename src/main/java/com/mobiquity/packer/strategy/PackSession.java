@@ -0,0 +1,205 @@
+package com.mobiquity.packer.strategy;
+
+import com.mobiquity.algorithm.ParetoFrontier;
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.config.PackConfig;
+import com.mobiquity.packer.metrics.PackMetrics;
+import com.mobiquity.packer.model.Pack;
+import com.mobiquity.packer.model.Product;
+import com.mobiquity.packer.model.ProductTable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * A line that changes over time: products are added, replaced or removed, and the weight limit changes.
+ * The session keeps the {@link ParetoFrontier} of its products between the changes, so the better pack after
+ * a change is found without parsing and solving the line again:
+ * <ul>
+ *     <li>a new product adds one layer to the frontier;</li>
+ *     <li>a product replaced or removed merges again only the layers of the products after it;</li>
+ *     <li>a lower weight limit is a search in the frontier, a higher one builds it again.</li>
+ * </ul>
+ * The products and the weight limit are validated as in {@link PackStrategy}, with the limits of the
+ * {@link PackConfig}, and a product that is not valid is ignored, as in a line.
+ * This class is not thread-safe.
+ */
+public class PackSession {
+
+    private static final Logger LOG = Logger.getLogger("PackSession");
+
+    private final PackConfig config;
+
+    private ProductTable table;
+    private ParetoFrontier frontier;
+    private int frontierScale;
+
+    /**
+     * Starts a session with the products of the line, and the limits of {@link PackConfig#STRICT}.
+     *
+     * @param line the string containing weight limit of box, and product data like index, cost and weight.
+     * @throws APIException if the line cannot be read or is not valid
+     */
+    public PackSession(final CharSequence line) {
+        this(line, PackConfig.STRICT);
+    }
+
+    /**
+     * Starts a session with the products of the line.
+     *
+     * @param line   the string containing weight limit of box, and product data like index, cost and weight.
+     * @param config the limits of the line and of each change
+     * @throws APIException if the line cannot be read or is not valid
+     */
+    public PackSession(final CharSequence line, final PackConfig config) {
+        this.config = config;
+        this.table = PackStrategy.getProductTable(line, config);
+
+        if (table == null) {
+            throw new APIException(String.format("Line [%s] is not valid", line));
+        }
+
+        buildFrontier(0);
+    }
+
+    /**
+     * @return the {@link Pack} with better option of cost and weight for the current products and weight limit.
+     */
+    public Pack getBetterPack() {
+        return ParetoCurve.getBetterPack(table, frontier);
+    }
+
+    /**
+     * Adds a product, or replaces the product with the same index.
+     *
+     * @param product the product, ignored if its weight or cost is not valid
+     * @return the {@link Pack} with better option of cost and weight after the change.
+     * @throws APIException if the weight or cost cannot be read as in a line (e.g.: too many digits),
+     *                      or the product is new, and the session already has the maximum number of products
+     */
+    public Pack addProduct(final Product product) {
+        LOG.info(() -> String.format("BEGIN addProduct, product={%s}", product));
+
+        final BigDecimal productWeight = PackStrategy.toFixedPoint(product.getWeight());
+        final BigDecimal productCost = PackStrategy.toFixedPoint(product.getCost());
+        final long weight = productWeight.unscaledValue().longValue();
+        final long cost = productCost.unscaledValue().longValue();
+        final BigDecimal weightLimit = table.getWeightLimit();
+
+        if (!PackStrategy.validateMaxCostAndWeightOfProduct(weight, productWeight.scale(),
+                cost, productCost.scale(),
+                weightLimit.unscaledValue().longValueExact(), weightLimit.scale(), config)) {
+            PackMetrics.productFiltered();
+            return getBetterPack();
+        }
+
+        final int position = table.getPosition(product.getIndex());
+
+        if (position < 0 && table.size() + 1 > config.getMaxProducts()) {
+            throw new APIException(String.format("Limit of products (%d) exceeded %d",
+                    table.size() + 1, config.getMaxProducts()));
+        }
+
+        table.add(product.getIndex(), weight, productWeight.scale(), cost, productCost.scale());
+
+        // a new product is the last one, so only its layer is merged
+        buildFrontier(position < 0 ? table.size() - 1 : position);
+
+        final Pack pack = getBetterPack();
+        LOG.info(() -> String.format("END addProduct, pack={%s}", pack));
+        return pack;
+    }
+
+    /**
+     * Removes the product with the index, if there is one.
+     *
+     * @param index the index of product
+     * @return the {@link Pack} with better option of cost and weight after the change.
+     */
+    public Pack removeProduct(final int index) {
+        LOG.info(() -> String.format("BEGIN removeProduct, index={%d}", index));
+
+        final int position = table.getPosition(index);
+
+        if (position >= 0) {
+            table.remove(position);
+            buildFrontier(position);
+        }
+
+        final Pack pack = getBetterPack();
+        LOG.info(() -> String.format("END removeProduct, pack={%s}", pack));
+        return pack;
+    }
+
+    /**
+     * Changes the weight limit. The products already in the session are kept, even if they are heavier.
+     *
+     * @param weightLimit the new weight limit
+     * @return the {@link Pack} with better option of cost and weight after the change.
+     * @throws APIException if the weight limit cannot be read as in a line (e.g.: too many digits),
+     *                      or it exceeds the limit of the configuration
+     */
+    public Pack setWeightLimit(final BigDecimal weightLimit) {
+        LOG.info(() -> String.format("BEGIN setWeightLimit, weightLimit={%s}", weightLimit));
+
+        final BigDecimal fixedPointLimit = PackStrategy.toFixedPoint(weightLimit);
+        final long unscaledWeightLimit = fixedPointLimit.unscaledValue().longValue();
+
+        if (!PackStrategy.validateFileContentConstraints(unscaledWeightLimit, fixedPointLimit.scale(),
+                table.size(), config)) {
+            throw new APIException(String.format("Weight of package (%s) exceeded %d",
+                    weightLimit.toPlainString(), config.getMaxWeightLimit()));
+        }
+
+        table = table.withWeightLimit(unscaledWeightLimit, fixedPointLimit.scale());
+
+        // the frontier answers any limit up to the capacity it was built with
+        if (table.getCapacity() > frontier.getCapacity()) {
+            frontier = null;
+            buildFrontier(0);
+        }
+
+        final Pack pack = getBetterPack();
+        LOG.info(() -> String.format("END setWeightLimit, pack={%s}", pack));
+        return pack;
+    }
+
+    public BigDecimal getWeightLimit() {
+        return table.getWeightLimit();
+    }
+
+    /**
+     * @return the products of the session, in the order they were added.
+     */
+    public List<Product> getProducts() {
+        final List<Product> products = new ArrayList<>(table.size());
+        for (int i = 0; i < table.size(); i++) {
+            products.add(table.getProduct(i));
+        }
+        return products;
+    }
+
+    /**
+     * Keeps the layers of the frontier before the position, and merges again the layers from it.
+     * When the scale of the table changed, all the layers are merged again.
+     */
+    private void buildFrontier(final int fromPosition) {
+        int position = fromPosition;
+
+        if (frontier == null || frontierScale != table.getScale()) {
+            frontier = new ParetoFrontier(table.getCapacity());
+            frontierScale = table.getScale();
+            position = 0;
+        }
+
+        frontier.truncate(position);
+
+        final long[] weights = table.getWeights();
+        final long[] costs = table.getCosts();
+        for (int i = position; i < weights.length; i++) {
+            frontier.add(weights[i], costs[i]);
+        }
+    }
+}
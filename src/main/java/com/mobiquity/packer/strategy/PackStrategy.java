@@ -1,15 +1,28 @@
 package com.mobiquity.packer.strategy;
 
-import com.mobiquity.algorithm.CombinationSet;
-import com.mobiquity.packer.comparator.PackComparator;
-import com.mobiquity.packer.converter.PackConverter;
-import com.mobiquity.packer.converter.ProductConverter;
-import com.mobiquity.packer.dto.FileContentDto;
+import com.mobiquity.algorithm.BranchAndBound;
+import com.mobiquity.algorithm.MultipleKnapsack;
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.config.PackConfig;
+import com.mobiquity.packer.converter.LineScanner;
+import com.mobiquity.packer.metrics.PackMetrics;
+import com.mobiquity.packer.model.MultiPack;
 import com.mobiquity.packer.model.Pack;
 import com.mobiquity.packer.model.Product;
+import com.mobiquity.packer.model.ProductTable;
+import com.mobiquity.packer.model.TimedPack;
+import com.mobiquity.packer.reduction.ProductReducer;
+import com.mobiquity.packer.reduction.Reduction;
+import com.mobiquity.packer.solver.PackSolver;
+import com.mobiquity.packer.solver.SolverSelection;
+import com.mobiquity.packer.solver.SolverSelector;
 
 import java.math.BigDecimal;
-import java.util.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -19,9 +32,8 @@ import java.util.logging.Logger;
 public class PackStrategy {
 
     private static final Logger LOG = Logger.getLogger("PackStrategy");
-    private static final BigDecimal MAX_WEIGHT_LIMIT = BigDecimal.valueOf(100);
-    private static final BigDecimal MAX_COST_LIMIT = BigDecimal.valueOf(100);
-    private static final int MAX_PRODUCTS_LIMIT = 15;
+
+    private static final String MULTIPLE_KNAPSACK = "multiple knapsack";
 
     /**
      * Based on input line (e.g.: "81 : (1,53.38,€45) (2,88.62,€98) (3,78.48,€3)"),
@@ -32,137 +44,590 @@ public class PackStrategy {
      * @param line the string containing weight limit of box, and product data like index, cost and weight.
      * @return a {@link Pack} with better option of cost and weight.
      */
-    public static Pack getBetterPackFromInputLine(final String line) {
-        LOG.info(String.format("BEGIN getBetterPackFromInputLine, line={%s}", line));
+    public static Pack getBetterPackFromInputLine(final CharSequence line) {
+        return getBetterPackFromInputLine(line, PackConfig.STRICT, solverSelection -> { });
+    }
+
+    /**
+     * Same as {@link #getBetterPackFromInputLine(CharSequence)}, with the limits of the given configuration.
+     *
+     * @param line   the string containing weight limit of box, and product data like index, cost and weight.
+     * @param config the limits of the line, e.g.: {@link PackConfig#STRICT}
+     * @return a {@link Pack} with better option of cost and weight.
+     */
+    public static Pack getBetterPackFromInputLine(final CharSequence line, final PackConfig config) {
+        return getBetterPackFromInputLine(line, config, solverSelection -> { });
+    }
+
+    /**
+     * Same as {@link #getBetterPackFromInputLine(CharSequence)}, but also informs which {@link PackSolver} was chosen
+     * by {@link SolverSelector} for the line, and why.
+     *
+     * @param line the string containing weight limit of box, and product data like index, cost and weight.
+     * @param selectionListener called with the {@link SolverSelection}, only when a solver is needed.
+     * @return a {@link Pack} with better option of cost and weight.
+     */
+    public static Pack getBetterPackFromInputLine(final CharSequence line,
+                                                  final Consumer<SolverSelection> selectionListener) {
+        return getBetterPackFromInputLine(line, PackConfig.STRICT, selectionListener);
+    }
+
+    /**
+     * Same as {@link #getBetterPackFromInputLine(CharSequence, Consumer)}, with the limits of the given configuration.
+     * In extended mode, a line with more products or a higher weight limit than {@link PackConfig#STRICT} allows
+     * is solved only by a solver that does not enumerate all combinations.
+     *
+     * @param line              the string containing weight limit of box, and product data like index, cost and weight.
+     * @param config            the limits of the line, e.g.: {@link PackConfig#STRICT}
+     * @param selectionListener called with the {@link SolverSelection}, only when a solver is needed.
+     * @return a {@link Pack} with better option of cost and weight.
+     */
+    public static Pack getBetterPackFromInputLine(final CharSequence line, final PackConfig config,
+                                                  final Consumer<SolverSelection> selectionListener) {
+        LOG.info(() -> String.format("BEGIN getBetterPackFromInputLine, line={%s}", line));
+
+        final long lineStart = PackMetrics.nanoTime();
+        final LineScanner scanner = LineScanner.scan(line);
 
-        final FileContentDto fileContentDto = PackConverter.getContentFromLine(line);
+        if (scanner == null) {
+            return null;
+        }
+
+        final ProductTable table = readProductTable(scanner, config, lineStart);
 
-        if (fileContentDto == null || !validateFileContentConstraints(fileContentDto)) {
+        if (table == null) {
+            PackMetrics.lineCompleted(PackMetrics.nanoTime() - lineStart);
             return null;
         }
 
-        final BigDecimal weightLimit = fileContentDto.getWeightLimit();
+        // if totalWeight less or equal the limit, it's not necessary to test other combinations
+        final BitSet allProducts = table.selectAll();
+        if (table.getTotalWeight(allProducts) <= table.getCapacity()) {
+            final Pack pack = table.createPack(allProducts);
+            PackMetrics.lineCompleted(PackMetrics.nanoTime() - lineStart);
+            return pack;
+        }
 
-        final Set<Product> products = new HashSet<>();
-        BigDecimal totalWeight = BigDecimal.ZERO;
-        BigDecimal totalCost = BigDecimal.ZERO;
+        // the solver gets only the products that can change the better pack
+        final Reduction reduction = ProductReducer.reduce(table);
+        final ProductTable reducedTable = reduction.getTable();
+        PackMetrics.lineReduced(reduction.getRemovedProducts(table.size()), reduction.getFixedProducts().cardinality());
 
-        // create a map to be a base of combinations
-        final HashMap<Integer, Product> productMap = new HashMap<>();
+        final BitSet reducedProducts = reducedTable.selectAll();
+        final BitSet selection;
 
-        for (final String productString : fileContentDto.getProductsAsString()) {
+        if (reducedTable.getTotalWeight(reducedProducts) <= reducedTable.getCapacity()) {
+            selection = reducedProducts;
+        } else {
+            final SolverSelection solverSelection = SolverSelector.select(reducedTable,
+                    isExtendedLine(scanner, table));
+            selectionListener.accept(solverSelection);
 
-            final Product product = ProductConverter.getProductFromString(productString);
+            selection = getBestProductsOption(reducedTable, solverSelection);
+        }
 
-            // filter only products that respect the weight limit and cost
-            if (validateMaxCostAndWeightOfProduct(product, weightLimit)) {
+        final Pack pack = table.createPack(reduction.toOriginalSelection(selection));
+        PackMetrics.lineCompleted(PackMetrics.nanoTime() - lineStart);
+        LOG.info(() -> String.format("END getBetterPackFromInputLine, pack={%s}", pack));
 
-                products.add(product);
-                totalWeight = totalWeight.add(product.getWeight());
-                totalCost = totalCost.add(product.getCost());
+        return pack;
+    }
 
-                productMap.put(product.getIndex(), product);
+    /**
+     * Same as {@link #getTimedPackFromInputLine(CharSequence, PackConfig, Duration)}, with the limits of
+     * {@link PackConfig#STRICT}.
+     *
+     * @param line       the string containing weight limit of box, and product data like index, cost and weight.
+     * @param timeBudget the time the line can take, from the beginning of the call.
+     * @return a {@link TimedPack} with the better pack found, or null if the line cannot be read or is not valid.
+     */
+    public static TimedPack getTimedPackFromInputLine(final CharSequence line, final Duration timeBudget) {
+        return getTimedPackFromInputLine(line, PackConfig.STRICT, timeBudget);
+    }
+
+    /**
+     * Same as {@link #getBetterPackFromInputLine(CharSequence, PackConfig)}, but the line is solved by
+     * {@link BranchAndBound} with a time budget: the search starts from the greedy pack by cost/weight ratio,
+     * improves it, and when the budget is over, the better pack found so far is returned, not proven the best one.
+     * So a long line takes about the budget, instead of the time of the full search.
+     *
+     * @param line       the string containing weight limit of box, and product data like index, cost and weight.
+     * @param config     the limits of the line, e.g.: {@link PackConfig#STRICT}
+     * @param timeBudget the time the line can take, from the beginning of the call.
+     * @return a {@link TimedPack} with the better pack found, and whether it is proven the best one,
+     * or null if the line cannot be read or is not valid.
+     */
+    public static TimedPack getTimedPackFromInputLine(final CharSequence line, final PackConfig config,
+                                                      final Duration timeBudget) {
+        LOG.info(() -> String.format("BEGIN getTimedPackFromInputLine, line={%s}, timeBudget={%s}",
+                line, timeBudget));
+
+        final long callStart = System.nanoTime();
+        final long lineStart = PackMetrics.nanoTime();
+        final LineScanner scanner = LineScanner.scan(line);
+
+        if (scanner == null) {
+            return null;
+        }
+
+        final ProductTable table = readProductTable(scanner, config, lineStart);
+
+        if (table == null) {
+            PackMetrics.lineCompleted(PackMetrics.nanoTime() - lineStart);
+            return null;
+        }
+
+        final BitSet allProducts = table.selectAll();
+        if (table.getTotalWeight(allProducts) <= table.getCapacity()) {
+            final TimedPack timedPack = new TimedPack(table.createPack(allProducts), true);
+            PackMetrics.lineCompleted(PackMetrics.nanoTime() - lineStart);
+            return timedPack;
+        }
+
+        final Reduction reduction = ProductReducer.reduce(table);
+        final ProductTable reducedTable = reduction.getTable();
+        PackMetrics.lineReduced(reduction.getRemovedProducts(table.size()), reduction.getFixedProducts().cardinality());
+
+        final BitSet selection = reducedTable.selectAll();
+        boolean isOptimal = true;
+
+        if (reducedTable.getTotalWeight(selection) > reducedTable.getCapacity()) {
+            final BranchAndBound branchAndBound = new BranchAndBound(
+                    reducedTable.getWeights(), reducedTable.getCosts(), reducedTable.getCapacity());
+            final String solverName = SolverSelector.BRANCH_AND_BOUND.getName();
+
+            final long solveStart = PackMetrics.nanoTime();
+            final int[] positions = branchAndBound.getBestCombination(
+                    timeBudget.toNanos() - (System.nanoTime() - callStart));
+            PackMetrics.lineSolved(solverName, PackMetrics.nanoTime() - solveStart);
+            PackMetrics.combinationsEvaluated(solverName, branchAndBound.getNodesExplored());
+
+            selection.clear();
+            for (int position : positions) {
+                selection.set(position);
             }
+            isOptimal = branchAndBound.isOptimal();
         }
 
-        // if totalWeight less or equal the limit, it's not necessary to test other combinations
-        if (totalWeight.compareTo(weightLimit) <= 0) {
-            return new Pack(weightLimit, products, totalWeight, totalCost);
+        final TimedPack timedPack = new TimedPack(table.createPack(reduction.toOriginalSelection(selection)),
+                isOptimal);
+        PackMetrics.lineCompleted(PackMetrics.nanoTime() - lineStart);
+        LOG.info(() -> String.format("END getTimedPackFromInputLine, timedPack={%s}", timedPack));
+
+        return timedPack;
+    }
+
+    /**
+     * Same as {@link #getBetterPacks(List, List, PackConfig)}, with the limits of {@link PackConfig#STRICT}.
+     *
+     * @param products     the products, validated as in a line with the highest valid weight limit.
+     * @param weightLimits the weight limits of the packs.
+     * @return a {@link Pack} with better option of cost and weight for each weight limit, in the same order.
+     */
+    public static List<Pack> getBetterPacks(final List<Product> products, final List<BigDecimal> weightLimits) {
+        return getBetterPacks(products, weightLimits, PackConfig.STRICT);
+    }
+
+    /**
+     * Based on one list of products and many weight limits, builds the {@link ParetoCurve} of the products once,
+     * with the highest weight limit, and takes the better pack of each limit from it, instead of reading and
+     * solving one line for each limit. Each pack is the same (in cost and weight) that
+     * {@link #getBetterPackFromInputLine(CharSequence, PackConfig)} returns for a line with the limit and the
+     * products.
+     *
+     * @param products     the products, validated as in a line with the highest valid weight limit.
+     * @param weightLimits the weight limits of the packs.
+     * @param config       the limits of each weight limit and product, e.g.: {@link PackConfig#STRICT}
+     * @return a {@link Pack} with better option of cost and weight for each weight limit, in the same order,
+     * or null for a weight limit that is not valid.
+     * @throws APIException if a weight limit or a product does not fit in fixed point
+     */
+    public static List<Pack> getBetterPacks(final List<Product> products, final List<BigDecimal> weightLimits,
+                                            final PackConfig config) {
+        LOG.info(() -> String.format("BEGIN getBetterPacks, products={%s}, weightLimits={%s}",
+                products, weightLimits));
+
+        final boolean[] isValidLimit = new boolean[weightLimits.size()];
+        BigDecimal maxWeightLimit = null;
+
+        for (int i = 0; i < weightLimits.size(); i++) {
+            final BigDecimal weightLimit = weightLimits.get(i);
+            final BigDecimal fixedPointLimit = weightLimit.signum() >= 0 ? toFixedPoint(weightLimit) : null;
+
+            isValidLimit[i] = fixedPointLimit != null && validateFileContentConstraints(
+                    fixedPointLimit.unscaledValue().longValue(), fixedPointLimit.scale(), products.size(), config);
+
+            if (!isValidLimit[i]) {
+                PackMetrics.lineRejected();
+            } else if (maxWeightLimit == null || weightLimit.compareTo(maxWeightLimit) > 0) {
+                maxWeightLimit = weightLimit;
+            }
         }
 
-        final Pack pack = getBestProductsOption(weightLimit, productMap);
-        LOG.info(String.format("END getBetterPackFromInputLine, pack={%s}", pack));
+        final List<Pack> packs = new ArrayList<>(weightLimits.size());
 
-        return pack;
+        if (maxWeightLimit == null) {
+            weightLimits.forEach(weightLimit -> packs.add(null));
+            return packs;
+        }
+
+        final ParetoCurve curve = new ParetoCurve(getProductTable(products, maxWeightLimit, config));
+
+        for (int i = 0; i < weightLimits.size(); i++) {
+            packs.add(isValidLimit[i] ? curve.getBetterPack(weightLimits.get(i)) : null);
+        }
+
+        LOG.info(() -> String.format("END getBetterPacks, packs={%s}", packs));
+        return packs;
+    }
+
+    /**
+     * Same as {@link #getBetterMultiPack(List, List, Duration, PackConfig)}, with the limits of
+     * {@link PackConfig#STRICT}.
+     *
+     * @param products     the products to share between the boxes.
+     * @param weightLimits the weight limit of each box.
+     * @param timeBudget   the time the search can take.
+     * @return a {@link MultiPack} with a {@link Pack} for each box, or null if a weight limit is not valid.
+     */
+    public static MultiPack getBetterMultiPack(final List<Product> products, final List<BigDecimal> weightLimits,
+                                               final Duration timeBudget) {
+        return getBetterMultiPack(products, weightLimits, timeBudget, PackConfig.STRICT);
     }
 
-    private static Pack getBestProductsOption(final BigDecimal weightLimit, final HashMap<Integer, Product> productMap) {
-        LOG.info(String.format("BEGIN getBestProductsOption, weightLimit={%s}, productMap={%s}", weightLimit, productMap));
+    /**
+     * Based on one list of products and the weight limits of many boxes, puts each product in at most one box,
+     * to get the highest total cost of all boxes, and on the same cost, the lowest total weight.
+     * The assignment is searched by {@link MultipleKnapsack}, from a greedy one, until it is proven the best or
+     * the time budget is over, see {@link MultiPack#isOptimal()}.
+     *
+     * @param products     the products to share between the boxes, validated as in a line with the highest limit.
+     * @param weightLimits the weight limit of each box.
+     * @param timeBudget   the time the search can take.
+     * @param config       the limits of each weight limit and product, e.g.: {@link PackConfig#STRICT}
+     * @return a {@link MultiPack} with a {@link Pack} for each box, in the order of the weight limits,
+     * or null if a weight limit is not valid.
+     * @throws APIException if a weight limit or a product does not fit in fixed point
+     */
+    public static MultiPack getBetterMultiPack(final List<Product> products, final List<BigDecimal> weightLimits,
+                                               final Duration timeBudget, final PackConfig config) {
+        LOG.info(() -> String.format("BEGIN getBetterMultiPack, products={%s}, weightLimits={%s}, timeBudget={%s}",
+                products, weightLimits, timeBudget));
+
+        BigDecimal maxWeightLimit = BigDecimal.ZERO;
+        final List<BigDecimal> fixedPointLimits = new ArrayList<>(weightLimits.size());
+
+        for (BigDecimal weightLimit : weightLimits) {
+            if (weightLimit.signum() < 0) {
+                PackMetrics.lineRejected();
+                return null;
+            }
 
-        // get all possible combinations between indexes
-        final Set<Set<Integer>> allIndexesCombinations =
-                CombinationSet.getCombinations(new ArrayList<>(productMap.keySet()));
+            final BigDecimal fixedPointLimit = toFixedPoint(weightLimit);
 
-        Pack betterPack = null;
+            if (!validateFileContentConstraints(fixedPointLimit.unscaledValue().longValue(), fixedPointLimit.scale(),
+                    products.size(), config)) {
+                PackMetrics.lineRejected();
+                return null;
+            }
+            fixedPointLimits.add(fixedPointLimit);
+            maxWeightLimit = maxWeightLimit.max(weightLimit);
+        }
 
-        for (Set<Integer> combinationIndexes : allIndexesCombinations) {
-            final Set<Product> products = new HashSet<>();
-            BigDecimal totalWeight = BigDecimal.ZERO;
-            BigDecimal totalCost = BigDecimal.ZERO;
+        final ProductTable table = getProductTable(products, maxWeightLimit, config);
+        final ProductTable[] boxTables = new ProductTable[weightLimits.size()];
+        final long[] capacities = new long[weightLimits.size()];
 
+        for (int box = 0; box < boxTables.length; box++) {
+            final BigDecimal weightLimit = fixedPointLimits.get(box);
+            boxTables[box] = table.withWeightLimit(weightLimit.unscaledValue().longValue(), weightLimit.scale());
+            capacities[box] = boxTables[box].getCapacity();
+        }
 
-            // for each possible combination, check all products based on index
-            for (Integer productIndex : combinationIndexes) {
-                final Product product = productMap.get(productIndex);
+        final MultipleKnapsack multipleKnapsack = new MultipleKnapsack(table.getWeights(), table.getCosts(),
+                capacities);
 
-                // sum the cost and weight for comparison
-                totalWeight = totalWeight.add(product.getWeight());
-                totalCost = totalCost.add(product.getCost());
+        final long solveStart = PackMetrics.nanoTime();
+        final int[] assignment = multipleKnapsack.getBestAssignment(timeBudget.toNanos());
+        PackMetrics.lineSolved(MULTIPLE_KNAPSACK, PackMetrics.nanoTime() - solveStart);
+        PackMetrics.combinationsEvaluated(MULTIPLE_KNAPSACK, multipleKnapsack.getNodesExplored());
 
-                products.add(product);
+        final List<Pack> packs = new ArrayList<>(boxTables.length);
+        for (int box = 0; box < boxTables.length; box++) {
+            final BitSet selection = new BitSet(table.size());
+            for (int i = 0; i < assignment.length; i++) {
+                selection.set(i, assignment[i] == box);
             }
+            packs.add(boxTables[box].createPack(selection));
+        }
+
+        final MultiPack multiPack = new MultiPack(packs, multipleKnapsack.isOptimal());
+        LOG.info(() -> String.format("END getBetterMultiPack, multiPack={%s}", multiPack));
+
+        return multiPack;
+    }
+
+    /**
+     * Reads the weight limit and the products of a line, with the same validation of
+     * {@link #getBetterPackFromInputLine(CharSequence, PackConfig)}, without solving it.
+     *
+     * @param line   the string containing weight limit of box, and product data like index, cost and weight.
+     * @param config the limits of the line, e.g.: {@link PackConfig#STRICT}
+     * @return the {@link ProductTable} with the valid products, or null if the line cannot be read or is not valid.
+     */
+    public static ProductTable getProductTable(final CharSequence line, final PackConfig config) {
+        final LineScanner scanner = LineScanner.scan(line);
+        return scanner == null ? null : readProductTable(scanner, config, PackMetrics.nanoTime());
+    }
+
+    /**
+     * Checks a line with the same validation of {@link #getBetterPackFromInputLine(CharSequence, PackConfig)},
+     * without solving it nor counting it in the metrics. A blank line is valid.
+     *
+     * @param line   the string containing weight limit of box, and product data like index, cost and weight.
+     * @param config the limits of the line, e.g.: {@link PackConfig#STRICT}
+     * @throws APIException if the line cannot be read, exceeds the limits of the configuration,
+     *                      or its values do not fit in fixed point
+     */
+    public static void checkInputLine(final CharSequence line, final PackConfig config) {
+        final LineScanner scanner = LineScanner.scan(line);
+
+        if (scanner == null) {
+            return;
+        }
+
+        if (!validateFileContentConstraints(scanner.getWeightLimit(), scanner.getWeightLimitScale(),
+                scanner.getTotalProducts(), config)) {
+            throw new APIException(String.format("Line exceeded the limits of weight limit %d and products %d",
+                    config.getMaxWeightLimit(), config.getMaxProducts()));
+        }
 
-            // create new pack, to compare with better one
-            Pack newPack = new Pack(weightLimit, products, totalWeight, totalCost);
+        final ProductTable table = new ProductTable(scanner.getWeightLimit(), scanner.getWeightLimitScale());
 
-            // compare the packs and update if the new one is better
-            if (PackComparator.isNewPackBetter(betterPack, newPack)) {
-                betterPack = newPack;
+        while (scanner.nextProduct()) {
+            if (validateMaxCostAndWeightOfProduct(scanner.getWeight(), scanner.getWeightScale(), scanner.getCost(),
+                    scanner.getCostScale(), scanner.getWeightLimit(), scanner.getWeightLimitScale(), config)) {
+                table.add(scanner.getIndex(), scanner.getWeight(), scanner.getWeightScale(),
+                        scanner.getCost(), scanner.getCostScale());
             }
         }
 
-        LOG.info(String.format("END getBestProductsOption, betterPack={%s}", betterPack));
+        // the scale of the products can make the weight limit overflow
+        table.getCapacity();
+    }
 
-        return betterPack;
+    /**
+     * Based on input line, builds the cost/weight trade-off of its products, that gives the better pack for the
+     * weight limit of the line and for any lower one, with the limits of {@link PackConfig#STRICT}.
+     *
+     * @param line the string containing weight limit of box, and product data like index, cost and weight.
+     * @return the {@link ParetoCurve} of the line, or null if the line cannot be read or is not valid.
+     */
+    public static ParetoCurve getParetoCurve(final CharSequence line) {
+        return getParetoCurve(line, PackConfig.STRICT);
     }
 
-    private static boolean validateFileContentConstraints(final FileContentDto fileContentDto) {
-        boolean isOk = true;
+    /**
+     * Same as {@link #getParetoCurve(CharSequence)}, with the limits of the given configuration.
+     *
+     * @param line   the string containing weight limit of box, and product data like index, cost and weight.
+     * @param config the limits of the line, e.g.: {@link PackConfig#STRICT}
+     * @return the {@link ParetoCurve} of the line, or null if the line cannot be read or is not valid.
+     */
+    public static ParetoCurve getParetoCurve(final CharSequence line, final PackConfig config) {
+        LOG.info(() -> String.format("BEGIN getParetoCurve, line={%s}", line));
+
+        final ProductTable table = getProductTable(line, config);
+        final ParetoCurve curve = table == null ? null : new ParetoCurve(table);
 
-        if (fileContentDto == null) {
-            LOG.log(Level.WARNING, "The file is empty or null");
-            return false;
+        LOG.info(() -> String.format("END getParetoCurve, curve={%s}", curve));
+        return curve;
+    }
+
+    /**
+     * @return the table with the products that respect the weight limit and the cost, or null if the line is not valid.
+     */
+    private static ProductTable readProductTable(final LineScanner scanner, final PackConfig config,
+                                                 final long lineStart) {
+        final ProductTable table = new ProductTable(scanner.getWeightLimit(), scanner.getWeightLimitScale());
+
+        long validationStart = PackMetrics.nanoTime();
+        final boolean isValidLine = validateFileContentConstraints(scanner.getWeightLimit(),
+                scanner.getWeightLimitScale(), scanner.getTotalProducts(), config);
+        long validationNanos = PackMetrics.nanoTime() - validationStart;
+
+        if (!isValidLine) {
+            reportParsed(lineStart, validationNanos);
+            PackMetrics.lineRejected();
+            return null;
+        }
+
+        while (scanner.nextProduct()) {
+
+            // filter only products that respect the weight limit and cost
+            validationStart = PackMetrics.nanoTime();
+            final boolean isValidProduct = validateMaxCostAndWeightOfProduct(
+                    scanner.getWeight(), scanner.getWeightScale(), scanner.getCost(), scanner.getCostScale(),
+                    scanner.getWeightLimit(), scanner.getWeightLimitScale(), config);
+            validationNanos += PackMetrics.nanoTime() - validationStart;
+
+            if (isValidProduct) {
+                table.add(scanner.getIndex(), scanner.getWeight(), scanner.getWeightScale(),
+                        scanner.getCost(), scanner.getCostScale());
+            } else {
+                PackMetrics.productFiltered();
+            }
         }
 
-        if (fileContentDto.getWeightLimit().compareTo(MAX_WEIGHT_LIMIT) > 0) {
-            final String errorMsg = String.format("Weight of package (%f) exceeded 100", fileContentDto.getWeightLimit());
-            LOG.log(Level.WARNING, errorMsg);
+        reportParsed(lineStart, validationNanos);
+        return table;
+    }
+
+    /**
+     * @return the table with the products that respect the weight limit and the cost.
+     * @throws APIException if the weight limit or a product does not fit in fixed point
+     */
+    private static ProductTable getProductTable(final List<Product> products, final BigDecimal weightLimit,
+                                                final PackConfig config) {
+        final BigDecimal fixedPointLimit = toFixedPoint(weightLimit);
+        final long unscaledWeightLimit = fixedPointLimit.unscaledValue().longValue();
+        final ProductTable table = new ProductTable(unscaledWeightLimit, fixedPointLimit.scale());
+
+        for (Product product : products) {
+            final BigDecimal productWeight = toFixedPoint(product.getWeight());
+            final BigDecimal productCost = toFixedPoint(product.getCost());
+            final long weight = productWeight.unscaledValue().longValue();
+            final long cost = productCost.unscaledValue().longValue();
+
+            if (validateMaxCostAndWeightOfProduct(weight, productWeight.scale(), cost,
+                    productCost.scale(), unscaledWeightLimit, fixedPointLimit.scale(), config)) {
+                table.add(product.getIndex(), weight, productWeight.scale(), cost, productCost.scale());
+            } else {
+                PackMetrics.productFiltered();
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * The numbers of a line are read into an unscaled long and its scale (e.g.: 53.38 is 5338 with scale 2),
+     * so the numbers given as {@link BigDecimal} must fit in them too.
+     *
+     * @return the value with a scale that is not negative (e.g.: 1E+3 is 1000).
+     * @throws APIException if the unscaled value does not fit in a long
+     */
+    static BigDecimal toFixedPoint(final BigDecimal value) {
+        final BigDecimal fixedPoint = value.scale() < 0 ? value.setScale(0) : value;
+
+        if (fixedPoint.unscaledValue().bitLength() >= Long.SIZE) {
+            final String errorMsg = String.format("Error to convert number to fixed point, content=\"%s\"",
+                    value.toPlainString());
+            LOG.log(Level.SEVERE, errorMsg);
+            throw new APIException(errorMsg);
+        }
+
+        return fixedPoint;
+    }
+
+    private static BitSet getBestProductsOption(final ProductTable table, final SolverSelection solverSelection) {
+        LOG.info(() -> String.format("BEGIN getBestProductsOption, table={%s}, solverSelection={%s}",
+                table, solverSelection));
+
+        final PackSolver solver = solverSelection.getSolver();
+
+        final long solveStart = PackMetrics.nanoTime();
+        final BitSet selection = solver.solve(table);
+        PackMetrics.lineSolved(solver.getName(), PackMetrics.nanoTime() - solveStart);
+
+        LOG.info(() -> String.format("END getBestProductsOption, selection={%s}", selection));
+
+        return selection;
+    }
+
+    /**
+     * The parse time is the time since the beginning of the line, without the validation.
+     */
+    private static void reportParsed(final long lineStart, final long validationNanos) {
+        PackMetrics.lineParsed(PackMetrics.nanoTime() - lineStart - validationNanos);
+        PackMetrics.lineValidated(validationNanos);
+    }
+
+    /**
+     * @return true if the line has more products or a higher weight limit than the strict mode allows.
+     */
+    private static boolean isExtendedLine(final LineScanner scanner, final ProductTable table) {
+        return table.size() > PackConfig.STRICT.getMaxProducts()
+                || compare(scanner.getWeightLimit(), scanner.getWeightLimitScale(),
+                PackConfig.STRICT.getMaxWeightLimit(), 0) > 0;
+    }
+
+    static boolean validateFileContentConstraints(final long weightLimit, final int weightLimitScale,
+                                                  final int totalProducts, final PackConfig config) {
+        boolean isOk = true;
+
+        if (compare(weightLimit, weightLimitScale, config.getMaxWeightLimit(), 0) > 0) {
+            LOG.log(Level.WARNING, () -> String.format("Weight of package (%f) exceeded %d",
+                    BigDecimal.valueOf(weightLimit, weightLimitScale), config.getMaxWeightLimit()));
             isOk = false;
         }
 
-        int totalProducts = fileContentDto.getProductsAsString().length;
-        if (totalProducts > MAX_PRODUCTS_LIMIT) {
-            final String errorMsg = String.format("Limit of products (%d) exceeded 15", totalProducts);
-            LOG.log(Level.WARNING, errorMsg);
+        if (totalProducts > config.getMaxProducts()) {
+            LOG.log(Level.WARNING, () -> String.format("Limit of products (%d) exceeded %d",
+                    totalProducts, config.getMaxProducts()));
             isOk = false;
         }
 
         return isOk;
     }
 
-    private static boolean validateMaxCostAndWeightOfProduct(final Product product, final BigDecimal weightLimit) {
+    static boolean validateMaxCostAndWeightOfProduct(final long weight, final int weightScale,
+                                                     final long cost, final int costScale,
+                                                     final long weightLimit, final int weightLimitScale,
+                                                     final PackConfig config) {
         boolean isOk = true;
 
-        if (product.getWeight().compareTo(weightLimit) > 0) {
-            final String errorMsg = String.format("Weight of product (%f) is heavier than package limit (%f)",
-                    product.getWeight(), weightLimit);
-            LOG.log(Level.WARNING, errorMsg);
+        if (compare(weight, weightScale, weightLimit, weightLimitScale) > 0) {
+            LOG.log(Level.WARNING, () -> String.format("Weight of product (%f) is heavier than package limit (%f)",
+                    BigDecimal.valueOf(weight, weightScale), BigDecimal.valueOf(weightLimit, weightLimitScale)));
             isOk = false;
         }
 
-        if (product.getWeight().compareTo(MAX_WEIGHT_LIMIT) > 0) {
-            final String errorMsg = String.format("Weight of product (%f) exceeded 100", product.getWeight());
-            LOG.log(Level.WARNING, errorMsg);
+        if (compare(weight, weightScale, config.getMaxWeightLimit(), 0) > 0) {
+            LOG.log(Level.WARNING, () -> String.format("Weight of product (%f) exceeded %d",
+                    BigDecimal.valueOf(weight, weightScale), config.getMaxWeightLimit()));
             isOk = false;
         }
 
-        if (product.getCost().compareTo(MAX_COST_LIMIT) > 0) {
-            final String errorMsg = String.format("Cost of product (%f) exceeded 100", product.getCost());
-            LOG.log(Level.WARNING, errorMsg);
+        if (compare(cost, costScale, config.getMaxCost(), 0) > 0) {
+            LOG.log(Level.WARNING, () -> String.format("Cost of product (%f) exceeded %d",
+                    BigDecimal.valueOf(cost, costScale), config.getMaxCost()));
             isOk = false;
         }
 
         return isOk;
     }
 
+    /**
+     * Compares two fixed-point values (e.g.: 5338 with scale 2 and 81 with scale 0), without {@link BigDecimal}
+     * unless the value with the lowest scale overflows when moved to the other scale.
+     */
+    private static int compare(final long value, final int scale, final long other, final int otherScale) {
+        long left = value;
+        long right = other;
+
+        try {
+            for (int i = scale; i < otherScale; i++) {
+                left = Math.multiplyExact(left, 10);
+            }
+            for (int i = otherScale; i < scale; i++) {
+                right = Math.multiplyExact(right, 10);
+            }
+        } catch (ArithmeticException ex) {
+            return BigDecimal.valueOf(value, scale).compareTo(BigDecimal.valueOf(other, otherScale));
+        }
+
+        return Long.compare(left, right);
+    }
+
 }
@@ -0,0 +1,116 @@
+package com.mobiquity.packer.strategy;
+
+import com.mobiquity.algorithm.ParetoFrontier;
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.model.Pack;
+import com.mobiquity.packer.model.ProductTable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The cost/weight trade-off of the products of a line: the packs that no other pack beats, built in one pass
+ * by {@link ParetoFrontier}. The better pack for any weight limit up to the one of the line is taken from it,
+ * without solving the line again, and it is the same pack (in cost and weight) that
+ * {@link PackStrategy#getBetterPackFromInputLine(CharSequence)} returns for the line with that limit.
+ */
+public class ParetoCurve {
+
+    private final ProductTable table;
+    private final ParetoFrontier frontier;
+
+    /**
+     * Default class constructor.
+     * @param table the valid products of the line, with its weight limit
+     */
+    public ParetoCurve(final ProductTable table) {
+        this.table = table;
+        this.frontier = ParetoFrontier.of(table.getWeights(), table.getCosts(), table.getCapacity());
+    }
+
+    public BigDecimal getWeightLimit() {
+        return table.getWeightLimit();
+    }
+
+    /**
+     * @return the packs that no other pack beats (lighter, or as heavy and more expensive), sorted by weight,
+     * without the empty pack.
+     */
+    public List<Pack> getPacks() {
+        final List<Pack> packs = new ArrayList<>(frontier.getPoints());
+
+        for (int point = 0; point < frontier.getPoints(); point++) {
+            final int[] positions = frontier.getElements(point);
+
+            if (positions.length > 0) {
+                packs.add(table.createPack(toSelection(positions)));
+            }
+        }
+
+        return packs;
+    }
+
+    /**
+     * @param weightLimit the weight limit, not higher than the one of the line
+     * @return the {@link Pack} with better option of cost and weight for the weight limit.
+     * @throws APIException if the weight limit is higher than the one of the line
+     */
+    public Pack getBetterPack(final BigDecimal weightLimit) {
+        if (weightLimit.compareTo(table.getWeightLimit()) > 0) {
+            throw new APIException(String.format("Weight limit (%s) exceeded the limit of the line (%s)",
+                    weightLimit.toPlainString(), table.getWeightLimit().toPlainString()));
+        }
+
+        return getBetterPack(table.withWeightLimit(weightLimit.unscaledValue().longValueExact(),
+                weightLimit.scale()), frontier);
+    }
+
+    /**
+     * @return the better pack for each integer weight limit from 1 to the one of the line,
+     * where the pack for the limit w is in the position w - 1.
+     */
+    public List<Pack> getBetterPacksForEachWeightLimit() {
+        final int maxWeightLimit = table.getWeightLimit().setScale(0, RoundingMode.FLOOR).intValueExact();
+        final List<Pack> packs = new ArrayList<>(Math.max(0, maxWeightLimit));
+
+        for (int weightLimit = 1; weightLimit <= maxWeightLimit; weightLimit++) {
+            packs.add(getBetterPack(BigDecimal.valueOf(weightLimit)));
+        }
+
+        return packs;
+    }
+
+    /**
+     * Takes the better pack from the frontier, as the strategy does: when all products that are not heavier
+     * than the limit fit together, all of them are in the pack.
+     *
+     * @param table    the products, with the weight limit of the pack
+     * @param frontier the frontier of the products, with a capacity not lower than the one of the table
+     */
+    static Pack getBetterPack(final ProductTable table, final ParetoFrontier frontier) {
+        final long capacity = table.getCapacity();
+        final BitSet fittingProducts = new BitSet(table.size());
+        final long[] weights = table.getWeights();
+        for (int i = 0; i < weights.length; i++) {
+            fittingProducts.set(i, weights[i] <= capacity);
+        }
+
+        if (table.getTotalWeight(fittingProducts) <= capacity) {
+            return table.createPack(fittingProducts);
+        }
+
+        final int best = frontier.findBest(capacity);
+        return table.createPack(best < 0 ? new BitSet() : toSelection(frontier.getElements(best)));
+    }
+
+    private static BitSet toSelection(final int[] positions) {
+        final BitSet selection = new BitSet();
+        for (int position : positions) {
+            selection.set(position);
+        }
+        return selection;
+    }
+}
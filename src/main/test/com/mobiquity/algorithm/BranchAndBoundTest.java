@@ -0,0 +1,145 @@
+package com.mobiquity.algorithm;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class {@link BranchAndBound}
+ */
+public class BranchAndBoundTest {
+
+    @Test
+    public void givenNoElements_whenCallGetBestCombination_shouldReturnEmpty() {
+        final BranchAndBound branchAndBound = new BranchAndBound(new long[0], new long[0], 1000);
+        assertArrayEquals(new int[0], branchAndBound.getBestCombination());
+        assertEquals(1, branchAndBound.getNodesExplored());
+    }
+
+    @Test
+    public void givenElementHeavierThanCapacity_whenCallGetBestCombination_shouldReturnEmpty() {
+        final BranchAndBound branchAndBound = new BranchAndBound(new long[]{1530}, new long[]{3400}, 800);
+        assertArrayEquals(new int[0], branchAndBound.getBestCombination());
+    }
+
+    @Test
+    public void givenTwoElementsOverCapacity_whenCallGetBestCombination_shouldReturnTheOneWithHigherCost() {
+        final BranchAndBound branchAndBound = new BranchAndBound(new long[]{500, 501}, new long[]{801, 802}, 1000);
+        assertArrayEquals(new int[]{1}, branchAndBound.getBestCombination());
+    }
+
+    @Test
+    public void givenTwoSelectionsWithSameCost_whenCallGetBestCombination_shouldReturnTheLighterOne() {
+        // [0] and [1, 2] costs the same, but [1, 2] is lighter
+        final BranchAndBound branchAndBound =
+                new BranchAndBound(new long[]{900, 300, 400}, new long[]{50, 20, 30}, 1000);
+        assertArrayEquals(new int[]{1, 2}, branchAndBound.getBestCombination());
+    }
+
+    @Test
+    public void givenCostsAndWeightsWhoseProductOverflows_whenCallSortByRatio_shouldPutTheBestRatioFirst() {
+        // 2^33 * 2^31 overflows a long, but the ratio of [1] (2^33) is higher than the one of [0] (2^9)
+        final int[] order = BranchAndBound.sortByRatio(new long[]{1L << 31, 1}, new long[]{1L << 40, 1L << 33});
+        assertArrayEquals(new int[]{1, 0}, order);
+    }
+
+    @Test
+    public void givenElementsWithoutWeight_whenCallSortByRatio_shouldPutThemFirst() {
+        final int[] order = BranchAndBound.sortByRatio(new long[]{5, 0, 2, 0}, new long[]{10, 0, 1, 3});
+        assertArrayEquals(new int[]{1, 3, 0, 2}, order);
+    }
+
+    @Test
+    public void givenRandomElements_whenCallGetBestCombination_shouldReturnSameCostAndWeightAsKnapsack() {
+        final Random random = new Random(7);
+
+        for (int round = 0; round < 100; round++) {
+            final int elements = 1 + random.nextInt(40);
+            final int capacity = random.nextInt(10000);
+            final int[] weights = random.ints(elements, 1, 10000).toArray();
+            final int[] costs = random.ints(elements, 1, 10000).toArray();
+
+            final BranchAndBound branchAndBound = new BranchAndBound(
+                    toLong(weights), toLong(costs), capacity);
+
+            final int[] expected = KnapsackDp.getBestCombination(weights, costs, capacity);
+            final int[] result = branchAndBound.getBestCombination();
+
+            assertEquals(sum(costs, expected), sum(costs, result));
+            assertEquals(sum(weights, expected), sum(weights, result));
+        }
+    }
+
+    @Test
+    public void givenManyElements_whenCallGetBestCombination_shouldPruneMostOfTheNodes() {
+        final Random random = new Random(11);
+        final long[] weights = random.longs(200, 1, 10000).toArray();
+        final long[] costs = random.longs(200, 1, 10000).toArray();
+
+        final BranchAndBound branchAndBound = new BranchAndBound(weights, costs, 100000);
+        assertTrue(branchAndBound.getBestCombination().length > 0);
+        assertTrue(branchAndBound.getNodesPruned() > 0);
+        assertTrue(branchAndBound.getNodesExplored() < 10_000_000);
+    }
+
+    @Test
+    public void givenTimeBudget_whenCallGetBestCombination_shouldReturnSameCostAndWeightAsWithoutBudget() {
+        final Random random = new Random(13);
+
+        for (int round = 0; round < 100; round++) {
+            final long[] weights = random.longs(1 + random.nextInt(20), 1, 10000).toArray();
+            final long[] costs = random.longs(weights.length, 0, 10000).toArray();
+            final long capacity = random.nextInt(50000);
+
+            final BranchAndBound branchAndBound = new BranchAndBound(weights, costs, capacity);
+            final int[] expected = branchAndBound.getBestCombination();
+            final int[] result = branchAndBound.getBestCombination(Long.MAX_VALUE);
+
+            assertTrue(branchAndBound.isOptimal());
+            assertEquals(sum(costs, expected), sum(costs, result));
+            assertEquals(sum(weights, expected), sum(weights, result));
+        }
+    }
+
+    @Test
+    public void givenNoTimeBudget_whenCallGetBestCombination_shouldReturnTheGreedySelection() {
+        // strongly correlated costs, so the bound prunes little
+        final Random random = new Random(19);
+        final long[] weights = random.longs(200, 1000, 10000).toArray();
+        final long[] costs = Arrays.stream(weights).map(weight -> weight + 100).toArray();
+
+        final BranchAndBound branchAndBound = new BranchAndBound(weights, costs, 250_000);
+        final int[] result = branchAndBound.getBestCombination(0);
+
+        assertFalse(branchAndBound.isOptimal());
+        assertTrue(result.length > 0);
+        assertTrue(sum(weights, result) <= 250_000);
+    }
+
+    private static long[] toLong(final int[] values) {
+        final long[] result = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
+    private static long sum(final long[] values, final int[] positions) {
+        long total = 0;
+        for (int position : positions) {
+            total += values[position];
+        }
+        return total;
+    }
+
+    private static int sum(final int[] values, final int[] positions) {
+        int total = 0;
+        for (int position : positions) {
+            total += values[position];
+        }
+        return total;
+    }
+}
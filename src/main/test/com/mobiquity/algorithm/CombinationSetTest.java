@@ -1,6 +1,6 @@
 package com.mobiquity.algorithm;
 
-import com.mobiquity.algorithm.CombinationSet;
+import com.mobiquity.exception.APIException;
 import org.junit.Test;
 
 import java.util.*;
@@ -62,4 +62,32 @@ public class CombinationSetTest {
         assertEquals(expectedValues, result);
     }
 
+    @Test
+    public void givenNoElements_whenCallGetBestCombinationMask_shouldReturnZero() {
+        assertEquals(0, CombinationSet.getBestCombinationMask(new long[0], new long[0], 1000));
+    }
+
+    @Test
+    public void givenElementHeavierThanCapacity_whenCallGetBestCombinationMask_shouldReturnZero() {
+        assertEquals(0, CombinationSet.getBestCombinationMask(new long[]{1530}, new long[]{3400}, 800));
+    }
+
+    @Test
+    public void givenTwoElementsOverCapacity_whenCallGetBestCombinationMask_shouldReturnTheOneWithHigherCost() {
+        assertEquals(0b10, CombinationSet.getBestCombinationMask(new long[]{500, 501}, new long[]{801, 802}, 1000));
+    }
+
+    @Test
+    public void givenTwoCombinationsWithSameCost_whenCallGetBestCombinationMask_shouldReturnTheLighterOne() {
+        // [0] and [1, 2] costs the same, but [1, 2] is lighter
+        final int result = CombinationSet.getBestCombinationMask(
+                new long[]{9000, 3000, 4000}, new long[]{50, 20, 30}, 10000);
+        assertEquals(0b110, result);
+    }
+
+    @Test(expected = APIException.class)
+    public void givenMoreElementsThanMaskSupports_whenCallGetBestCombinationMask_shouldThrowException() {
+        CombinationSet.getBestCombinationMask(new long[31], new long[31], 1000);
+    }
+
 }
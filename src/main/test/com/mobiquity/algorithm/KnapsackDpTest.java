@@ -0,0 +1,42 @@
+package com.mobiquity.algorithm;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Unit tests for class {@link KnapsackDp}
+ */
+public class KnapsackDpTest {
+
+    @Test
+    public void givenNoElements_whenCallGetBestCombination_shouldReturnEmpty() {
+        assertArrayEquals(new int[0], KnapsackDp.getBestCombination(new int[0], new int[0], 1000));
+    }
+
+    @Test
+    public void givenElementHeavierThanCapacity_whenCallGetBestCombination_shouldReturnEmpty() {
+        assertArrayEquals(new int[0], KnapsackDp.getBestCombination(new int[]{1530}, new int[]{3400}, 800));
+    }
+
+    @Test
+    public void givenTwoElementsOverCapacity_whenCallGetBestCombination_shouldReturnTheOneWithHigherCost() {
+        final int[] result = KnapsackDp.getBestCombination(new int[]{500, 501}, new int[]{801, 802}, 1000);
+        assertArrayEquals(new int[]{1}, result);
+    }
+
+    @Test
+    public void givenTwoSelectionsWithSameCost_whenCallGetBestCombination_shouldReturnTheLighterOne() {
+        // [0] and [1, 2] costs the same, but [1, 2] is lighter
+        final int[] result = KnapsackDp.getBestCombination(new int[]{900, 300, 400}, new int[]{50, 20, 30}, 1000);
+        assertArrayEquals(new int[]{1, 2}, result);
+    }
+
+    @Test
+    public void givenInputExampleScenario3_whenCallGetBestCombination_shouldReturnPositions1And6() {
+        final int[] weights = {8531, 1455, 398, 2624, 6369, 7625, 6002, 9318, 8995};
+        final int[] costs = {2900, 7400, 1600, 5500, 5200, 7500, 7400, 3500, 7800};
+
+        assertArrayEquals(new int[]{1, 6}, KnapsackDp.getBestCombination(weights, costs, 7500));
+    }
+}
@@ -0,0 +1,75 @@
+package com.mobiquity.algorithm;
+
+import com.mobiquity.exception.APIException;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for class {@link MeetInTheMiddle}
+ */
+public class MeetInTheMiddleTest {
+
+    @Test
+    public void givenNoElements_whenCallGetBestCombination_shouldReturnEmpty() {
+        assertArrayEquals(new int[0], MeetInTheMiddle.getBestCombination(new long[0], new long[0], 1000));
+    }
+
+    @Test
+    public void givenElementHeavierThanCapacity_whenCallGetBestCombination_shouldReturnEmpty() {
+        assertArrayEquals(new int[0], MeetInTheMiddle.getBestCombination(new long[]{1530}, new long[]{3400}, 800));
+    }
+
+    @Test
+    public void givenTwoElementsOverCapacity_whenCallGetBestCombination_shouldReturnTheOneWithHigherCost() {
+        final int[] result = MeetInTheMiddle.getBestCombination(new long[]{500, 501}, new long[]{801, 802}, 1000);
+        assertArrayEquals(new int[]{1}, result);
+    }
+
+    @Test
+    public void givenTwoSelectionsWithSameCost_whenCallGetBestCombination_shouldReturnTheLighterOne() {
+        // [0] and [1, 2] costs the same, but [1, 2] is lighter
+        final int[] result = MeetInTheMiddle.getBestCombination(
+                new long[]{900, 300, 400}, new long[]{50, 20, 30}, 1000);
+        assertArrayEquals(new int[]{1, 2}, result);
+    }
+
+    @Test(expected = APIException.class)
+    public void givenMoreElementsThanHalvesSupport_whenCallGetBestCombination_shouldThrowException() {
+        MeetInTheMiddle.getBestCombination(new long[51], new long[51], 1000);
+    }
+
+    @Test
+    public void givenRandomElements_whenCallGetBestCombination_shouldReturnSameCostAndWeightAsCombinationMask() {
+        final Random random = new Random(3);
+
+        for (int round = 0; round < 100; round++) {
+            final int elements = 1 + random.nextInt(16);
+            final long capacity = random.nextInt(100000);
+            final long[] weights = random.longs(elements, 1, 100000).toArray();
+            final long[] costs = random.longs(elements, 1, 100).toArray();
+
+            final int expectedMask = CombinationSet.getBestCombinationMask(weights, costs, capacity);
+            final int[] result = MeetInTheMiddle.getBestCombination(weights, costs, capacity);
+
+            int resultMask = 0;
+            for (int position : result) {
+                resultMask |= 1 << position;
+            }
+
+            assertEquals(sum(costs, expectedMask), sum(costs, resultMask));
+            assertEquals(sum(weights, expectedMask), sum(weights, resultMask));
+        }
+    }
+
+    private static long sum(final long[] values, final int mask) {
+        long total = 0;
+        for (int i = 0; i < values.length; i++) {
+            total += (mask & (1 << i)) != 0 ? values[i] : 0;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,154 @@
+package com.mobiquity.algorithm;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class {@link MultipleKnapsack}
+ */
+public class MultipleKnapsackTest {
+
+    private static final long NO_TIME_LIMIT = Long.MAX_VALUE;
+
+    @Test
+    public void givenNoElements_whenCallGetBestAssignment_shouldReturnEmpty() {
+        final MultipleKnapsack multipleKnapsack = new MultipleKnapsack(new long[0], new long[0], new long[]{100, 200});
+        assertArrayEquals(new int[0], multipleKnapsack.getBestAssignment(NO_TIME_LIMIT));
+        assertTrue(multipleKnapsack.isOptimal());
+    }
+
+    @Test
+    public void givenTwoBoxes_whenCallGetBestAssignment_shouldUseBothBoxes() {
+        final MultipleKnapsack multipleKnapsack = new MultipleKnapsack(
+                new long[]{30, 20, 20}, new long[]{40, 25, 25}, new long[]{40, 20});
+        assertArrayEquals(new int[]{0, 1, -1}, multipleKnapsack.getBestAssignment(NO_TIME_LIMIT));
+    }
+
+    @Test
+    public void givenGreedyNotOptimal_whenCallGetBestAssignment_shouldFindTheBetterAssignment() {
+        // greedy puts [0] in the box of 60, and the rest does not fit the box of 40 together
+        final MultipleKnapsack multipleKnapsack = new MultipleKnapsack(
+                new long[]{35, 30, 30, 20, 20}, new long[]{50, 40, 40, 26, 26}, new long[]{60, 40});
+        final int[] assignment = multipleKnapsack.getBestAssignment(NO_TIME_LIMIT);
+
+        assertEquals(bruteForceCost(new long[]{35, 30, 30, 20, 20}, new long[]{50, 40, 40, 26, 26},
+                new long[]{60, 40}), getCost(new long[]{50, 40, 40, 26, 26}, assignment));
+        assertTrue(multipleKnapsack.isOptimal());
+    }
+
+    @Test
+    public void givenOneBox_whenCallGetBestAssignment_shouldReturnSameAsBranchAndBound() {
+        final Random random = new Random(3);
+
+        for (int round = 0; round < 100; round++) {
+            final int n = 1 + random.nextInt(15);
+            final long[] weights = new long[n];
+            final long[] costs = new long[n];
+            for (int i = 0; i < n; i++) {
+                weights[i] = 1 + random.nextInt(10000);
+                costs[i] = random.nextInt(10000);
+            }
+            final long capacity = random.nextInt(20000);
+
+            final int[] assignment = new MultipleKnapsack(weights, costs, new long[]{capacity})
+                    .getBestAssignment(NO_TIME_LIMIT);
+            final int[] positions = new BranchAndBound(weights, costs, capacity).getBestCombination();
+
+            long expectedCost = 0;
+            long expectedWeight = 0;
+            for (int position : positions) {
+                expectedCost += costs[position];
+                expectedWeight += weights[position];
+            }
+
+            assertEquals(expectedCost, getCost(costs, assignment));
+            assertEquals(expectedWeight, getCost(weights, assignment));
+        }
+    }
+
+    @Test
+    public void givenRandomElements_whenCallGetBestAssignment_shouldReturnSameCostAsBruteForce() {
+        final Random random = new Random(17);
+
+        for (int round = 0; round < 100; round++) {
+            final int n = 1 + random.nextInt(8);
+            final long[] weights = new long[n];
+            final long[] costs = new long[n];
+            for (int i = 0; i < n; i++) {
+                weights[i] = 1 + random.nextInt(50);
+                costs[i] = random.nextInt(100);
+            }
+            final long[] capacities = new long[1 + random.nextInt(3)];
+            for (int box = 0; box < capacities.length; box++) {
+                capacities[box] = random.nextInt(80);
+            }
+
+            final int[] assignment = new MultipleKnapsack(weights, costs, capacities).getBestAssignment(NO_TIME_LIMIT);
+
+            final long[] usedCapacities = new long[capacities.length];
+            for (int i = 0; i < n; i++) {
+                if (assignment[i] != MultipleKnapsack.NO_BOX) {
+                    usedCapacities[assignment[i]] += weights[i];
+                }
+            }
+            for (int box = 0; box < capacities.length; box++) {
+                assertTrue(usedCapacities[box] <= capacities[box]);
+            }
+
+            assertEquals(bruteForceCost(weights, costs, capacities), getCost(costs, assignment));
+        }
+    }
+
+    @Test
+    public void givenNoTimeBudget_whenCallGetBestAssignment_shouldReturnTheGreedyAssignment() {
+        final Random random = new Random(5);
+        final int n = 60;
+        final long[] weights = new long[n];
+        final long[] costs = new long[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = 1000 + random.nextInt(100);
+            costs[i] = 1000 + random.nextInt(100);
+        }
+
+        final MultipleKnapsack multipleKnapsack = new MultipleKnapsack(weights, costs, new long[]{10000, 7500, 5000});
+        final int[] assignment = multipleKnapsack.getBestAssignment(0);
+
+        assertFalse(multipleKnapsack.isOptimal());
+        assertTrue(getCost(costs, assignment) > 0);
+    }
+
+    private static long getCost(final long[] costs, final int[] assignment) {
+        long cost = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            cost += assignment[i] != MultipleKnapsack.NO_BOX ? costs[i] : 0;
+        }
+        return cost;
+    }
+
+    private static long bruteForceCost(final long[] weights, final long[] costs, final long[] capacities) {
+        return bruteForceCost(weights, costs, capacities.clone(), 0);
+    }
+
+    private static long bruteForceCost(final long[] weights, final long[] costs, final long[] remainingCapacities,
+                                       final int position) {
+        if (position == weights.length) {
+            return 0;
+        }
+
+        long best = bruteForceCost(weights, costs, remainingCapacities, position + 1);
+
+        for (int box = 0; box < remainingCapacities.length; box++) {
+            if (weights[position] <= remainingCapacities[box]) {
+                remainingCapacities[box] -= weights[position];
+                best = Math.max(best,
+                        costs[position] + bruteForceCost(weights, costs, remainingCapacities, position + 1));
+                remainingCapacities[box] += weights[position];
+            }
+        }
+
+        return best;
+    }
+}
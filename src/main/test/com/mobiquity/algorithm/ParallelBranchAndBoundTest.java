@@ -0,0 +1,74 @@
+package com.mobiquity.algorithm;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class {@link ParallelBranchAndBound}
+ */
+public class ParallelBranchAndBoundTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void givenNoElements_whenCallGetBestCombination_shouldReturnEmpty() {
+        final ParallelBranchAndBound branchAndBound =
+                new ParallelBranchAndBound(new long[0], new long[0], 1000, pool);
+        assertArrayEquals(new int[0], branchAndBound.getBestCombination());
+    }
+
+    @Test
+    public void givenTwoSelectionsWithSameCost_whenCallGetBestCombination_shouldReturnTheLighterOne() {
+        final ParallelBranchAndBound branchAndBound =
+                new ParallelBranchAndBound(new long[]{900, 300, 400}, new long[]{50, 20, 30}, 1000, pool);
+        assertArrayEquals(new int[]{1, 2}, branchAndBound.getBestCombination());
+    }
+
+    @Test
+    public void givenRandomElements_whenCallGetBestCombination_shouldReturnSameSelectionAsSequential() {
+        final Random random = new Random(19);
+
+        for (int round = 0; round < 200; round++) {
+            final int elements = 1 + random.nextInt(60);
+            final long capacity = random.nextInt(10000);
+
+            // few distinct values in half of the rounds, so many selections have the same cost and weight
+            final int maxValue = round % 2 == 0 ? 10000 : 5;
+            final long[] weights = random.longs(elements, 1, maxValue + 1).toArray();
+            final long[] costs = random.longs(elements, 1, maxValue + 1).toArray();
+            if (maxValue == 5) {
+                for (int i = 0; i < elements; i++) {
+                    weights[i] *= 1000;
+                }
+            }
+
+            final int[] expected = new BranchAndBound(weights, costs, capacity).getBestCombination();
+            final int[] result = new ParallelBranchAndBound(weights, costs, capacity, pool).getBestCombination();
+
+            assertArrayEquals(expected, result);
+        }
+    }
+
+    @Test
+    public void givenManyElements_whenCallGetBestCombination_shouldPruneMostOfTheNodes() {
+        final Random random = new Random(11);
+        final long[] weights = random.longs(200, 1, 10000).toArray();
+        final long[] costs = random.longs(200, 1, 10000).toArray();
+
+        final ParallelBranchAndBound branchAndBound = new ParallelBranchAndBound(weights, costs, 100000, pool);
+        assertArrayEquals(new BranchAndBound(weights, costs, 100000).getBestCombination(),
+                branchAndBound.getBestCombination());
+        assertTrue(branchAndBound.getNodesPruned() > 0);
+        assertTrue(branchAndBound.getNodesExplored() < 10_000_000);
+    }
+}
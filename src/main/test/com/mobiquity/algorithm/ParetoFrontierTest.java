@@ -0,0 +1,90 @@
+package com.mobiquity.algorithm;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class {@link ParetoFrontier}
+ */
+public class ParetoFrontierTest {
+
+    @Test
+    public void givenNoElements_whenCallFindBest_shouldReturnEmptySelection() {
+        final ParetoFrontier frontier = new ParetoFrontier(1000);
+
+        assertEquals(1, frontier.getPoints());
+        assertArrayEquals(new int[0], frontier.getElements(frontier.findBest(1000)));
+    }
+
+    @Test
+    public void givenElements_whenBuildFrontier_shouldKeepOnlyNotDominatedPoints() {
+        // [0] and [1, 2] costs the same, but [1, 2] is lighter, so [0] is not in the frontier
+        final ParetoFrontier frontier = ParetoFrontier.of(new long[]{900, 300, 400}, new long[]{50, 20, 30}, 1000);
+
+        final long[] expectedWeights = {0, 300, 400, 700};
+        final long[] expectedCosts = {0, 20, 30, 50};
+
+        assertEquals(expectedWeights.length, frontier.getPoints());
+        for (int point = 0; point < frontier.getPoints(); point++) {
+            assertEquals(expectedWeights[point], frontier.getWeight(point));
+            assertEquals(expectedCosts[point], frontier.getCost(point));
+        }
+        assertArrayEquals(new int[]{1, 2}, frontier.getElements(frontier.findBest(1000)));
+        assertArrayEquals(new int[]{2}, frontier.getElements(frontier.findBest(699)));
+        assertEquals(-1, frontier.findBest(-1));
+    }
+
+    @Test
+    public void givenTruncatedFrontier_whenAddOtherElement_shouldReturnSameAsNewFrontier() {
+        final ParetoFrontier frontier = ParetoFrontier.of(new long[]{500, 501, 200}, new long[]{801, 802, 100}, 1000);
+        frontier.truncate(1);
+        frontier.add(400, 900);
+
+        final ParetoFrontier expected = ParetoFrontier.of(new long[]{500, 400}, new long[]{801, 900}, 1000);
+
+        assertEquals(2, frontier.size());
+        assertEquals(expected.getPoints(), frontier.getPoints());
+        assertArrayEquals(new int[]{0, 1}, frontier.getElements(frontier.findBest(1000)));
+    }
+
+    @Test
+    public void givenRandomElements_whenCallFindBestForEachLimit_shouldReturnSameCostAndWeightAsKnapsack() {
+        final Random random = new Random(23);
+
+        for (int round = 0; round < 50; round++) {
+            final int elements = 1 + random.nextInt(20);
+            final int capacity = random.nextInt(2000);
+            final int[] weights = random.ints(elements, 1, 500).toArray();
+            final int[] costs = random.ints(elements, 1, 500).toArray();
+
+            final ParetoFrontier frontier = ParetoFrontier.of(toLong(weights), toLong(costs), capacity);
+
+            for (int limit = 0; limit <= capacity; limit += 1 + random.nextInt(50)) {
+                final int[] expected = KnapsackDp.getBestCombination(weights, costs, limit);
+                final int[] result = frontier.getElements(frontier.findBest(limit));
+
+                assertEquals(sum(costs, expected), sum(costs, result));
+                assertEquals(sum(weights, expected), sum(weights, result));
+            }
+        }
+    }
+
+    private static long[] toLong(final int[] values) {
+        final long[] result = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
+    private static int sum(final int[] values, final int[] positions) {
+        int total = 0;
+        for (int position : positions) {
+            total += values[position];
+        }
+        return total;
+    }
+}
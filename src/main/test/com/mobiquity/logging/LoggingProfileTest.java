@@ -0,0 +1,67 @@
+package com.mobiquity.logging;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for class {@link LoggingProfile}
+ */
+public class LoggingProfileTest {
+
+    private static final Logger LOG = Logger.getLogger("PackStrategy");
+
+    private static final Logger ROOT = Logger.getLogger("");
+
+    // the configuration before each test, e.g. the one of java.util.logging.config.file
+    private Level savedRootLevel;
+    private Level savedLevel;
+    private boolean wasInfoLoggable;
+
+    @Before
+    public void setUp() {
+        savedRootLevel = ROOT.getLevel();
+        savedLevel = LOG.getLevel();
+        wasInfoLoggable = LOG.isLoggable(Level.INFO);
+    }
+
+    @After
+    public void tearDown() {
+        LoggingProfile.useDefault();
+        ROOT.setLevel(savedRootLevel);
+        LOG.setLevel(savedLevel);
+    }
+
+    @Test
+    public void givenQuietProfile_whenCheckLevel_shouldLogOnlyErrors() {
+        LoggingProfile.useQuiet();
+
+        assertFalse(LOG.isLoggable(Level.INFO));
+        assertFalse(LOG.isLoggable(Level.WARNING));
+        assertTrue(LOG.isLoggable(Level.SEVERE));
+    }
+
+    @Test
+    public void givenQuietProfile_whenCallUseDefault_shouldLogInfoAsBefore() {
+        LoggingProfile.useQuiet();
+        LoggingProfile.useDefault();
+
+        assertEquals(wasInfoLoggable, LOG.isLoggable(Level.INFO));
+    }
+
+    @Test
+    public void givenQuietProfile_whenLogInfo_shouldNotCallSupplier() {
+        LoggingProfile.useQuiet();
+
+        LOG.info(() -> {
+            throw new AssertionError("message should not be built");
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package com.mobiquity.packer;
+
+import com.mobiquity.exception.APIException;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for class {@link BatchPacker}
+ */
+public class BatchPackerTest {
+
+    private final static Path VALID_INPUT_PATH = Paths.get("src/main/test/resources/example_input");
+    private final static String EXPECTED_RESULT = "4\n-\n2,7\n8,9";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void givenManyFiles_whenCallPack_shouldReturnResultsOfEachFileInOrder() throws IOException {
+        final Path smallFile = temporaryFolder.newFile("small").toPath();
+        Files.write(smallFile, Collections.singletonList("8 : (1,15.3,€34)"), StandardCharsets.UTF_8);
+
+        final List<Path> inputPaths = Arrays.asList(VALID_INPUT_PATH, smallFile, createLargeFile("large", 200));
+
+        final Map<Path, String> results = BatchPacker.pack(inputPaths, pool);
+
+        assertEquals(inputPaths, new ArrayList<>(results.keySet()));
+        assertEquals(EXPECTED_RESULT, results.get(VALID_INPUT_PATH));
+        assertEquals("-", results.get(smallFile));
+        assertEquals(Packer.pack(inputPaths.get(2).toString()), results.get(inputPaths.get(2)));
+    }
+
+    @Test
+    public void givenInputDirectory_whenCallPackDirectory_shouldWriteOneOutputPerInput() throws IOException {
+        final Path inputDirectory = temporaryFolder.newFolder("input").toPath();
+        final Path outputDirectory = temporaryFolder.getRoot().toPath().resolve("output");
+
+        Files.copy(VALID_INPUT_PATH, inputDirectory.resolve("a_input"));
+        Files.copy(createLargeFile("b_input", 100), inputDirectory.resolve("b_input"));
+        Files.createDirectory(inputDirectory.resolve("subdirectory"));
+
+        final List<Path> outputPaths = BatchPacker.packDirectory(inputDirectory, outputDirectory, pool);
+
+        assertEquals(Arrays.asList(outputDirectory.resolve("a_input"), outputDirectory.resolve("b_input")),
+                outputPaths);
+        assertEquals(EXPECTED_RESULT, new String(Files.readAllBytes(outputPaths.get(0)), StandardCharsets.UTF_8));
+        assertEquals(Packer.pack(inputDirectory.resolve("b_input").toString()),
+                new String(Files.readAllBytes(outputPaths.get(1)), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void givenOneFileNotFound_whenCallPack_shouldStillWriteTheOtherFiles() {
+        final Path outputDirectory = temporaryFolder.getRoot().toPath().resolve("output");
+        final Path unknownPath = Paths.get("unknown_file");
+
+        try {
+            BatchPacker.pack(Arrays.asList(unknownPath, VALID_INPUT_PATH), outputDirectory, pool);
+            fail("Should throw APIException due the unknown file!");
+
+        } catch (final APIException ex) {
+            assertEquals(String.format("Error to handle the file [%s]", unknownPath), ex.getMessage());
+        }
+
+        assertTrue(Files.exists(outputDirectory.resolve(VALID_INPUT_PATH.getFileName())));
+    }
+
+    @Test(expected = APIException.class)
+    public void givenTwoFilesWithSameName_whenCallPack_shouldThrowException() throws IOException {
+        final Path otherInput = temporaryFolder.newFolder("other").toPath().resolve("example_input");
+        Files.copy(VALID_INPUT_PATH, otherInput);
+        final Path outputDirectory = temporaryFolder.getRoot().toPath().resolve("output");
+
+        try {
+            BatchPacker.pack(Arrays.asList(VALID_INPUT_PATH, otherInput), outputDirectory, pool);
+
+        } catch (final APIException ex) {
+            final String errorMsg = String.format("Output file [%s] is written by more than one input file",
+                    outputDirectory.resolve("example_input"));
+            assertEquals(errorMsg, ex.getMessage());
+            throw ex;
+        }
+        fail("Should throw APIException due the same file name!");
+    }
+
+    private Path createLargeFile(final String name, final int totalLines) throws IOException {
+        final List<String> lines = new ArrayList<>();
+        for (int i = 0; i < totalLines; i++) {
+            lines.addAll(Files.readAllLines(VALID_INPUT_PATH, StandardCharsets.UTF_8));
+        }
+
+        final Path path = temporaryFolder.getRoot().toPath().resolve(name);
+        Files.write(path, lines.subList(0, totalLines), StandardCharsets.UTF_8);
+        return path;
+    }
+}
@@ -0,0 +1,171 @@
+package com.mobiquity.packer;
+
+import com.mobiquity.packer.config.PackServerConfig;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for class {@link PackServer}
+ */
+public class PackServerTest {
+
+    private static final String EXPECTED_RESULT = "4\n-\n2,7\n8,9";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private PackServer server;
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void givenLines_whenPostToServer_shouldReturnTheResultOfEachLine() throws Exception {
+        server = PackServer.start(PackServerConfig.DEFAULT.withPort(0).withWorkers(2));
+        final String body = Files.readString(Paths.get("src/main/test/resources/example_input"));
+
+        final HttpResponse<String> response = post(body);
+
+        assertEquals(200, response.statusCode());
+        assertEquals(EXPECTED_RESULT, response.body());
+    }
+
+    @Test
+    public void givenConcurrentRequests_whenPostToServer_shouldSolveTheirLinesInBatches() {
+        server = PackServer.start(PackServerConfig.DEFAULT.withPort(0).withBatch(64, Duration.ofMillis(100)));
+        final String line = "8 : (1,15.3,€34) (2,5,€10)";
+
+        final List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int request = 0; request < 20; request++) {
+            responses.add(client.sendAsync(newRequest(line), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals("2", response.join().body());
+        }
+        assertTrue(server.getBatches() < 20);
+        assertTrue(server.getLinesSolved() < 20);
+    }
+
+    @Test
+    public void givenInvalidLine_whenPostToServer_shouldReturnBadRequest() throws Exception {
+        server = PackServer.start(PackServerConfig.DEFAULT.withPort(0));
+
+        final HttpResponse<String> response = post("8 : (1,15.3,€34)\nRPR : ");
+
+        assertEquals(400, response.statusCode());
+        assertEquals("Error to convert string to number, content=\"RPR : \"", response.body());
+        assertEquals(0, server.getLinesSolved());
+    }
+
+    @Test
+    public void givenLineOverTheLimits_whenPostToServer_shouldReturnBadRequest() throws Exception {
+        server = PackServer.start(PackServerConfig.DEFAULT.withPort(0));
+
+        final HttpResponse<String> response = post("8 : (1,15.3,€34)\n150 : (1,120,€150)");
+
+        assertEquals(400, response.statusCode());
+        assertEquals("Line exceeded the limits of weight limit 100 and products 15", response.body());
+        assertEquals(0, server.getLinesSolved());
+    }
+
+    @Test
+    public void givenLineLongerThanMaxBytes_whenPostToServer_shouldRejectTheRequest() throws Exception {
+        server = PackServer.start(PackServerConfig.DEFAULT.withPort(0).withMaxLineBytes(16));
+
+        final HttpResponse<String> response = post("8 : (1,5,€34)\r\n8 : (1,15.3,€34) (2,5,€10)");
+
+        assertEquals(413, response.statusCode());
+        assertEquals("Line of request exceeded 16 bytes", response.body());
+        assertEquals("1", post("8 : (1,5,€34)\r\n").body());
+    }
+
+    @Test
+    public void givenGetRequest_whenCallServer_shouldReturnMethodNotAllowed() throws Exception {
+        server = PackServer.start(PackServerConfig.DEFAULT.withPort(0));
+
+        final HttpResponse<String> response = client.send(HttpRequest.newBuilder(getUri()).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(405, response.statusCode());
+        assertEquals("POST", response.headers().firstValue("Allow").orElse(""));
+    }
+
+    @Test
+    public void givenMoreLinesThanPending_whenPostToServer_shouldRejectTheRequest() throws Exception {
+        server = PackServer.start(PackServerConfig.DEFAULT.withPort(0).withMaxPendingLines(1)
+                .withBatch(64, Duration.ofSeconds(2)));
+
+        assertEquals(413, post("8 : (1,15.3,€34)\n8 : (1,15.3,€34)").statusCode());
+
+        // the first request keeps its line pending while the batch waits for more lines
+        final CompletableFuture<HttpResponse<String>> pending = client.sendAsync(newRequest("8 : (1,5,€34)"),
+                HttpResponse.BodyHandlers.ofString());
+        Thread.sleep(500);
+
+        final HttpResponse<String> rejected = post("8 : (1,15.3,€34)");
+
+        assertEquals(503, rejected.statusCode());
+        assertEquals("1", rejected.headers().firstValue("Retry-After").orElse(""));
+        assertEquals(1, server.getRejectedRequests());
+        assertEquals("1", pending.join().body());
+    }
+
+    @Test
+    public void givenRejectedRequests_whenPostToServer_shouldReleaseTheirPendingLines() throws Exception {
+        server = PackServer.start(PackServerConfig.DEFAULT.withPort(0).withHandlers(1).withMaxPendingLines(2));
+
+        assertEquals(413, post(String.join("\n", Collections.nCopies(1000, "8 : (1,15.3,€34)"))).statusCode());
+        assertEquals(400, post("8 : (1,15.3,€34)\nRPR : ").statusCode());
+
+        final HttpResponse<String> response = post("8 : (1,15.3,€34)\n8 : (1,5,€34)");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("-\n1", response.body());
+        assertEquals(0, server.getRejectedRequests());
+    }
+
+    @Test
+    public void givenKeepAliveDisabled_whenPostToServer_shouldCloseTheConnection() throws Exception {
+        server = PackServer.start(PackServerConfig.DEFAULT.withPort(0).withKeepAlive(false));
+
+        final HttpResponse<String> response = post("8 : (1,15.3,€34)");
+
+        assertEquals("-", response.body());
+        assertEquals("close", response.headers().firstValue("Connection").orElse(""));
+    }
+
+    private HttpResponse<String> post(final String body) throws IOException, InterruptedException {
+        return client.send(newRequest(body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest newRequest(final String body) {
+        return HttpRequest.newBuilder(getUri())
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private URI getUri() {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + PackServer.PACK_PATH);
+    }
+}
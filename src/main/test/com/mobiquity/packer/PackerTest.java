@@ -1,9 +1,35 @@
 package com.mobiquity.packer;
 
 import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.cache.PackCache;
+import com.mobiquity.packer.cache.PersistentResultCache;
+import com.mobiquity.packer.config.PackConfig;
+import com.mobiquity.packer.config.PackOptions;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.fail;
 
 /**
@@ -13,6 +39,10 @@ public class PackerTest {
 
     private final static String VALID_INPUT_FILEPATH = "src/main/test/resources/example_input";
     private final static String INVALID_FILEPATH = "unknown_file";
+    private final static List<String> EXPECTED_RESULTS = Arrays.asList("4", "-", "2,7", "8,9");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     @Test(expected = APIException.class)
     public void givenNotValidFilePath_whenCallPack_shouldReturnProperlyResults() {
@@ -27,6 +57,19 @@ public class PackerTest {
         fail("Should throw APIException due the cast error!");
     }
 
+    @Test(expected = APIException.class)
+    public void givenMalformedFilePath_whenCallPack_shouldThrowAPIException() {
+        final String malformedFilePath = "unknown\0file";
+        try {
+            Packer.pack(malformedFilePath);
+
+        } catch (final APIException ex) {
+            final String errorMsg = String.format("Error to handle the file [%s]", malformedFilePath);
+            assertEquals(errorMsg, ex.getMessage());
+            throw ex;
+        }
+    }
+
      @Test
     public void givenValidFilePath_whenCallPack_shouldReturnProperlyResults() {
         final String result = Packer.pack(VALID_INPUT_FILEPATH);
@@ -39,4 +82,265 @@ public class PackerTest {
 
         assertEquals(expectedResult, result);
     }
+
+    @Test
+    public void givenValidFilePathAndExecutor_whenCallPackInParallel_shouldReturnResultsInInputOrder() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            for (int reorderWindow = 1; reorderWindow <= 5; reorderWindow++) {
+                assertEquals(Packer.pack(VALID_INPUT_FILEPATH), Packer.pack(VALID_INPUT_FILEPATH,
+                        PackOptions.DEFAULT.withExecutor(executor, reorderWindow)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void givenCache_whenCallPackTwice_shouldSolveEachLineOnce() {
+        final PackCache cache = new PackCache(10);
+
+        final PackOptions options = PackOptions.DEFAULT.withCache(cache);
+
+        assertEquals(Packer.pack(VALID_INPUT_FILEPATH), Packer.pack(VALID_INPUT_FILEPATH, options));
+        assertEquals(Packer.pack(VALID_INPUT_FILEPATH), Packer.pack(VALID_INPUT_FILEPATH, options));
+
+        assertEquals(EXPECTED_RESULTS.size(), cache.getMisses());
+        assertEquals(EXPECTED_RESULTS.size(), cache.getHits());
+    }
+
+    @Test
+    public void givenPersistentCache_whenCallPackInAnotherRun_shouldReuseTheResults() throws IOException {
+        final Path logPath = temporaryFolder.newFolder().toPath().resolve("results.cache");
+
+        try (PersistentResultCache cache = new PersistentResultCache(logPath, 10)) {
+            assertEquals(Packer.pack(VALID_INPUT_FILEPATH),
+                    Packer.pack(VALID_INPUT_FILEPATH, PackOptions.DEFAULT.withResultCache(cache)));
+        }
+
+        try (PersistentResultCache cache = new PersistentResultCache(logPath, 10)) {
+            try (InputStream input = Files.newInputStream(Paths.get(VALID_INPUT_FILEPATH))) {
+                final List<String> results = new ArrayList<>();
+                Packer.pack(input, PackOptions.DEFAULT.withResultCache(cache).withExecutor(Runnable::run, 2),
+                        results::add);
+
+                assertEquals(EXPECTED_RESULTS, results);
+            }
+            assertEquals(EXPECTED_RESULTS.size(), cache.getHits());
+            assertEquals(0, cache.getMisses());
+        }
+    }
+
+    @Test
+    public void givenCacheAndExecutor_whenCallPackInParallel_shouldReturnResultsInInputOrder() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final PackCache cache = new PackCache(2);
+
+        try {
+            for (int reorderWindow = 1; reorderWindow <= 5; reorderWindow++) {
+                assertEquals(Packer.pack(VALID_INPUT_FILEPATH),
+                        Packer.pack(VALID_INPUT_FILEPATH,
+                                PackOptions.DEFAULT.withCache(cache).withExecutor(executor, reorderWindow)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(5 * EXPECTED_RESULTS.size(), cache.getHits() + cache.getMisses());
+    }
+
+    @Test
+    public void givenExtendedConfigAndCache_whenCallPackWithWriter_shouldWriteTheCachedResults() throws IOException {
+        final PackCache cache = new PackCache(10, PackConfig.EXTENDED);
+        final PackOptions options = PackOptions.DEFAULT.withPackConfig(PackConfig.EXTENDED).withCache(cache);
+
+        for (int run = 0; run < 2; run++) {
+            final StringWriter output = new StringWriter();
+            try (InputStream input = Files.newInputStream(Paths.get(VALID_INPUT_FILEPATH))) {
+                Packer.pack(input, options, output);
+            }
+            assertEquals(String.join("\n", EXPECTED_RESULTS), output.toString());
+        }
+
+        assertEquals(EXPECTED_RESULTS.size(), cache.getHits());
+    }
+
+    @Test(expected = APIException.class)
+    public void givenCacheWithOtherLimits_whenCallPack_shouldThrowAPIException() {
+        final PackOptions options = PackOptions.DEFAULT.withPackConfig(PackConfig.EXTENDED)
+                .withCache(new PackCache(10));
+
+        try {
+            Packer.pack(VALID_INPUT_FILEPATH, options);
+
+        } catch (final APIException ex) {
+            assertEquals(String.format("Limits of the cache (%s) are not the limits of the pack (%s)",
+                    PackConfig.STRICT, PackConfig.EXTENDED), ex.getMessage());
+            throw ex;
+        }
+    }
+
+    @Test(expected = APIException.class)
+    public void givenNotValidFilePath_whenCallPackInParallel_shouldThrowException() {
+        Packer.pack(INVALID_FILEPATH, PackOptions.DEFAULT.withExecutor(Runnable::run, 2));
+    }
+
+    @Test(expected = APIException.class)
+    public void givenNotPositiveReorderWindow_whenCallPackInParallel_shouldThrowException() {
+        PackOptions.DEFAULT.withExecutor(Runnable::run, 0);
+    }
+
+    @Test(expected = APIException.class)
+    public void givenFileWithNotValidLine_whenCallPackInParallel_shouldThrowTheLineException() throws IOException {
+        final File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), "8 : (1,15.3,€34)\nRPR : \n".getBytes(StandardCharsets.UTF_8));
+
+        try {
+            Packer.pack(file.getPath(), PackOptions.DEFAULT.withExecutor(Runnable::run, 2));
+
+        } catch (final APIException ex) {
+            assertEquals("Error to convert string to number, content=\"RPR : \"", ex.getMessage());
+            throw ex;
+        }
+        fail("Should throw APIException due the cast error!");
+    }
+
+    @Test
+    public void givenLineThatFails_whenCallSubmitToReorderWindow_shouldEndTheLinesInProgress() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final AtomicInteger running = new AtomicInteger();
+        final List<String> solvedLines = new CopyOnWriteArrayList<>();
+
+        try {
+            try (Packer.ReorderWindow window = new Packer.ReorderWindow(executor, 3, line -> {
+                running.incrementAndGet();
+                try {
+                    if ("RPR : ".contentEquals(line)) {
+                        throw new APIException("Error to convert string to number, content=\"RPR : \"");
+                    }
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200));
+                    solvedLines.add(line.toString());
+                    return "-";
+                } finally {
+                    running.decrementAndGet();
+                }
+            }, result -> fail("Should not give a result after the failed line!"))) {
+                window.submit("RPR : ");
+                window.submit("8 : (1,15.3,€34)");
+                window.submit("9 : (1,15.3,€34)");
+                window.submit("10 : (1,15.3,€34)");
+            }
+            fail("Should throw APIException due the cast error!");
+
+        } catch (final APIException ex) {
+            assertEquals("Error to convert string to number, content=\"RPR : \"", ex.getMessage());
+            assertEquals(0, running.get());
+            assertFalse(solvedLines.contains("9 : (1,15.3,€34)"));
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void givenValidFilePath_whenCallPackWithListener_shouldGiveEachResultInOrder() {
+        final List<String> results = new ArrayList<>();
+        Packer.pack(Paths.get(VALID_INPUT_FILEPATH), PackOptions.DEFAULT, results::add);
+
+        assertEquals(EXPECTED_RESULTS, results);
+    }
+
+    @Test
+    public void givenValidFilePath_whenCallPackWithWriter_shouldWriteOneResultPerLine() {
+        final StringWriter output = new StringWriter();
+        Packer.pack(Paths.get(VALID_INPUT_FILEPATH), PackOptions.DEFAULT, output);
+
+        assertEquals(String.join("\n", EXPECTED_RESULTS), output.toString());
+    }
+
+    @Test
+    public void givenInputStream_whenCallPackWithWriter_shouldWriteOneResultPerLine() {
+        final String input = "8 : (1,15.3,€34)\n10 : (1,5,€8.01) (2,5.01,€8.02)\n";
+        final StringWriter output = new StringWriter();
+
+        Packer.pack(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), PackOptions.DEFAULT,
+                output);
+
+        assertEquals("-\n2", output.toString());
+    }
+
+    @Test
+    public void givenInputStreamAndExecutor_whenCallPackInParallelWithListener_shouldGiveEachResultInOrder()
+            throws IOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<String> results = new ArrayList<>();
+
+        try (InputStream input = Files.newInputStream(Paths.get(VALID_INPUT_FILEPATH))) {
+            Packer.pack(input, PackOptions.DEFAULT.withExecutor(executor, 2), results::add);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(EXPECTED_RESULTS, results);
+    }
+
+    @Test(expected = APIException.class)
+    public void givenNotValidFilePath_whenCallPackWithListener_shouldThrowException() {
+        try {
+            Packer.pack(Paths.get(INVALID_FILEPATH), PackOptions.DEFAULT,
+                    result -> fail("Should not give any result"));
+
+        } catch (final APIException ex) {
+            final String errorMsg = String.format("Error to handle the file [%s]", INVALID_FILEPATH);
+            assertEquals(errorMsg, ex.getMessage());
+            throw ex;
+        }
+    }
+
+    @Test
+    public void givenValidFilePath_whenCallPackMapped_shouldGiveEachResultInOrder() {
+        final List<String> results = new ArrayList<>();
+        Packer.packMapped(Paths.get(VALID_INPUT_FILEPATH), PackOptions.DEFAULT, results::add);
+
+        assertEquals(EXPECTED_RESULTS, results);
+    }
+
+    @Test
+    public void givenValidFilePath_whenCallPackMappedWithWriter_shouldWriteSameResultAsPack() {
+        final StringWriter output = new StringWriter();
+        Packer.packMapped(Paths.get(VALID_INPUT_FILEPATH), PackOptions.DEFAULT, output);
+
+        assertEquals(Packer.pack(VALID_INPUT_FILEPATH), output.toString());
+    }
+
+    @Test
+    public void givenExtendedConfigCacheAndExecutor_whenCallPackMapped_shouldFollowTheOptions() throws IOException {
+        final Path inputPath = temporaryFolder.newFile().toPath();
+        final String input = "150 : (1,120,€150)\n8 : (1,15.3,€34)\n150 : (1,120,€150)";
+        Files.write(inputPath, input.getBytes(StandardCharsets.UTF_8));
+
+        final PackCache cache = new PackCache(10, PackConfig.EXTENDED);
+        final PackOptions options = PackOptions.DEFAULT.withPackConfig(PackConfig.EXTENDED).withCache(cache)
+                .withExecutor(Runnable::run, 2);
+
+        final List<String> results = new ArrayList<>();
+        Packer.packMapped(inputPath, options, results::add);
+
+        assertEquals(Arrays.asList("1", "-", "1"), results);
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test(expected = APIException.class)
+    public void givenNotValidFilePath_whenCallPackMapped_shouldThrowException() {
+        try {
+            Packer.packMapped(Paths.get(INVALID_FILEPATH), PackOptions.DEFAULT,
+                    result -> fail("Should not give any result"));
+
+        } catch (final APIException ex) {
+            final String errorMsg = String.format("Error to handle the file [%s]", INVALID_FILEPATH);
+            assertEquals(errorMsg, ex.getMessage());
+            throw ex;
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package com.mobiquity.packer.cache;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.model.Pack;
+import com.mobiquity.packer.strategy.PackStrategy;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for class {@link PackCache}
+ */
+public class PackCacheTest {
+
+    private static final String LINE = "81 : (1,53.38,€45) (2,88.62,€98) (3,78.48,€3) (4,72.30,€76)";
+    private static final String PERMUTED_LINE = "81 : (4,72.30,€76) (2,88.62,€98) (1,53.38,€45) (3,78.48,€3)";
+    private static final String OTHER_LINE = "75 : (1,85.31,€29) (2,14.55,€74) (3,3.98,€16) (4,26.24,€55)";
+
+    @Test
+    public void givenSameLineTwice_whenCallGetBetterPack_shouldSolveOnlyOnce() {
+        final PackCache cache = new PackCache(10);
+
+        final Pack pack = cache.getBetterPackFromInputLine(LINE);
+
+        assertSame(pack, cache.getBetterPackFromInputLine(LINE));
+        assertEquals(PackStrategy.getBetterPackFromInputLine(LINE), pack);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void givenPermutedLine_whenCallGetBetterPack_shouldHitTheCache() {
+        final PackCache cache = new PackCache(10);
+
+        final Pack pack = cache.getBetterPackFromInputLine(LINE);
+
+        assertSame(pack, cache.getBetterPackFromInputLine(PERMUTED_LINE));
+        assertEquals(PackStrategy.getBetterPackFromInputLine(PERMUTED_LINE), pack);
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void givenOtherWeightLimitOrScale_whenCallGetKey_shouldReturnOtherKey() {
+        assertEquals("81/0|1,5338/2,45/0|2,8862/2,98/0|3,7848/2,3/0|4,7230/2,76/0", PackCache.getKey(PERMUTED_LINE));
+        assertEquals(PackCache.getKey(LINE), PackCache.getKey(PERMUTED_LINE));
+
+        assertEquals("810/1|1,5338/2,45/0", PackCache.getKey("81.0 : (1,53.38,€45)"));
+        assertEquals("80/0|1,5338/2,45/0", PackCache.getKey("80 : (1,53.38,€45)"));
+    }
+
+    @Test
+    public void givenSameIndexTwice_whenCallGetKey_shouldKeepTheirOrder() {
+        assertEquals("81/0|1,5338/2,45/0|1,100/2,1/0|2,100/2,2/0",
+                PackCache.getKey("81 : (2,1.00,€2) (1,53.38,€45) (1,1.00,€1)"));
+    }
+
+    @Test
+    public void givenFullCache_whenCallGetBetterPack_shouldEvictLeastRecentlyUsed() {
+        final PackCache cache = new PackCache(2);
+        cache.getBetterPackFromInputLine(LINE);
+        cache.getBetterPackFromInputLine(OTHER_LINE);
+
+        // the LINE is used again, so OTHER_LINE is the least recently used
+        cache.getBetterPackFromInputLine(LINE);
+        cache.getBetterPackFromInputLine("8 : (1,15.3,€34)");
+
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+
+        cache.getBetterPackFromInputLine(LINE);
+        assertEquals(2, cache.getHits());
+
+        cache.getBetterPackFromInputLine(OTHER_LINE);
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void givenLineWithoutResult_whenCallGetBetterPackTwice_shouldCacheTheEmptyResult() {
+        final PackCache cache = new PackCache(10);
+        final String line = "101 : (1,53.38,€45)";
+
+        assertNull(cache.getBetterPackFromInputLine(line));
+        assertNull(cache.getBetterPackFromInputLine(line));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void givenBlankLine_whenCallGetBetterPack_shouldNotCache() {
+        final PackCache cache = new PackCache(10);
+
+        assertNull(cache.getBetterPackFromInputLine(" "));
+        assertEquals(0, cache.getMisses());
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected = APIException.class)
+    public void givenNotValidLine_whenCallGetBetterPack_shouldThrowTheStrategyException() {
+        final PackCache cache = new PackCache(10);
+
+        try {
+            cache.getBetterPackFromInputLine("8 : (1,15.3)");
+
+        } catch (final APIException ex) {
+            assertEquals("Expected 3 args but got 2, content=\"(1,15.3)\"", ex.getMessage());
+            assertEquals(0, cache.size());
+            throw ex;
+        }
+    }
+
+    @Test(expected = APIException.class)
+    public void givenNotPositiveSize_whenCreateCache_shouldThrowAPIException() {
+        try {
+            new PackCache(0);
+
+        } catch (final APIException ex) {
+            assertEquals("Cache size (0) must be positive", ex.getMessage());
+            throw ex;
+        }
+    }
+}
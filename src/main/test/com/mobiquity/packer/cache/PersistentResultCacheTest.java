@@ -0,0 +1,198 @@
+package com.mobiquity.packer.cache;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.config.PackConfig;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for class {@link PersistentResultCache}
+ */
+public class PersistentResultCacheTest {
+
+    private static final String LINE = "81 : (1,53.38,€45) (2,88.62,€98) (3,78.48,€3) (4,72.30,€76)";
+    private static final String PERMUTED_LINE = "81 : (4,72.30,€76) (2,88.62,€98) (1,53.38,€45) (3,78.48,€3)";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AtomicInteger resolved = new AtomicInteger();
+
+    private final Function<CharSequence, String> resolver = line -> {
+        resolved.incrementAndGet();
+        return "result of " + line.length();
+    };
+
+    @Test
+    public void givenSameOrPermutedLine_whenCallGetResult_shouldResolveOnlyOnce() throws IOException {
+        try (PersistentResultCache cache = new PersistentResultCache(newLogPath(), 10)) {
+            final String result = cache.getResult(LINE, resolver);
+
+            assertEquals(result, cache.getResult(LINE, resolver));
+            assertEquals(result, cache.getResult(PERMUTED_LINE, resolver));
+            assertEquals(1, resolved.get());
+            assertEquals(2, cache.getHits());
+            assertEquals(1, cache.getMisses());
+        }
+    }
+
+    @Test
+    public void givenClosedCache_whenOpenAgain_shouldReuseTheResults() throws IOException {
+        final Path logPath = newLogPath();
+
+        try (PersistentResultCache cache = new PersistentResultCache(logPath, 10)) {
+            cache.getResult(LINE, resolver);
+        }
+
+        try (PersistentResultCache cache = new PersistentResultCache(logPath, 10)) {
+            assertEquals(1, cache.size());
+            assertEquals("result of " + LINE.length(), cache.getResult(PERMUTED_LINE, resolver));
+            assertEquals(1, resolved.get());
+        }
+    }
+
+    @Test
+    public void givenMoreResultsThanMaxEntries_whenFlush_shouldCompactTheLog() throws IOException {
+        final Path logPath = newLogPath();
+
+        try (PersistentResultCache cache = new PersistentResultCache(logPath, 2)) {
+            for (int weightLimit = 1; weightLimit <= 5; weightLimit++) {
+                cache.getResult(weightLimit + " : (1,0.50,€1)", resolver);
+            }
+
+            assertEquals(2, cache.size());
+            assertEquals(3, cache.getEvictions());
+        }
+
+        // header plus the 2 most recent results
+        final List<String> records = Files.readAllLines(logPath, StandardCharsets.UTF_8);
+        assertEquals(3, records.size());
+
+        try (PersistentResultCache cache = new PersistentResultCache(logPath, 2)) {
+            cache.getResult("5 : (1,0.50,€1)", resolver);
+            cache.getResult("4 : (1,0.50,€1)", resolver);
+            assertEquals(5, resolved.get());
+
+            cache.getResult("1 : (1,0.50,€1)", resolver);
+            assertEquals(6, resolved.get());
+        }
+    }
+
+    @Test
+    public void givenTwoCachesOnSameLog_whenCompact_shouldKeepTheResultsOfBoth() throws IOException {
+        final Path logPath = newLogPath();
+
+        try (PersistentResultCache first = new PersistentResultCache(logPath, 10)) {
+            first.getResult(LINE, resolver);
+            first.flush();
+
+            try (PersistentResultCache second = new PersistentResultCache(logPath, 10)) {
+                second.getResult("8 : (1,15.3,€34)", resolver);
+            }
+
+            first.compact();
+        }
+
+        try (PersistentResultCache cache = new PersistentResultCache(logPath, 10)) {
+            assertEquals(2, cache.size());
+        }
+    }
+
+    @Test
+    public void givenIncompleteLastRecord_whenOpen_shouldIgnoreIt() throws IOException {
+        final Path logPath = newLogPath();
+
+        try (PersistentResultCache cache = new PersistentResultCache(logPath, 10)) {
+            cache.getResult(LINE, resolver);
+        }
+        Files.write(logPath, "0123456789abcdef 2,".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        try (PersistentResultCache cache = new PersistentResultCache(logPath, 10)) {
+            assertEquals(1, cache.size());
+        }
+
+        final String content = new String(Files.readAllBytes(logPath), StandardCharsets.UTF_8);
+        assertTrue(content.endsWith("\n"));
+    }
+
+    @Test
+    public void givenNotValidLine_whenCallGetResult_shouldNotCacheIt() throws IOException {
+        try (PersistentResultCache cache = new PersistentResultCache(newLogPath(), 10)) {
+            cache.getResult(" ", resolver);
+            cache.getResult(" ", resolver);
+
+            assertEquals(2, resolved.get());
+            assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    public void givenCacheOfOtherConfig_whenOpen_shouldRebuildTheLog() throws IOException {
+        final Path logPath = newLogPath();
+
+        try (PersistentResultCache cache = new PersistentResultCache(logPath, 10)) {
+            cache.getResult(LINE, resolver);
+        }
+
+        try (PersistentResultCache cache = new PersistentResultCache(logPath, 10, PackConfig.EXTENDED)) {
+            assertEquals(0, cache.size());
+            cache.getResult(LINE, resolver);
+            assertEquals(2, resolved.get());
+        }
+
+        try (PersistentResultCache cache = new PersistentResultCache(logPath, 10)) {
+            assertEquals(0, cache.size());
+        }
+        assertEquals(1, Files.readAllLines(logPath, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    public void givenCacheOfOlderVersion_whenOpen_shouldRebuildTheLog() throws IOException {
+        final Path logPath = newLogPath();
+        Files.write(logPath, "packer-result-cache 1\n0123456789abcdef 2,7\n".getBytes(StandardCharsets.UTF_8));
+
+        try (PersistentResultCache cache = new PersistentResultCache(logPath, 10)) {
+            assertEquals(0, cache.size());
+        }
+
+        final List<String> records = Files.readAllLines(logPath, StandardCharsets.UTF_8);
+        assertEquals(1, records.size());
+        assertTrue(records.get(0).startsWith("packer-result-cache 2 "));
+    }
+
+    @Test(expected = APIException.class)
+    public void givenFileThatIsNotACache_whenOpen_shouldThrowAPIException() throws IOException {
+        final Path logPath = newLogPath();
+        Files.write(logPath, "4\n-\n".getBytes(StandardCharsets.UTF_8));
+
+        try {
+            new PersistentResultCache(logPath, 10);
+
+        } catch (final APIException ex) {
+            assertEquals(String.format("File [%s] is not a result cache", logPath), ex.getMessage());
+            throw ex;
+        }
+    }
+
+    @Test(expected = APIException.class)
+    public void givenNotPositiveSize_whenOpen_shouldThrowAPIException() throws IOException {
+        new PersistentResultCache(newLogPath(), 0);
+    }
+
+    private Path newLogPath() throws IOException {
+        return temporaryFolder.newFolder().toPath().resolve("results.cache");
+    }
+}
@@ -0,0 +1,44 @@
+package com.mobiquity.packer.config;
+
+import com.mobiquity.exception.APIException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for class {@link PackConfig}
+ */
+public class PackConfigTest {
+
+    @Test
+    public void givenStrictConfig_whenGetLimits_shouldReturnTheChallengeLimits() {
+        assertFalse(PackConfig.STRICT.isExtended());
+        assertEquals(15, PackConfig.STRICT.getMaxProducts());
+        assertEquals(100, PackConfig.STRICT.getMaxWeightLimit());
+        assertEquals(100, PackConfig.STRICT.getMaxCost());
+    }
+
+    @Test
+    public void givenHigherLimits_whenCallExtended_shouldCreateExtendedConfig() {
+        final PackConfig config = PackConfig.extended(500, 1000, 10000);
+
+        assertTrue(config.isExtended());
+        assertEquals(500, config.getMaxProducts());
+        assertEquals(1000, config.getMaxWeightLimit());
+        assertEquals(10000, config.getMaxCost());
+    }
+
+    @Test(expected = APIException.class)
+    public void givenLimitLowerThanStrict_whenCallExtended_shouldThrowAPIException() {
+        try {
+            PackConfig.extended(10, 1000, 1000);
+
+        } catch (final APIException ex) {
+            assertEquals("Extended limits (10 products, weight 1000, cost 1000) must not be lower than the strict ones",
+                    ex.getMessage());
+            throw ex;
+        }
+    }
+}
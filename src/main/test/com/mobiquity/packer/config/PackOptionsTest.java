@@ -0,0 +1,47 @@
+package com.mobiquity.packer.config;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.cache.PackCache;
+import org.junit.Test;
+
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for class {@link PackOptions}
+ */
+public class PackOptionsTest {
+
+    @Test
+    public void givenDefaultOptions_whenChangeOptions_shouldKeepTheOtherOnes() {
+        final PackCache cache = new PackCache(10, PackConfig.EXTENDED);
+        final Executor executor = Runnable::run;
+
+        final PackOptions options = PackOptions.DEFAULT
+                .withExecutor(executor, 4)
+                .withPackConfig(PackConfig.EXTENDED)
+                .withCache(cache);
+
+        assertEquals(PackConfig.EXTENDED, options.getPackConfig());
+        assertSame(cache, options.getCache());
+        assertNull(options.getResultCache());
+        assertSame(executor, options.getExecutor());
+        assertEquals(4, options.getReorderWindow());
+        assertEquals(PackConfig.STRICT, PackOptions.DEFAULT.getPackConfig());
+        assertNull(PackOptions.DEFAULT.getExecutor());
+    }
+
+    @Test(expected = APIException.class)
+    public void givenNotPositiveReorderWindow_whenCallWithExecutor_shouldThrowAPIException() {
+        try {
+            PackOptions.DEFAULT.withExecutor(Runnable::run, 0);
+
+        } catch (final APIException ex) {
+            assertEquals("Reorder window (0) must be positive", ex.getMessage());
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.mobiquity.packer.config;
+
+import com.mobiquity.exception.APIException;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Unit tests for class {@link PackServerConfig}
+ */
+public class PackServerConfigTest {
+
+    @Test
+    public void givenDefaultConfig_whenChangeSettings_shouldKeepTheOtherOnes() {
+        final PackServerConfig config = PackServerConfig.DEFAULT
+                .withPort(0)
+                .withHandlers(8)
+                .withBatch(16, Duration.ofMillis(5))
+                .withMaxLineBytes(1024)
+                .withKeepAlive(false);
+
+        assertEquals(0, config.getPort());
+        assertEquals(8, config.getHandlers());
+        assertEquals(16, config.getMaxBatchLines());
+        assertEquals(Duration.ofMillis(5), config.getBatchDelay());
+        assertEquals(1024, config.getMaxLineBytes());
+        assertFalse(config.isKeepAlive());
+        assertEquals(PackServerConfig.DEFAULT.getMaxPendingLines(), config.getMaxPendingLines());
+        assertEquals(PackConfig.STRICT, config.getPackConfig());
+        assertEquals(8080, PackServerConfig.DEFAULT.getPort());
+    }
+
+    @Test(expected = APIException.class)
+    public void givenNoPendingLines_whenCallWithMaxPendingLines_shouldThrowAPIException() {
+        try {
+            PackServerConfig.DEFAULT.withMaxPendingLines(0);
+
+        } catch (final APIException ex) {
+            assertEquals("Max pending lines (0) must be positive", ex.getMessage());
+            throw ex;
+        }
+    }
+
+    @Test(expected = APIException.class)
+    public void givenPortOutOfRange_whenCallWithPort_shouldThrowAPIException() {
+        try {
+            PackServerConfig.DEFAULT.withPort(70000);
+
+        } catch (final APIException ex) {
+            assertEquals("Port (70000) must be between 0 and 65535", ex.getMessage());
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.mobiquity.packer.converter;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.model.Product;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for class {@link LineScanner}
+ */
+public class LineScannerTest {
+
+    private static final String STRING_FORMAT_WRONG_CONVERT_ERROR = "Error to convert string to number, content=\"%s\"";
+
+    @Test
+    public void givenNullOrBlankLine_whenCallScan_thenReturnNull() {
+        assertNull(LineScanner.scan(null));
+        assertNull(LineScanner.scan(""));
+        assertNull(LineScanner.scan(" \t "));
+    }
+
+    @Test
+    public void givenValidLine_whenCallScan_thenReadWeightLimitAndProductsAsFixedPoint() {
+        final LineScanner scanner = LineScanner.scan("81.5 : (1,53.38,€45) (2,88.6,€9.80)");
+        assertNotNull(scanner);
+        assertEquals(815, scanner.getWeightLimit());
+        assertEquals(1, scanner.getWeightLimitScale());
+        assertEquals(2, scanner.getTotalProducts());
+
+        assertTrue(scanner.nextProduct());
+        assertEquals(1, scanner.getIndex());
+        assertEquals(5338, scanner.getWeight());
+        assertEquals(2, scanner.getWeightScale());
+        assertEquals(45, scanner.getCost());
+        assertEquals(0, scanner.getCostScale());
+
+        assertTrue(scanner.nextProduct());
+        assertEquals(new Product(2, new BigDecimal("88.6"), new BigDecimal("9.80")), scanner.getProduct());
+
+        assertFalse(scanner.nextProduct());
+    }
+
+    @Test
+    public void givenNumbersWithExponent_whenCallScan_thenReadThemAsFixedPointWithoutNegativeScale() {
+        final LineScanner scanner = LineScanner.scan("1E2 : (1,5.338e+1,€4.5E1) (2,886E-1,€-1e0)");
+        assertNotNull(scanner);
+        assertEquals(100, scanner.getWeightLimit());
+        assertEquals(0, scanner.getWeightLimitScale());
+
+        assertTrue(scanner.nextProduct());
+        assertEquals(5338, scanner.getWeight());
+        assertEquals(2, scanner.getWeightScale());
+        assertEquals(45, scanner.getCost());
+        assertEquals(0, scanner.getCostScale());
+
+        assertTrue(scanner.nextProduct());
+        assertEquals(886, scanner.getWeight());
+        assertEquals(1, scanner.getWeightScale());
+        assertEquals(-1, scanner.getCost());
+        assertEquals(0, scanner.getCostScale());
+    }
+
+    @Test
+    public void givenNotValidExponent_whenCallScanProduct_thenThrowsException() {
+        for (String product : new String[]{"(1E0,15.3,€34)", "(1,15.3E,€34)", "(1,15.3E19,€34)", "(1,1E-19,€34)",
+                "(1,15.3E1.5,€34)", "(1,E1,€34)", "(1,99999999999E9,€34)"}) {
+            try {
+                LineScanner.scanProduct(product);
+                fail("Should throw APIException due the cast error of " + product);
+
+            } catch (final APIException ex) {
+                assertEquals(String.format(STRING_FORMAT_WRONG_CONVERT_ERROR, product), ex.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void givenLineWithOnlyWeightLimit_whenCallScan_thenHaveNoProducts() {
+        final LineScanner scanner = LineScanner.scan("87.65 : ");
+        assertNotNull(scanner);
+        assertEquals(0, scanner.getTotalProducts());
+        assertFalse(scanner.nextProduct());
+    }
+
+    @Test(expected = APIException.class)
+    public void givenNotValidWeightLimit_whenCallScan_thenThrowsException() {
+        try {
+            LineScanner.scan("RPR : ");
+
+        } catch (final APIException ex) {
+            assertEquals(String.format(STRING_FORMAT_WRONG_CONVERT_ERROR, "RPR : "), ex.getMessage());
+            throw ex;
+        }
+        fail("Should throw APIException due the cast error!");
+    }
+
+    @Test
+    public void givenLineWithNotValidProduct_whenCallScan_thenThrowsExceptionOnlyWhenReadingIt() {
+        final LineScanner scanner = LineScanner.scan("8 : (1,15.3,€34) (2,A,€34)");
+        assertNotNull(scanner);
+        assertEquals(2, scanner.getTotalProducts());
+        assertTrue(scanner.nextProduct());
+
+        try {
+            scanner.nextProduct();
+            fail("Should throw APIException due the cast error!");
+
+        } catch (final APIException ex) {
+            assertEquals(String.format(STRING_FORMAT_WRONG_CONVERT_ERROR, "(2,A,€34)"), ex.getMessage());
+            assertTrue(ex.getCause() instanceof NumberFormatException);
+            assertEquals("For input string: \"A\" at offset 20", ex.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void givenProductWithEmptyFieldsAtTheEnd_whenCallScanProduct_thenIgnoreThem() {
+        assertEquals(new Product(1, new BigDecimal("15.3"), new BigDecimal(34)), LineScanner.scanProduct("(1,15.3,€34,)"));
+    }
+
+    @Test(expected = APIException.class)
+    public void givenProductWithDecimalIndex_whenCallScanProduct_thenThrowsException() {
+        try {
+            LineScanner.scanProduct("(1.0,15.3,€34)");
+
+        } catch (final APIException ex) {
+            assertEquals(String.format(STRING_FORMAT_WRONG_CONVERT_ERROR, "(1.0,15.3,€34)"), ex.getMessage());
+            throw ex;
+        }
+        fail("Should throw APIException due the cast error!");
+    }
+
+    @Test(expected = APIException.class)
+    public void givenProductWithEmptyFieldInTheMiddle_whenCallScanProduct_thenThrowsException() {
+        try {
+            LineScanner.scanProduct("(1,,€34)");
+
+        } catch (final APIException ex) {
+            assertEquals(String.format(STRING_FORMAT_WRONG_CONVERT_ERROR, "(1,,€34)"), ex.getMessage());
+            throw ex;
+        }
+        fail("Should throw APIException due the cast error!");
+    }
+
+    @Test(expected = APIException.class)
+    public void givenEmptyProductBetweenTwoSpaces_whenCallNextProduct_thenThrowsException() {
+        final LineScanner scanner = LineScanner.scan("8 : (1,15.3,€34)  (2,15.3,€34)");
+        assertNotNull(scanner);
+        assertEquals(3, scanner.getTotalProducts());
+        assertTrue(scanner.nextProduct());
+
+        try {
+            scanner.nextProduct();
+
+        } catch (final APIException ex) {
+            assertEquals("Expected 3 args but got 1, content=\"\"", ex.getMessage());
+            throw ex;
+        }
+        fail("Should throw APIException due the empty product!");
+    }
+}
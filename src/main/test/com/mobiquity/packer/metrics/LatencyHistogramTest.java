@@ -0,0 +1,48 @@
+package com.mobiquity.packer.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for class {@link LatencyHistogram}
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void givenValues_whenCallGetSnapshot_shouldReturnPowerOfTwoPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100; nanos++) {
+            histogram.record(nanos);
+        }
+
+        final HistogramSnapshot snapshot = histogram.getSnapshot();
+
+        assertEquals(100, snapshot.getCount());
+        assertEquals(50.5, snapshot.getMean(), 0.001);
+        assertEquals(63, snapshot.getP50());
+        assertEquals(127, snapshot.getP90());
+        assertEquals(127, snapshot.getP99());
+        assertEquals(100, snapshot.getMax());
+    }
+
+    @Test
+    public void givenNoValues_whenCallGetSnapshot_shouldReturnZeros() {
+        final HistogramSnapshot snapshot = new LatencyHistogram().getSnapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getP50());
+        assertEquals(0, snapshot.getMax());
+    }
+
+    @Test
+    public void givenNegativeAndZeroValues_whenCallRecord_shouldCountThemAsZero() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(0);
+
+        final HistogramSnapshot snapshot = histogram.getSnapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.getP99());
+    }
+}
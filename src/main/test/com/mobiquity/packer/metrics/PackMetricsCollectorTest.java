@@ -0,0 +1,116 @@
+package com.mobiquity.packer.metrics;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.strategy.PackStrategy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for class {@link PackMetricsCollector}
+ */
+public class PackMetricsCollectorTest {
+
+    private static final String LINE = "81 : (1,53.38,€45) (2,88.62,€98) (3,78.48,€3) (4,72.30,€76) (5,30.18,€9)";
+
+    // no product is removed or fixed by the reduction, so the solver is needed
+    private static final String LINE_NOT_REDUCED = "10 : (1,4,€4) (2,12,€20) (3,5,€5) (4,6,€6) (5,3,€3)";
+
+    private final PackMetricsCollector collector = new PackMetricsCollector();
+
+    @Before
+    public void setUp() {
+        collector.register();
+    }
+
+    @After
+    public void tearDown() {
+        collector.unregister();
+    }
+
+    @Test
+    public void givenLineThatNeedsSolver_whenSolve_shouldMeasureEachStage() {
+        PackStrategy.getBetterPackFromInputLine(LINE_NOT_REDUCED);
+
+        assertEquals(1, collector.getLinesParsed());
+        assertEquals(1, collector.getParseTime().getCount());
+        assertEquals(1, collector.getValidationTime().getCount());
+        assertEquals(1, collector.getLineTime().getCount());
+
+        // the product 2 is heavier than the limit
+        assertEquals(1, collector.getProductsFiltered());
+
+        final Map<String, HistogramSnapshot> solverTime = collector.getSolverTime();
+        assertEquals(1, solverTime.size());
+
+        final String solverName = solverTime.keySet().iterator().next();
+        assertEquals(1, solverTime.get(solverName).getCount());
+        assertTrue(collector.getCombinationsEvaluated().get(solverName) > 0);
+    }
+
+    @Test
+    public void givenLineWithDominatedProducts_whenSolve_shouldCountRemovedAndFixedProducts() {
+        PackStrategy.getBetterPackFromInputLine(LINE);
+
+        // the product 4 is in every better pack, the products 1, 3 and 5 are in none
+        assertEquals(3, collector.getProductsRemoved());
+        assertEquals(1, collector.getProductsFixed());
+        assertTrue(collector.getSolverTime().isEmpty());
+    }
+
+    @Test
+    public void givenNotValidLine_whenSolve_shouldCountRejectedLine() {
+        PackStrategy.getBetterPackFromInputLine("101 : (1,53.38,€45)");
+
+        assertEquals(1, collector.getLinesRejected());
+        assertEquals(1, collector.getLineTime().getCount());
+        assertTrue(collector.getSolverTime().isEmpty());
+    }
+
+    @Test
+    public void givenRegisteredCollector_whenReadFromJmx_shouldReturnTheSameValues() throws Exception {
+        PackStrategy.getBetterPackFromInputLine(LINE);
+
+        final ObjectName name = new ObjectName(PackMetricsCollector.OBJECT_NAME);
+        final Object linesParsed = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "LinesParsed");
+        final CompositeData lineTime =
+                (CompositeData) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "LineTime");
+
+        assertEquals(1L, linesParsed);
+        assertEquals(1L, lineTime.get("count"));
+    }
+
+    @Test
+    public void givenUnregisteredCollector_whenSolve_shouldNotMeasure() {
+        collector.unregister();
+        PackStrategy.getBetterPackFromInputLine(LINE);
+
+        assertFalse(PackMetrics.isEnabled());
+        assertEquals(0, PackMetrics.nanoTime());
+        assertEquals(0, collector.getLinesParsed());
+    }
+
+    @Test
+    public void givenMeasures_whenCallReset_shouldClearThem() {
+        PackStrategy.getBetterPackFromInputLine(LINE);
+        collector.reset();
+
+        assertEquals(0, collector.getLinesParsed());
+        assertEquals(0, collector.getLineTime().getCount());
+        assertTrue(collector.getSolverTime().isEmpty());
+    }
+
+    @Test(expected = APIException.class)
+    public void givenRegisteredCollector_whenRegisterAnother_shouldThrowAPIException() {
+        new PackMetricsCollector().register();
+    }
+}
@@ -0,0 +1,140 @@
+package com.mobiquity.packer.model;
+
+import com.mobiquity.exception.APIException;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for class {@link ProductTable}
+ */
+public class ProductTableTest {
+
+    @Test
+    public void givenValuesInHundredths_whenCallAdd_shouldKeepThemInHundredths() {
+        final ProductTable table = new ProductTable(81, 0);
+        table.add(1, 5338, 2, 45, 0);
+        table.add(2, 8862, 2, 98, 0);
+
+        assertTrue(table.isInHundredths());
+        assertEquals(8100, table.getCapacity());
+        assertArrayEquals(new long[]{5338, 8862}, table.getWeights());
+        assertArrayEquals(new long[]{4500, 9800}, table.getCosts());
+    }
+
+    @Test
+    public void givenValueFinerThanHundredths_whenCallAdd_shouldRescaleAllValues() {
+        final ProductTable table = new ProductTable(8165, 2);
+        table.add(1, 5338, 2, 45, 0);
+        table.add(2, 1001, 3, 3, 0);
+
+        assertFalse(table.isInHundredths());
+        assertEquals(3, table.getScale());
+        assertEquals(81650, table.getCapacity());
+        assertArrayEquals(new long[]{53380, 1001}, table.getWeights());
+        assertArrayEquals(new long[]{45000, 3000}, table.getCosts());
+    }
+
+    @Test
+    public void givenWeightLimitFinerThanTable_whenCallGetCapacity_shouldRoundDown() {
+        final ProductTable table = new ProductTable(81659, 3);
+        table.add(1, 5338, 2, 45, 0);
+
+        assertEquals(8165, table.getCapacity());
+    }
+
+    @Test
+    public void givenSameIndex_whenCallAdd_shouldReplaceProduct() {
+        final ProductTable table = new ProductTable(81, 0);
+        table.add(1, 5338, 2, 45, 0);
+        table.add(1, 1000, 2, 10, 0);
+
+        assertEquals(1, table.size());
+        assertEquals(new Product(1, new BigDecimal("10.00"), new BigDecimal("10")), table.getProduct(0));
+    }
+
+    @Test
+    public void givenSelection_whenCallCreatePack_shouldRestoreProductsAsRead() {
+        final ProductTable table = new ProductTable(81, 0);
+        table.add(1, 5338, 2, 45, 0);
+        table.add(2, 1001, 3, 3, 0);
+        table.add(3, 7848, 2, 3, 0);
+
+        final BitSet selection = new BitSet();
+        selection.set(0);
+        selection.set(1);
+
+        final Set<Product> products = new HashSet<>();
+        products.add(new Product(1, new BigDecimal("53.38"), new BigDecimal("45")));
+        products.add(new Product(2, new BigDecimal("1.001"), new BigDecimal("3")));
+
+        final Pack pack = table.createPack(selection);
+
+        assertEquals(54381, table.getTotalWeight(selection));
+        assertEquals(48000, table.getTotalCost(selection));
+        assertEquals(products, pack.getProducts());
+        assertEquals(new BigDecimal("54.381"), pack.getTotalWeight());
+        assertEquals(new BigDecimal("48"), pack.getTotalCost());
+    }
+
+    @Test
+    public void givenProducts_whenCallRemove_shouldMoveTheNextProductsBack() {
+        final ProductTable table = new ProductTable(81, 0);
+        table.add(1, 5338, 2, 45, 0);
+        table.add(2, 8862, 2, 98, 0);
+        table.add(3, 7848, 2, 3, 0);
+
+        table.remove(0);
+
+        assertEquals(2, table.size());
+        assertEquals(0, table.getPosition(2));
+        assertEquals(-1, table.getPosition(1));
+        assertArrayEquals(new long[]{8862, 7848}, table.getWeights());
+    }
+
+    @Test
+    public void givenTable_whenCallWithWeightLimit_shouldKeepTheProducts() {
+        final ProductTable table = new ProductTable(81, 0);
+        table.add(1, 5338, 2, 45, 0);
+
+        final ProductTable newTable = table.withWeightLimit(5001, 2);
+
+        assertEquals(new BigDecimal("50.01"), newTable.getWeightLimit());
+        assertEquals(5001, newTable.getCapacity());
+        assertEquals(table.getProduct(0), newTable.getProduct(0));
+    }
+
+    @Test(expected = APIException.class)
+    public void givenPrecisionThatOverflows_whenCallAdd_shouldThrowAPIException() {
+        final ProductTable table = new ProductTable(81, 0);
+        table.add(1, Long.MAX_VALUE / 10, 0, 45, 0);
+
+        try {
+            table.add(2, 1, 18, 3, 0);
+        } catch (APIException ex) {
+            assertEquals(String.format("Precision of value (%d) exceeded the limit", Long.MAX_VALUE / 10), ex.getMessage());
+            throw ex;
+        }
+    }
+
+    @Test(expected = APIException.class)
+    public void givenWeightLimitThatOverflowsTheScale_whenCallGetCapacity_shouldThrowAPIException() {
+        final ProductTable table = new ProductTable(81, 0);
+        table.add(1, 1123456789012345678L, 18, 1, 0);
+
+        try {
+            table.getCapacity();
+        } catch (APIException ex) {
+            assertEquals("Precision of value (81) exceeded the limit", ex.getMessage());
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.mobiquity.packer.reader;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for class {@link MappedLineReader}
+ */
+public class MappedLineReaderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void givenEmptyFile_whenCallReadLines_shouldReadNothing() throws IOException {
+        assertEquals(Collections.emptyList(), readLines("", 1024));
+    }
+
+    @Test
+    public void givenLinesWithEuroSign_whenCallReadLines_shouldDecodeThemAsUtf8() throws IOException {
+        final List<String> lines = readLines("8 : (1,15.3,€34)\n81 : (1,53.38,€45) (2,88.62,€98)", 1024);
+        assertEquals(Arrays.asList("8 : (1,15.3,€34)", "81 : (1,53.38,€45) (2,88.62,€98)"), lines);
+    }
+
+    @Test
+    public void givenWindowsLineBreaksAndEmptyLines_whenCallReadLines_shouldReadAsBufferedReader() throws IOException {
+        final List<String> lines = readLines("8 : (1,15.3,€34)\r\n\r\n75 : \n", 1024);
+        assertEquals(Arrays.asList("8 : (1,15.3,€34)", "", "75 : "), lines);
+    }
+
+    @Test
+    public void givenLoneCarriageReturn_whenCallReadLines_shouldKeepItInTheLine() throws IOException {
+        final List<String> lines = readLines("8 : (1,15.3,€34)\r75 : \n", 1024);
+        assertEquals(Collections.singletonList("8 : (1,15.3,€34)\r75 : "), lines);
+    }
+
+    @Test
+    public void givenCharactersSplitBetweenRegions_whenCallReadLines_shouldDecodeThemAsUtf8() throws IOException {
+        final String content = "8 : (1,15.3,€34)\n56 : (1,90.72,€13) (2,33.80,€40)\n€€€";
+
+        // every possible region size splits the euro sign and the lines in a different place
+        for (int regionSize = 1; regionSize <= 8; regionSize++) {
+            assertEquals(Arrays.asList(content.split("\n")), readLines(content, regionSize));
+        }
+    }
+
+    @Test
+    public void givenMalformedBytes_whenCallReadLines_shouldReplaceThem() throws IOException {
+        final Path path = temporaryFolder.newFile().toPath();
+        Files.write(path, new byte[]{'8', (byte) 0xE2, (byte) 0x82, '\n', (byte) 0xFF});
+
+        final List<String> lines = new ArrayList<>();
+        MappedLineReader.readLines(path, line -> lines.add(line.toString()));
+
+        assertEquals(Arrays.asList("8�", "�"), lines);
+    }
+
+    private List<String> readLines(final String content, final long regionSize) throws IOException {
+        final Path path = temporaryFolder.newFile().toPath();
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+
+        final List<String> lines = new ArrayList<>();
+        MappedLineReader.readLines(path, regionSize, line -> lines.add(line.toString()));
+        return lines;
+    }
+}
@@ -0,0 +1,121 @@
+package com.mobiquity.packer.reduction;
+
+import com.mobiquity.packer.model.ProductTable;
+import com.mobiquity.packer.solver.DynamicProgrammingSolver;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for class {@link ProductReducer}
+ */
+public class ProductReducerTest {
+
+    @Test
+    public void givenProductWithoutCost_whenCallReduce_shouldRemoveIt() {
+        final ProductTable table = new ProductTable(10, 0);
+        table.add(1, 4, 0, 0, 0);
+        table.add(2, 4, 0, 4, 0);
+        table.add(3, 5, 0, 5, 0);
+        table.add(4, 6, 0, 6, 0);
+
+        final Reduction reduction = ProductReducer.reduce(table);
+
+        assertEquals(3, reduction.getTable().size());
+        assertEquals(1, reduction.getRemovedProducts(table.size()));
+        assertTrue(reduction.getFixedProducts().isEmpty());
+    }
+
+    @Test
+    public void givenDominatedProductThatDoesNotFitWithTheOthers_whenCallReduce_shouldRemoveIt() {
+        // the product 2 is heavier and cheaper than the product 1, and both do not fit together
+        final ProductTable table = new ProductTable(10, 0);
+        table.add(1, 5, 0, 6, 0);
+        table.add(2, 6, 0, 5, 0);
+        table.add(3, 4, 0, 4, 0);
+        table.add(4, 3, 0, 3, 0);
+
+        final Reduction reduction = ProductReducer.reduce(table);
+
+        for (int i = 0; i < reduction.getTable().size(); i++) {
+            assertFalse(reduction.getTable().getIndex(i) == 2);
+        }
+    }
+
+    @Test
+    public void givenSameProductManyTimes_whenCallReduce_shouldKeepOnlyTheLowestIndexesThatFit() {
+        final ProductTable table = new ProductTable(10, 0);
+        table.add(1, 1, 0, 1, 0);
+        table.add(2, 4, 0, 4, 0);
+        table.add(3, 4, 0, 4, 0);
+        table.add(4, 4, 0, 4, 0);
+        table.add(5, 4, 0, 4, 0);
+
+        final Reduction reduction = ProductReducer.reduce(table);
+        final BitSet selection = reduction.toOriginalSelection(reduction.getTable().selectAll());
+
+        // the products 4 and 5 do not fit with the same products of lower index
+        assertEquals(2, reduction.getRemovedProducts(table.size()));
+        assertEquals(3, selection.cardinality());
+        assertTrue(selection.get(0) && selection.get(1) && selection.get(2));
+    }
+
+    @Test
+    public void givenProductInEveryBetterPack_whenCallReduce_shouldFixIt() {
+        final ProductTable table = new ProductTable(81, 0);
+        table.add(1, 5338, 2, 45, 0);
+        table.add(3, 7848, 2, 3, 0);
+        table.add(4, 7230, 2, 76, 0);
+        table.add(5, 3018, 2, 9, 0);
+
+        final Reduction reduction = ProductReducer.reduce(table);
+
+        assertEquals(0, reduction.getTable().size());
+        assertEquals(1, reduction.getFixedProducts().cardinality());
+        assertTrue(reduction.getFixedProducts().get(2));
+        assertEquals(870, reduction.getTable().getCapacity());
+    }
+
+    @Test
+    public void givenNegativeCost_whenCallReduce_shouldNotReduce() {
+        final ProductTable table = new ProductTable(10, 0);
+        table.add(1, 5, 0, -6, 0);
+        table.add(2, 6, 0, 0, 0);
+
+        final Reduction reduction = ProductReducer.reduce(table);
+
+        assertEquals(2, reduction.getTable().size());
+        assertTrue(reduction.getFixedProducts().isEmpty());
+    }
+
+    @Test
+    public void givenRandomProducts_whenSolveReducedTable_shouldReturnSameCostAndWeightAsFullTable() {
+        final Random random = new Random(17);
+        final DynamicProgrammingSolver solver = new DynamicProgrammingSolver();
+
+        for (int line = 0; line < 300; line++) {
+            final int weightLimit = 1 + random.nextInt(60);
+            final ProductTable table = new ProductTable(weightLimit, 0);
+
+            // few distinct values, so there are many dominated and repeated products
+            final int totalProducts = 1 + random.nextInt(12);
+            for (int index = 1; index <= totalProducts; index++) {
+                table.add(index, 1 + random.nextInt(Math.min(20, weightLimit)), 0, random.nextInt(6), 0);
+            }
+
+            final BitSet expected = solver.solve(table);
+
+            final Reduction reduction = ProductReducer.reduce(table);
+            final BitSet actual = reduction.toOriginalSelection(solver.solve(reduction.getTable()));
+
+            assertEquals(table.toString(), table.getTotalCost(expected), table.getTotalCost(actual));
+            assertEquals(table.toString(), table.getTotalWeight(expected), table.getTotalWeight(actual));
+            assertTrue(table.getTotalWeight(actual) <= table.getCapacity());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.mobiquity.packer.solver;
+
+import com.mobiquity.packer.model.Product;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the implementations of {@link PackSolver}, checked against {@link BruteForceSolver}
+ */
+public class PackSolverTest {
+
+    private static final List<PackSolver> SOLVERS = Arrays.asList(
+            new BitmaskSolver(),
+            new DynamicProgrammingSolver(),
+            new MeetInTheMiddleSolver(),
+            new BranchAndBoundSolver(),
+            new ParallelBranchAndBoundSolver(new ForkJoinPool(4)),
+            new ParetoFrontierSolver());
+
+    @Test
+    public void givenRandomProductsInHundredths_whenCallSolve_shouldReturnSameCostAndWeightAsBruteForce() {
+        final Random random = new Random(5);
+
+        for (int round = 0; round < 100; round++) {
+            final BigDecimal weightLimit = BigDecimal.valueOf(1 + random.nextInt(10000), 2);
+            final List<Product> products = createProducts(random, weightLimit, 2);
+            final List<Product> expected = new BruteForceSolver().solve(weightLimit, products);
+
+            for (PackSolver solver : SOLVERS) {
+                final List<Product> result = solver.solve(weightLimit, products);
+
+                assertEquals(solver.getName(), 0, sum(expected, Product::getCost).compareTo(sum(result, Product::getCost)));
+                assertEquals(solver.getName(), 0,
+                        sum(expected, Product::getWeight).compareTo(sum(result, Product::getWeight)));
+            }
+        }
+    }
+
+    @Test
+    public void givenRandomProductsFinerThanHundredths_whenCallSolve_shouldReturnSameCostAndWeightAsBruteForce() {
+        final Random random = new Random(6);
+
+        for (int round = 0; round < 100; round++) {
+            final BigDecimal weightLimit = BigDecimal.valueOf(1 + random.nextInt(100000), 3);
+            final List<Product> products = createProducts(random, weightLimit, 3);
+            final List<Product> expected = new BruteForceSolver().solve(weightLimit, products);
+
+            // the dynamic programming is not exact for this precision, so it is never selected for these lines
+            for (PackSolver solver : SOLVERS.subList(2, SOLVERS.size())) {
+                final List<Product> result = solver.solve(weightLimit, products);
+
+                assertEquals(solver.getName(), 0, sum(expected, Product::getCost).compareTo(sum(result, Product::getCost)));
+                assertEquals(solver.getName(), 0,
+                        sum(expected, Product::getWeight).compareTo(sum(result, Product::getWeight)));
+            }
+        }
+    }
+
+    @Test
+    public void givenManyProductsWithLargeCosts_whenCallSolve_shouldReturnSameCostAndWeightAsParetoFrontier() {
+        final Random random = new Random(7);
+        final BigDecimal weightLimit = new BigDecimal("900");
+
+        // the total cost in hundredths exceeds Integer.MAX_VALUE
+        final List<Product> products = new ArrayList<>();
+        for (int index = 1; index <= 400; index++) {
+            final BigDecimal weight = BigDecimal.valueOf(100 + random.nextInt(300), 2);
+            products.add(new Product(index, weight, weight.multiply(BigDecimal.valueOf(25000))));
+        }
+
+        final List<Product> expected = new ParetoFrontierSolver().solve(weightLimit, products);
+        final List<Product> result = new DynamicProgrammingSolver().solve(weightLimit, products);
+
+        assertEquals(0, sum(expected, Product::getCost).compareTo(sum(result, Product::getCost)));
+        assertEquals(0, sum(expected, Product::getWeight).compareTo(sum(result, Product::getWeight)));
+    }
+
+    private static List<Product> createProducts(final Random random, final BigDecimal weightLimit, final int scale) {
+        final List<Product> products = new ArrayList<>();
+
+        final int totalProducts = 1 + random.nextInt(12);
+        for (int index = 1; index <= totalProducts; index++) {
+            final int maxWeight = weightLimit.unscaledValue().intValue();
+            final BigDecimal weight = BigDecimal.valueOf(1 + random.nextInt(maxWeight), scale);
+            final BigDecimal cost = BigDecimal.valueOf(1 + random.nextInt(10000), 2);
+
+            products.add(new Product(index, weight, cost));
+        }
+
+        return products;
+    }
+
+    private static BigDecimal sum(final List<Product> products, final Function<Product, BigDecimal> getter) {
+        return products.stream().map(getter).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,76 @@
+package com.mobiquity.packer.solver;
+
+import com.mobiquity.packer.dto.FileContentDto;
+import com.mobiquity.packer.model.Product;
+import com.mobiquity.packer.model.ProductTable;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for class {@link SolverSelector}
+ */
+public class SolverSelectorTest {
+
+    @Test
+    public void givenFewProducts_whenCallSelect_shouldChooseBitmask() {
+        final SolverSelection selection = select("100", createProducts(3, "15.31", "34"));
+
+        assertSame(SolverSelector.BITMASK, selection.getSolver());
+        assertEquals("3 products in hundredths, weight limit 100: bitmask is the cheapest with 8 estimated steps",
+                selection.getReason());
+    }
+
+    @Test
+    public void givenProductsInHundredthsAndSmallWeightLimit_whenCallSelect_shouldChooseDynamicProgramming() {
+        final SolverSelection selection = select("2", createProducts(15, "0.15", "34"));
+
+        assertSame(SolverSelector.DYNAMIC_PROGRAMMING, selection.getSolver());
+    }
+
+    @Test
+    public void givenProductsFinerThanHundredthsAndSmallWeightLimit_whenCallSelect_shouldNotChooseDynamicProgramming() {
+        final SolverSelection selection = select("2", createProducts(15, "0.151", "34"));
+
+        assertSame(SolverSelector.MEET_IN_THE_MIDDLE, selection.getSolver());
+    }
+
+    @Test
+    public void givenManyProductsFinerThanHundredths_whenCallSelect_shouldChooseBranchAndBound() {
+        final SolverSelection selection = select("100", createProducts(100, "15.311", "34"));
+
+        assertSame(SolverSelector.BRANCH_AND_BOUND, selection.getSolver());
+    }
+
+    @Test
+    public void givenScalableOnlyLineWithFewProductsFinerThanHundredths_whenCallSelect_shouldChooseMeetInTheMiddle() {
+        final ProductTable table = ProductTable.of(new BigDecimal("100"), createProducts(20, "15.311", "34"));
+
+        assertSame(SolverSelector.MEET_IN_THE_MIDDLE, SolverSelector.select(table, true).getSolver());
+    }
+
+    @Test
+    public void givenProductsWhoseHalvesExceedTheMemory_whenCallSelect_shouldChooseBranchAndBound() {
+        // 40 products are within the estimated steps, but their halves take more than 32 MB
+        final SolverSelection selection = select("100", createProducts(40, "15.311", "34"));
+
+        assertSame(SolverSelector.BRANCH_AND_BOUND, selection.getSolver());
+    }
+
+    private static SolverSelection select(final String weightLimit, final List<Product> products) {
+        return SolverSelector.select(new FileContentDto(new BigDecimal(weightLimit), new String[0]), products);
+    }
+
+    private static List<Product> createProducts(final int quantity, final String weight, final String cost) {
+        final List<Product> products = new ArrayList<>();
+        for (int index = 1; index <= quantity; index++) {
+            products.add(new Product(index, new BigDecimal(weight), new BigDecimal(cost)));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,138 @@
+package com.mobiquity.packer.strategy;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.model.Pack;
+import com.mobiquity.packer.model.Product;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for class {@link PackSession}
+ */
+public class PackSessionTest {
+
+    private static final String LINE = "81 : (1,53.38,€45) (2,88.62,€98) (3,78.48,€3) (4,72.30,€76) (5,30.18,€9)";
+
+    @Test
+    public void givenLine_whenStartSession_shouldReturnSameAsStrategy() {
+        final PackSession session = new PackSession(LINE);
+
+        assertEquals(Set.of(4), getIndexes(session.getBetterPack()));
+        assertEquals(4, session.getProducts().size());
+    }
+
+    @Test
+    public void givenSession_whenAddAndRemoveProducts_shouldReturnTheNewBetterPack() {
+        final PackSession session = new PackSession(LINE);
+
+        assertEquals(Set.of(4, 6), getIndexes(
+                session.addProduct(new Product(6, new BigDecimal("8.5"), new BigDecimal("20")))));
+        assertEquals(Set.of(1, 6), getIndexes(session.removeProduct(4)));
+        assertEquals(Set.of(5, 6), getIndexes(
+                session.addProduct(new Product(5, new BigDecimal("30.18"), new BigDecimal("50")))));
+    }
+
+    @Test
+    public void givenSession_whenChangeWeightLimit_shouldReturnTheNewBetterPack() {
+        final PackSession session = new PackSession(LINE);
+
+        assertEquals(Set.of(5), getIndexes(session.setWeightLimit(new BigDecimal("31"))));
+        assertEquals(Set.of(4), getIndexes(session.setWeightLimit(new BigDecimal("100"))));
+    }
+
+    @Test
+    public void givenProductHeavierThanLimit_whenAddProduct_shouldIgnoreIt() {
+        final PackSession session = new PackSession(LINE);
+
+        session.addProduct(new Product(6, new BigDecimal("81.01"), new BigDecimal("99")));
+
+        assertEquals(4, session.getProducts().size());
+    }
+
+    @Test(expected = APIException.class)
+    public void givenWeightLimitAboveConfig_whenSetWeightLimit_shouldThrowException() {
+        final PackSession session = new PackSession(LINE);
+
+        try {
+            session.setWeightLimit(new BigDecimal("100.5"));
+
+        } catch (final APIException ex) {
+            assertEquals("Weight of package (100.5) exceeded 100", ex.getMessage());
+            throw ex;
+        }
+        fail("Should throw APIException due the weight limit!");
+    }
+
+    @Test(expected = APIException.class)
+    public void givenWeightWithTooManyDigits_whenAddProduct_shouldThrowException() {
+        final PackSession session = new PackSession(LINE);
+        final String weight = "8.0000000000000000000001";
+
+        try {
+            session.addProduct(new Product(6, new BigDecimal(weight), new BigDecimal("20")));
+
+        } catch (final APIException ex) {
+            assertEquals(String.format("Error to convert number to fixed point, content=\"%s\"", weight),
+                    ex.getMessage());
+            assertEquals(4, session.getProducts().size());
+            throw ex;
+        }
+        fail("Should throw APIException due the weight!");
+    }
+
+    @Test
+    public void givenWeightLimitWithNegativeScale_whenSetWeightLimit_shouldReturnTheNewBetterPack() {
+        final PackSession session = new PackSession(LINE);
+
+        assertEquals(Set.of(4), getIndexes(session.setWeightLimit(new BigDecimal("1E+2"))));
+        assertEquals(0, new BigDecimal("100").compareTo(session.getWeightLimit()));
+    }
+
+    @Test
+    public void givenRandomChanges_whenUseSession_shouldReturnSameCostAndWeightAsStrategy() {
+        final Random random = new Random(29);
+        final PackSession session = new PackSession("50 : (1,10.5,€10)");
+
+        for (int change = 0; change < 300; change++) {
+            final int operation = random.nextInt(4);
+
+            if (operation == 0) {
+                session.removeProduct(1 + random.nextInt(15));
+            } else if (operation == 1) {
+                session.setWeightLimit(BigDecimal.valueOf(1 + random.nextInt(10000), 2));
+            } else if (session.getProducts().size() < 15 || operation == 2) {
+                final int index = 1 + random.nextInt(session.getProducts().size() < 15 ? 15 : 1);
+                try {
+                    session.addProduct(new Product(index, BigDecimal.valueOf(1 + random.nextInt(6000), 2),
+                            BigDecimal.valueOf(random.nextInt(100))));
+                } catch (final APIException ex) {
+                    // the session is full, and the index is new
+                }
+            }
+
+            final Pack expected = PackStrategy.getBetterPackFromInputLine(toLine(session));
+            final Pack pack = session.getBetterPack();
+
+            assertEquals(toLine(session), 0, expected.getTotalCost().compareTo(pack.getTotalCost()));
+            assertEquals(toLine(session), 0, expected.getTotalWeight().compareTo(pack.getTotalWeight()));
+        }
+    }
+
+    private static String toLine(final PackSession session) {
+        return session.getWeightLimit().toPlainString() + " : " + session.getProducts().stream()
+                .map(product -> String.format("(%d,%s,€%s)", product.getIndex(),
+                        product.getWeight().toPlainString(), product.getCost().toPlainString()))
+                .collect(Collectors.joining(" "));
+    }
+
+    private static Set<Integer> getIndexes(final Pack pack) {
+        return pack.getProducts().stream().map(Product::getIndex).collect(Collectors.toSet());
+    }
+}
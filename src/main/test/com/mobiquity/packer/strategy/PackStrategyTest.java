@@ -1,15 +1,30 @@
 package com.mobiquity.packer.strategy;
 
 import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.config.PackConfig;
+import com.mobiquity.packer.model.MultiPack;
 import com.mobiquity.packer.model.Pack;
 import com.mobiquity.packer.model.Product;
+import com.mobiquity.packer.model.TimedPack;
+import com.mobiquity.packer.solver.BranchAndBoundSolver;
+import com.mobiquity.packer.solver.BruteForceSolver;
+import com.mobiquity.packer.solver.SolverSelection;
+import com.mobiquity.packer.solver.SolverSelector;
 import org.junit.Test;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 
@@ -269,4 +284,258 @@ public class PackStrategyTest {
 
         assertEquals(expectedProducts, pack.getProducts());
     }
+
+    @Test
+    public void givenProductsWithMoreThanTwoDecimals_whenCallLineToPack_thenReturnPackWithLighterProduct() {
+        final Pack pack = PackStrategy.getBetterPackFromInputLine("10 : (1,5.001,€8) (2,5,€4) (3,5,€4)");
+        assertNotNull(pack);
+        assertEquals(new BigDecimal("5.001"), pack.getTotalWeight());
+        assertEquals(new BigDecimal(8), pack.getTotalCost());
+        assertEquals(Collections.singleton(new Product(1, new BigDecimal("5.001"), new BigDecimal(8))),
+                pack.getProducts());
+    }
+
+    @Test
+    public void givenRandomLines_whenCallLineToPack_thenReturnSameCostAndWeightAsAllCombinations() {
+        final Random random = new Random(42);
+
+        for (int round = 0; round < 200; round++) {
+            final BigDecimal weightLimit = BigDecimal.valueOf(1 + random.nextInt(10000), 2);
+            final StringBuilder line = new StringBuilder(weightLimit.toPlainString()).append(" :");
+            final HashMap<Integer, Product> productMap = new HashMap<>();
+
+            // some lines have weights in thousandths, that are not supported by the knapsack table
+            final int weightScale = 2 + random.nextInt(2);
+
+            final int totalProducts = 1 + random.nextInt(12);
+            for (int index = 1; index <= totalProducts; index++) {
+                final BigDecimal weight = BigDecimal.valueOf(1 + random.nextInt(10000), weightScale);
+                final BigDecimal cost = BigDecimal.valueOf(1 + random.nextInt(100));
+                line.append(String.format(" (%d,%s,€%s)", index, weight.toPlainString(), cost.toPlainString()));
+
+                if (weight.compareTo(weightLimit) <= 0) {
+                    productMap.put(index, new Product(index, weight, cost));
+                }
+            }
+
+            final Pack pack = PackStrategy.getBetterPackFromInputLine(line.toString());
+            final List<Product> expectedProducts =
+                    new BruteForceSolver().solve(weightLimit, new ArrayList<>(productMap.values()));
+
+            assertNotNull(pack);
+            assertEquals(line.toString(), 0, sum(expectedProducts, Product::getCost).compareTo(pack.getTotalCost()));
+            assertEquals(line.toString(), 0, sum(expectedProducts, Product::getWeight).compareTo(pack.getTotalWeight()));
+        }
+    }
+
+    @Test
+    public void givenLineThatNeedsASolver_whenCallLineToPackWithListener_thenInformTheSolverSelection() {
+        final AtomicReference<SolverSelection> selection = new AtomicReference<>();
+
+        final Pack pack = PackStrategy.getBetterPackFromInputLine("10 : (1,5,€8.01) (2,5.01,€8.02)", selection::set);
+        assertNotNull(pack);
+        assertNotNull(selection.get());
+        assertNotNull(selection.get().getSolver());
+        assertTrue(selection.get().getReason().startsWith("2 products in hundredths, weight limit 10"));
+    }
+
+    @Test
+    public void givenLineWhereAllProductsFit_whenCallLineToPackWithListener_thenDoNotSelectSolver() {
+        final AtomicReference<SolverSelection> selection = new AtomicReference<>();
+
+        final Pack pack = PackStrategy.getBetterPackFromInputLine("10 : (1,5,€8.01) (2,5,€8.02)", selection::set);
+        assertNotNull(pack);
+        assertEquals(2, pack.getProducts().size());
+        assertNull(selection.get());
+    }
+
+    @Test
+    public void givenLineAboveStrictLimits_whenCallLineToPackInExtendedMode_thenSolveWithScalableSolver() {
+        final Random random = new Random(42);
+        final BigDecimal weightLimit = BigDecimal.valueOf(500);
+        final StringBuilder line = new StringBuilder(weightLimit.toPlainString()).append(" :");
+        final List<Product> products = new ArrayList<>();
+
+        for (int index = 1; index <= 100; index++) {
+            final BigDecimal weight = BigDecimal.valueOf(1 + random.nextInt(30000), 2);
+            final BigDecimal cost = BigDecimal.valueOf(1 + random.nextInt(1000));
+            line.append(String.format(" (%d,%s,€%s)", index, weight.toPlainString(), cost.toPlainString()));
+            products.add(new Product(index, weight, cost));
+        }
+
+        assertNull(PackStrategy.getBetterPackFromInputLine(line.toString()));
+
+        final AtomicReference<SolverSelection> selection = new AtomicReference<>();
+        final Pack pack = PackStrategy.getBetterPackFromInputLine(line.toString(), PackConfig.EXTENDED, selection::set);
+
+        // the chosen solver is checked against the branch and bound
+        assertNotSame(SolverSelector.BITMASK, selection.get().getSolver());
+        assertTrue(selection.get().getReason().contains("(scalable only)"));
+
+        final List<Product> expectedProducts = new BranchAndBoundSolver().solve(weightLimit, products);
+        assertEquals(0, sum(expectedProducts, Product::getCost).compareTo(pack.getTotalCost()));
+        assertEquals(0, sum(expectedProducts, Product::getWeight).compareTo(pack.getTotalWeight()));
+    }
+
+    @Test
+    public void givenLineWith16ProductsAndFineWeights_whenCallLineToPackInExtendedMode_thenSolveWithMeetInTheMiddle() {
+        final StringBuilder line = new StringBuilder("10 :");
+        final List<Product> products = new ArrayList<>();
+
+        for (int index = 1; index <= 16; index++) {
+            final BigDecimal weight = new BigDecimal((1 + index % 3) + ".001");
+            final Product product = new Product(index, weight, BigDecimal.valueOf(10 + index));
+            line.append(String.format(" (%d,%s,€%s)", index, product.getWeight(), product.getCost()));
+            products.add(product);
+        }
+
+        final AtomicReference<SolverSelection> selection = new AtomicReference<>();
+        final Pack pack = PackStrategy.getBetterPackFromInputLine(line.toString(), PackConfig.EXTENDED, selection::set);
+
+        assertSame(SolverSelector.MEET_IN_THE_MIDDLE, selection.get().getSolver());
+
+        final List<Product> expectedProducts = new BranchAndBoundSolver().solve(new BigDecimal(10), products);
+        assertEquals(0, sum(expectedProducts, Product::getCost).compareTo(pack.getTotalCost()));
+        assertEquals(0, sum(expectedProducts, Product::getWeight).compareTo(pack.getTotalWeight()));
+    }
+
+    @Test
+    public void givenLineAboveExtendedLimits_whenCallLineToPackInExtendedMode_thenReturnNull() {
+        final PackConfig config = PackConfig.extended(20, 200, 200);
+
+        assertNotNull(PackStrategy.getBetterPackFromInputLine("150 : (1,120,€150)", config));
+        assertNull(PackStrategy.getBetterPackFromInputLine("201 : (1,120,€150)", config));
+        assertEquals(0, PackStrategy.getBetterPackFromInputLine("150 : (1,120,€201)", config).getProducts().size());
+    }
+
+    @Test
+    public void givenProductsAndManyWeightLimits_whenGetBetterPacks_thenReturnSameAsEachLine() {
+        final String products = "(1,53.38,€45) (2,88.62,€98) (3,78.48,€3) (4,72.30,€76) (5,30.18,€9) (6,46.34,€48)";
+        final List<String> weightLimits = List.of("81", "30", "100", "46.34", "0", "75.5", "81");
+
+        final List<Pack> packs = PackStrategy.getBetterPacks(new PackSession("100 : " + products).getProducts(),
+                weightLimits.stream().map(BigDecimal::new).collect(Collectors.toList()));
+
+        assertEquals(weightLimits.size(), packs.size());
+
+        for (int i = 0; i < weightLimits.size(); i++) {
+            final Pack expected = PackStrategy.getBetterPackFromInputLine(weightLimits.get(i) + " : " + products);
+
+            assertEquals(expected.getProducts(), packs.get(i).getProducts());
+            assertEquals(0, new BigDecimal(weightLimits.get(i)).compareTo(packs.get(i).getWeightLimit()));
+        }
+    }
+
+    @Test
+    public void givenInvalidWeightLimit_whenGetBetterPacks_thenReturnNullForIt() {
+        final List<Product> products = List.of(new Product(1, new BigDecimal("15.3"), new BigDecimal("34")));
+
+        final List<Pack> packs = PackStrategy.getBetterPacks(products,
+                List.of(new BigDecimal("101"), new BigDecimal("20"), new BigDecimal("-1")));
+
+        assertNull(packs.get(0));
+        assertEquals(1, packs.get(1).getProducts().size());
+        assertNull(packs.get(2));
+        assertEquals(Arrays.asList(null, null), PackStrategy.getBetterPacks(products, List.of(new BigDecimal("101"),
+                new BigDecimal("102"))));
+    }
+
+    @Test(expected = APIException.class)
+    public void givenWeightLimitThatOverflowsFixedPoint_whenGetBetterPacks_thenThrowsException() {
+        final List<Product> products = List.of(new Product(1, new BigDecimal("15.3"), new BigDecimal("34")));
+
+        try {
+            PackStrategy.getBetterPacks(products, List.of(new BigDecimal("20"), new BigDecimal("1E+30")));
+
+        } catch (final APIException ex) {
+            assertEquals("Error to convert number to fixed point, content=\"1000000000000000000000000000000\"",
+                    ex.getMessage());
+            throw ex;
+        }
+    }
+
+    @Test
+    public void givenProductsAndManyBoxes_whenGetBetterMultiPack_thenFillEachBoxWithDifferentProducts() {
+        final List<Product> products = new PackSession(
+                "100 : (1,53.38,€45) (2,88.62,€98) (3,78.48,€3) (4,72.30,€76) (5,30.18,€9) (6,46.34,€48)")
+                .getProducts();
+
+        final MultiPack multiPack = PackStrategy.getBetterMultiPack(products,
+                List.of(new BigDecimal("90"), new BigDecimal("75")), Duration.ofSeconds(10));
+
+        assertTrue(multiPack.isOptimal());
+        assertEquals(Set.of(new Product(2, new BigDecimal("88.62"), new BigDecimal("98"))),
+                multiPack.getPacks().get(0).getProducts());
+        assertEquals(Set.of(new Product(4, new BigDecimal("72.30"), new BigDecimal("76"))),
+                multiPack.getPacks().get(1).getProducts());
+        assertEquals(0, new BigDecimal("174").compareTo(multiPack.getTotalCost()));
+        assertEquals(0, new BigDecimal("75").compareTo(multiPack.getPacks().get(1).getWeightLimit()));
+    }
+
+    @Test
+    public void givenOneBox_whenGetBetterMultiPack_thenReturnSameAsLine() {
+        final String line = "75 : (1,85.31,€29) (2,14.55,€74) (3,3.98,€16) (4,26.24,€55) (5,63.69,€52) "
+                + "(6,76.25,€75) (7,60.02,€74) (8,93.18,€35) (9,89.95,€78)";
+        final PackSession session = new PackSession(line);
+
+        final MultiPack multiPack = PackStrategy.getBetterMultiPack(session.getProducts(),
+                List.of(session.getWeightLimit()), Duration.ofSeconds(10));
+
+        assertEquals(List.of(PackStrategy.getBetterPackFromInputLine(line)), multiPack.getPacks());
+    }
+
+    @Test
+    public void givenInvalidWeightLimit_whenGetBetterMultiPack_thenReturnNull() {
+        final List<Product> products = List.of(new Product(1, new BigDecimal("15.3"), new BigDecimal("34")));
+
+        assertNull(PackStrategy.getBetterMultiPack(products, List.of(new BigDecimal("20"), new BigDecimal("101")),
+                Duration.ofSeconds(10)));
+    }
+
+    @Test(expected = APIException.class)
+    public void givenWeightLimitThatOverflowsFixedPoint_whenGetBetterMultiPack_thenThrowsException() {
+        final List<Product> products = List.of(new Product(1, new BigDecimal("15.3"), new BigDecimal("34")));
+
+        try {
+            PackStrategy.getBetterMultiPack(products, List.of(new BigDecimal("20"),
+                    new BigDecimal("99999999999999999999")), Duration.ofSeconds(10));
+
+        } catch (final APIException ex) {
+            assertEquals("Error to convert number to fixed point, content=\"99999999999999999999\"",
+                    ex.getMessage());
+            throw ex;
+        }
+    }
+
+    @Test
+    public void givenTimeBudget_whenGetTimedPackFromInputLine_thenReturnSameAsLine() {
+        final String line = "75 : (1,85.31,€29) (2,14.55,€74) (3,3.98,€16) (4,26.24,€55) (5,63.69,€52) "
+                + "(6,76.25,€75) (7,60.02,€74) (8,93.18,€35) (9,89.95,€78)";
+
+        final TimedPack timedPack = PackStrategy.getTimedPackFromInputLine(line, Duration.ofSeconds(10));
+
+        assertTrue(timedPack.isOptimal());
+        assertEquals(PackStrategy.getBetterPackFromInputLine(line), timedPack.getPack());
+        assertNull(PackStrategy.getTimedPackFromInputLine("101 : (1,15.3,€34)", Duration.ofSeconds(10)));
+    }
+
+    @Test
+    public void givenNoTimeBudget_whenGetTimedPackFromInputLine_thenReturnPackNotProvenOptimal() {
+        final Random random = new Random(23);
+        final StringBuilder line = new StringBuilder("2500 :");
+        for (int index = 1; index <= 500; index++) {
+            final int weight = 1000 + random.nextInt(9000);
+            line.append(String.format(" (%d,%d.%02d,€%d)", index, weight / 100, weight % 100, weight / 100 + 1));
+        }
+
+        final TimedPack timedPack = PackStrategy.getTimedPackFromInputLine(line, PackConfig.EXTENDED, Duration.ZERO);
+
+        assertFalse(timedPack.isOptimal());
+        assertFalse(timedPack.getPack().getProducts().isEmpty());
+        assertTrue(timedPack.getPack().getTotalWeight().compareTo(new BigDecimal("2500")) <= 0);
+    }
+
+    private static BigDecimal sum(final List<Product> products, final Function<Product, BigDecimal> getter) {
+        return products.stream().map(getter).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
 }
@@ -0,0 +1,115 @@
+package com.mobiquity.packer.strategy;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.model.Pack;
+import com.mobiquity.packer.model.Product;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for class {@link ParetoCurve}
+ */
+public class ParetoCurveTest {
+
+    private static final String PRODUCTS = "(1,53.38,€45) (2,88.62,€98) (3,78.48,€3) (4,72.30,€76) (5,30.18,€9)";
+    private static final String LINE = "81 : " + PRODUCTS;
+
+    @Test
+    public void givenLine_whenGetPacks_shouldReturnTheTradeOffSortedByWeight() {
+        final List<Pack> packs = PackStrategy.getParetoCurve(LINE).getPacks();
+
+        assertEquals(List.of(Set.of(5), Set.of(1), Set.of(4)),
+                packs.stream().map(ParetoCurveTest::getIndexes).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void givenLine_whenGetBetterPack_shouldReturnSameAsStrategy() {
+        final ParetoCurve curve = PackStrategy.getParetoCurve(LINE);
+
+        assertEquals(Set.of(4), getIndexes(curve.getBetterPack(new BigDecimal("81"))));
+        assertEquals(Set.of(1), getIndexes(curve.getBetterPack(new BigDecimal("72.29"))));
+        assertEquals(Set.of(), getIndexes(curve.getBetterPack(new BigDecimal("30.17"))));
+        assertEquals(new BigDecimal("53"), curve.getBetterPack(new BigDecimal("53")).getWeightLimit());
+    }
+
+    @Test
+    public void givenLine_whenGetBetterPacksForEachWeightLimit_shouldReturnSameAsStrategyForEachLimit() {
+        final ParetoCurve curve = PackStrategy.getParetoCurve(LINE);
+        final List<Pack> packs = curve.getBetterPacksForEachWeightLimit();
+
+        assertEquals(81, packs.size());
+
+        for (int weightLimit = 1; weightLimit <= packs.size(); weightLimit++) {
+            final Pack expected = PackStrategy.getBetterPackFromInputLine(weightLimit + " : " + PRODUCTS);
+
+            assertEquals(getIndexes(expected), getIndexes(packs.get(weightLimit - 1)));
+        }
+    }
+
+    @Test
+    public void givenRandomLines_whenGetBetterPacksForEachWeightLimit_shouldReturnSameCostAndWeightAsStrategy() {
+        final Random random = new Random(41);
+
+        for (int line = 0; line < 20; line++) {
+            final String products = randomProducts(random, 1 + random.nextInt(15));
+            final List<Pack> packs = PackStrategy.getParetoCurve("100 : " + products)
+                    .getBetterPacksForEachWeightLimit();
+
+            for (int weightLimit = 1; weightLimit <= packs.size(); weightLimit++) {
+                final String limitedLine = weightLimit + " : " + products;
+                final Pack expected = PackStrategy.getBetterPackFromInputLine(limitedLine);
+                final Pack pack = packs.get(weightLimit - 1);
+
+                assertEquals(limitedLine, 0, expected.getTotalCost().compareTo(pack.getTotalCost()));
+                assertEquals(limitedLine, 0, expected.getTotalWeight().compareTo(pack.getTotalWeight()));
+            }
+        }
+    }
+
+    @Test
+    public void givenLimitBelowOne_whenGetBetterPacksForEachWeightLimit_shouldReturnEmptyList() {
+        assertTrue(PackStrategy.getParetoCurve("0.5 : (1,0.2,€5)").getBetterPacksForEachWeightLimit().isEmpty());
+    }
+
+    @Test
+    public void givenInvalidLine_whenGetParetoCurve_shouldReturnNull() {
+        assertNull(PackStrategy.getParetoCurve("101 : " + PRODUCTS));
+    }
+
+    @Test(expected = APIException.class)
+    public void givenLimitAboveLine_whenGetBetterPack_shouldThrowException() {
+        final ParetoCurve curve = PackStrategy.getParetoCurve(LINE);
+
+        try {
+            curve.getBetterPack(new BigDecimal("81.5"));
+
+        } catch (final APIException ex) {
+            assertEquals("Weight limit (81.5) exceeded the limit of the line (81)", ex.getMessage());
+            throw ex;
+        }
+        fail("Should throw APIException due the weight limit!");
+    }
+
+    private static String randomProducts(final Random random, final int totalProducts) {
+        final StringBuilder products = new StringBuilder();
+        for (int index = 1; index <= totalProducts; index++) {
+            products.append(String.format("(%d,%s,€%d) ", index,
+                    BigDecimal.valueOf(1 + random.nextInt(6000), 2).toPlainString(), random.nextInt(100)));
+        }
+        return products.toString().trim();
+    }
+
+    private static Set<Integer> getIndexes(final Pack pack) {
+        return pack.getProducts().stream().map(Product::getIndex).collect(Collectors.toSet());
+    }
+}